@@ -0,0 +1,249 @@
+package database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import model.CartItem;
+import model.Money;
+import model.Product;
+import model.ShoppingCart;
+import utils.CurrencyUtils;
+import utils.ImageUtils;
+
+/**
+ * Microbenchmark sederhana (tanpa JMH) untuk hot path yang tidak butuh database:
+ * total keranjang, format Rupiah, pencarian katalog, mapping baris products ke Product
+ * (ResultSet palsu lewat java.lang.reflect.Proxy), dan decode/scaling gambar produk
+ * (cold: cache dikosongkan setiap operasi, cached: cache hit).
+ *
+ * Setiap benchmark di-warmup dulu, lalu diukur beberapa ronde; yang dilaporkan
+ * median ns/op antar ronde. Hasil ditambahkan ke bench/results.csv beserta commit
+ * git-nya, dan benchmark yang lebih lambat > 10% dari hasil sebelumnya ditandai.
+ *
+ * Path yang butuh MySQL (ProductDAO, checkout) diukur saat aplikasi berjalan
+ * lewat utils.Metrics (tab Diagnostics / metrics.json).
+ *
+ * Jalankan dari root project:
+ *   javac -encoding UTF-8 -d bin $(find src bench -name '*.java')
+ *   java -cp bin database.HotPathBenchmark [filter]
+ */
+public class HotPathBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final long ROUND_NANOS = 200_000_000L;
+    private static final double REGRESSION_THRESHOLD = 1.10;
+    private static final File RESULTS_FILE = new File("bench/results.csv");
+
+    // Hasil setiap operasi ditulis ke sini supaya JIT tidak membuang pemanggilannya
+    static volatile Object sink;
+
+    public static void main(String[] args) throws IOException {
+        // Log INFO (misal "Image cache cleared" di setiap operasi cold) hanya mengotori output
+        if (System.getProperty("arlene.log.level") == null) {
+            System.setProperty("arlene.log.level", "WARN");
+        }
+        String filter = args.length > 0 ? args[0] : "";
+        List<Product> catalog = sampleCatalog(2000);
+
+        Map<String, Supplier<Object>> benchmarks = new LinkedHashMap<>();
+
+        ShoppingCart cart = new ShoppingCart("CART_BENCH", "CUST_BENCH");
+        for (int i = 0; i < 50; i++) {
+            cart.addItem(new CartItem(i, cart.getCartId(), catalog.get(i), 1 + i % 3));
+        }
+        benchmarks.put("ShoppingCart.getTotalAmount", () -> cart.getTotalAmount());
+
+        Money[] amounts = {Money.ofMinor(50), Money.ofMinor(15_000), Money.ofMinor(125_075), Money.ofMinor(9_876_543)};
+        int[] next = {0};
+        benchmarks.put("CurrencyUtils.format", () -> CurrencyUtils.format(amounts[next[0]++ & 3]));
+
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.rebuild(catalog);
+        String[] queries = {"gold ring", "diamond", "silver necklace pearl", "bracelet 14"};
+        benchmarks.put("ProductSearchIndex.search", () -> index.search(queries[next[0]++ & 3]));
+
+        ProductDAO productDAO = new ProductDAO();
+        ResultSet row = productRow(catalog.get(7));
+        benchmarks.put("ProductDAO.mapResultSetToProduct", () -> {
+            try {
+                return productDAO.mapResultSetToProduct(row);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ImageUtils.initializeImageIndex();
+        String imagePath = firstProductImage();
+        if (imagePath != null) {
+            benchmarks.put("ImageUtils.getProductImage (cold)", () -> {
+                ImageUtils.clearImageCache();
+                return ImageUtils.getProductImage(imagePath, 200, 200);
+            });
+            benchmarks.put("ImageUtils.getProductImage (cached)", () -> ImageUtils.getProductImage(imagePath, 200, 200));
+        }
+
+        String commit = currentCommit();
+        Map<String, Double> previous = loadPrevious();
+        try (PrintWriter out = new PrintWriter(new FileWriter(RESULTS_FILE, true))) {
+            if (RESULTS_FILE.length() == 0) {
+                out.println("commit,benchmark,ns_per_op");
+            }
+            for (Map.Entry<String, Supplier<Object>> entry : benchmarks.entrySet()) {
+                if (!entry.getKey().contains(filter)) {
+                    continue;
+                }
+                double nsPerOp = measure(entry.getValue());
+                Double before = previous.get(entry.getKey());
+                String flag = before != null && nsPerOp > before * REGRESSION_THRESHOLD
+                        ? String.format(Locale.ROOT, "  ⚠️ REGRESSION (was %.1f)", before) : "";
+                System.out.println(String.format(Locale.ROOT, "%-40s %12.1f ns/op%s", entry.getKey(), nsPerOp, flag));
+                out.println(String.format(Locale.ROOT, "%s,%s,%.1f", commit, entry.getKey(), nsPerOp));
+            }
+        }
+        System.exit(0); // Thread watcher ImageUtils tidak boleh menahan JVM
+    }
+
+    private static double measure(Supplier<Object> op) {
+        long batch = calibrate(op);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runBatch(op, batch);
+        }
+        double[] rounds = new double[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            rounds[i] = (double) runBatch(op, batch) / batch;
+        }
+        Arrays.sort(rounds);
+        return rounds[MEASURE_ROUNDS / 2];
+    }
+
+    /**
+     * Jumlah operasi per ronde supaya satu ronde kira-kira ROUND_NANOS.
+     */
+    private static long calibrate(Supplier<Object> op) {
+        long batch = 1;
+        while (true) {
+            long elapsed = runBatch(op, batch);
+            if (elapsed >= ROUND_NANOS / 10) {
+                return Math.max(1, batch * ROUND_NANOS / elapsed);
+            }
+            batch *= 2;
+        }
+    }
+
+    private static long runBatch(Supplier<Object> op, long batch) {
+        long start = System.nanoTime();
+        for (long i = 0; i < batch; i++) {
+            sink = op.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<Product> sampleCatalog(int size) {
+        String[] categories = {"Ring", "Necklace", "Bracelet", "Earrings"};
+        String[] materials = {"Gold", "Silver", "Platinum", "Rose Gold"};
+        String[] gemstones = {"Diamond", "Pearl", "Ruby", "Sapphire", "None"};
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category = categories[i % categories.length];
+            String material = materials[i % materials.length];
+            String gemstone = gemstones[i % gemstones.length];
+            products.add(new Product("P" + i, material + " " + category + " " + i, category, material,
+                    Money.ofMinor(10_000 + i * 25L), 10, "Bench product " + i, "", 2.5, !"None".equals(gemstone), gemstone));
+        }
+        return products;
+    }
+
+    /**
+     * ResultSet satu baris tabel products tanpa driver JDBC; hanya getter yang dipakai
+     * mapResultSetToProduct yang dijawab, kolom dicari lewat HashMap seperti driver biasa.
+     */
+    private static ResultSet productRow(Product product) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("product_id", product.getProductId());
+        columns.put("name", product.getName());
+        columns.put("category", product.getCategory());
+        columns.put("material", product.getMaterial());
+        columns.put("price", new BigDecimal("1234.50"));
+        columns.put("stock", product.getStock());
+        columns.put("description", product.getDescription());
+        columns.put("image_path", product.getImagePath());
+        columns.put("weight", product.getWeight());
+        columns.put("has_gemstone", product.hasGemstone());
+        columns.put("gemstone_type", product.getGemstoneType());
+        columns.put("created_at", new Timestamp(0));
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    if (args != null && args.length == 1 && args[0] instanceof String && method.getName().startsWith("get")) {
+                        return columns.get(args[0]);
+                    }
+                    if (method.getName().equals("wasNull")) {
+                        return false;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static String firstProductImage() {
+        File[] files = new File("assets/images/products").listFiles(File::isFile);
+        return files == null || files.length == 0 ? null : "assets/images/products/" + files[0].getName();
+    }
+
+    private static String currentCommit() {
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+            String out = new String(readAll(p), StandardCharsets.UTF_8).trim();
+            return p.waitFor() == 0 && !out.isEmpty() ? out : "unknown";
+        } catch (IOException | InterruptedException e) {
+            return "unknown";
+        }
+    }
+
+    private static byte[] readAll(Process p) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[256];
+        int n;
+        while ((n = p.getInputStream().read(chunk)) > 0) {
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Hasil terakhir setiap benchmark dari bench/results.csv (baris paling bawah menang).
+     */
+    private static Map<String, Double> loadPrevious() throws IOException {
+        Map<String, Double> previous = new HashMap<>();
+        if (!RESULTS_FILE.exists()) {
+            return previous;
+        }
+        for (String line : Files.readAllLines(RESULTS_FILE.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split(",");
+            if (parts.length == 3 && !parts[0].equals("commit")) {
+                try {
+                    previous.put(parts[1], Double.parseDouble(parts[2]));
+                } catch (NumberFormatException ignored) {
+                    // Baris rusak dilewati
+                }
+            }
+        }
+        return previous;
+    }
+}
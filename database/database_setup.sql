@@ -119,6 +119,12 @@ INSERT INTO products (product_id, name, category, material, price, stock, descri
 ('E001', 'Diamond Stud Earrings', 'Earrings', 'Platinum', 1500.00, 10, 'Elegant diamond stud earrings for formal occasions.', 'assets/images/products/E001.png', 3.2, TRUE, 'Diamond'),
 ('E002', 'Gold Hoop Earrings', 'Earrings', 'Gold', 400.00, 15, 'Fashionable gold hoop earrings for everyday style.', 'assets/images/products/E002.png', 4.5, FALSE, 'None');
 
+-- =============================================
+-- INDEX & CONSTRAINT TAMBAHAN
+-- Tidak ditulis di sini: dijalankan otomatis oleh aplikasi saat startup dari
+-- database/migrations (V1__..., V2__...) dan dicatat di tabel schema_migrations.
+-- =============================================
+
 -- =============================================
 -- TAMPILKAN DATA YANG SUDAH DIMASUKKAN
 -- =============================================
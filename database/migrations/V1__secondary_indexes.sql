@@ -0,0 +1,24 @@
+-- =============================================
+-- V1: INDEX SEKUNDER
+-- Kolom FK (orders.user_id, order_items.order_id, cart_items.cart_id,
+-- shopping_carts.user_id) sudah punya index otomatis dari MySQL; index di
+-- bawah ini menambahkan urutan/kolom yang dipakai query aplikasi.
+-- =============================================
+
+-- DatabaseManager.getUserOrders: WHERE user_id = ? ORDER BY order_date DESC, order_id DESC (+ keyset cursor)
+CREATE INDEX idx_orders_user_date ON orders (user_id, order_date, order_id);
+
+-- DatabaseManager.loadOrderItems: WHERE order_id IN (...) -> covering untuk kolom item
+CREATE INDEX idx_order_items_order_cover ON order_items (order_id, product_id, quantity, unit_price);
+
+-- CartDAO.getOrCreateCart: WHERE user_id = ?
+CREATE INDEX idx_shopping_carts_user ON shopping_carts (user_id, cart_id);
+
+-- ProductDAO.getProductsPage: filter category + keyset per sort
+CREATE INDEX idx_products_category_price ON products (category, price, product_id);
+CREATE INDEX idx_products_category_created ON products (category, created_at, product_id);
+CREATE INDEX idx_products_price ON products (price, product_id);
+CREATE INDEX idx_products_created ON products (created_at, product_id);
+
+-- ProductDAO.getLowStockProducts: WHERE stock <= ? ORDER BY stock
+CREATE INDEX idx_products_stock ON products (stock);
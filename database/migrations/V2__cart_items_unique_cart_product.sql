@@ -0,0 +1,22 @@
+-- =============================================
+-- V2: SATU BARIS PER (cart_id, product_id) DI CART_ITEMS
+-- Syarat untuk add-to-cart dengan INSERT ... ON DUPLICATE KEY UPDATE.
+-- Baris duplikat lama digabung dulu ke baris dengan cart_item_id terkecil.
+-- =============================================
+
+UPDATE cart_items ci
+JOIN (SELECT MIN(cart_item_id) AS keep_id, SUM(quantity) AS total_quantity
+      FROM cart_items
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) d ON ci.cart_item_id = d.keep_id
+SET ci.quantity = d.total_quantity;
+
+DELETE ci FROM cart_items ci
+JOIN (SELECT cart_id, product_id, MIN(cart_item_id) AS keep_id
+      FROM cart_items
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) d
+  ON ci.cart_id = d.cart_id AND ci.product_id = d.product_id AND ci.cart_item_id <> d.keep_id;
+
+-- Juga dipakai sebagai index untuk WHERE cart_id = ? (kolom pertama)
+ALTER TABLE cart_items ADD UNIQUE KEY uk_cart_items_cart_product (cart_id, product_id);
@@ -0,0 +1,8 @@
+-- Sequence untuk ID yang mudah dibaca (R001, CUST004), dipakai BlockSequenceIdGenerator.
+-- Baris per prefix dibuat otomatis oleh aplikasi saat pertama dipakai
+-- (name = "<tabel>:<prefix>", next_value = angka berikutnya yang belum dipesan).
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
@@ -0,0 +1,162 @@
+package database;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import model.CartItem;
+import model.Money;
+import model.Order;
+import model.Product;
+import model.ShoppingCart;
+import utils.Log;
+
+/**
+ * Facade async di atas DatabaseManager.
+ *
+ * Semua operasi JDBC dijalankan di executor khusus dan hasilnya dikembalikan
+ * sebagai CompletableFuture, sehingga GUI tidak perlu memanggil database dari
+ * Event Dispatch Thread. Callback ke Swing harus tetap di-marshal ke EDT oleh
+ * pemanggil (lihat gui.AsyncLoader).
+ *
+ * Executor memakai virtual thread jika JVM mendukung (Java 21+), jika tidak
+ * memakai thread pool daemon biasa. Operasi yang mengubah cart dan checkout
+ * dijalankan berurutan di satu thread "db-cart", supaya klik +/- beruntun
+ * tidak saling mendahului.
+ */
+public class AsyncDatabaseService {
+    private static final int FALLBACK_POOL_SIZE = 4;
+
+    private final DatabaseManager db;
+    private final ExecutorService executor;
+    private final ExecutorService cartExecutor;
+
+    private static class Holder {
+        private static final AsyncDatabaseService INSTANCE = new AsyncDatabaseService(DatabaseManager.getInstance());
+    }
+
+    public static AsyncDatabaseService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    AsyncDatabaseService(DatabaseManager db) {
+        this.db = db;
+        this.executor = createExecutor();
+        this.cartExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "db-cart");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService service = (ExecutorService) virtual.invoke(null);
+            Log.info("🧵 Async database service using virtual threads");
+            return service;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(FALLBACK_POOL_SIZE, r -> {
+                Thread t = new Thread(r, "db-async-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Menjalankan operasi database apa pun di executor async.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    private <T> CompletableFuture<T> submitCartWrite(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, cartExecutor);
+    }
+
+    // ==================== PRODUCT ====================
+
+    public CompletableFuture<List<Product>> getAllProducts() {
+        return submit(db::getAllProducts);
+    }
+
+    public CompletableFuture<List<Product>> getProductsPage(ProductQuery query, Product after) {
+        return submit(() -> db.getProductsPage(query, after));
+    }
+
+    public CompletableFuture<List<Product>> searchProducts(String keyword) {
+        return submit(() -> db.searchProducts(keyword));
+    }
+
+    public CompletableFuture<Product> getProductById(String productId) {
+        return submit(() -> db.getProductById(productId));
+    }
+
+    // ==================== CART ====================
+
+    public CompletableFuture<ShoppingCart> getCurrentUserCart() {
+        return submit(db::getCurrentUserCart);
+    }
+
+    public CompletableFuture<Boolean> addToCart(Product product, int quantity) {
+        return submitCartWrite(() -> db.addToCart(product, quantity));
+    }
+
+    public CompletableFuture<Boolean> updateCartItem(int cartItemId, int quantity) {
+        return submitCartWrite(() -> db.updateCartItem(cartItemId, quantity));
+    }
+
+    public CompletableFuture<Boolean> removeFromCart(int cartItemId) {
+        return submitCartWrite(() -> db.removeFromCart(cartItemId));
+    }
+
+    public CompletableFuture<Boolean> clearCart() {
+        return submitCartWrite(db::clearCart);
+    }
+
+    // ==================== ORDER ====================
+
+    public CompletableFuture<Boolean> createOrderFromCart(ShoppingCart cart, String paymentMethod,
+                                                          String shippingAddress, String notes) {
+        return submitCartWrite(() -> db.createOrderFromCart(cart, paymentMethod, shippingAddress, notes));
+    }
+
+    public CompletableFuture<Boolean> createOrderFromSelectedItems(List<CartItem> selectedItems, String paymentMethod,
+                                                                   String shippingAddress, String notes, Money totalAmount) {
+        return submitCartWrite(() -> db.createOrderFromSelectedItems(selectedItems, paymentMethod, shippingAddress, notes, totalAmount));
+    }
+
+    public CompletableFuture<List<Order>> getUserOrders() {
+        return submit(() -> db.getUserOrders());
+    }
+
+    public CompletableFuture<Boolean> updateOrderStatus(String orderId, String newStatus) {
+        return submit(() -> db.updateOrderStatus(orderId, newStatus));
+    }
+
+    // ==================== USER ====================
+
+    /**
+     * Logout di thread "db-cart": berjalan setelah update cart yang masih antre, lalu
+     * menulis perubahan quantity yang tertunda ke database.
+     */
+    public CompletableFuture<Void> logout() {
+        return submitCartWrite(() -> {
+            db.logout();
+            return null;
+        });
+    }
+
+    /**
+     * @return [total order, total item dibeli] untuk user yang sedang login
+     */
+    public CompletableFuture<int[]> getUserStats() {
+        return submit(() -> new int[] { db.getUserTotalOrders(), db.getUserTotalItemsPurchased() });
+    }
+}
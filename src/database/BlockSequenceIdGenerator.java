@@ -0,0 +1,141 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utils.Log;
+
+/**
+ * ID yang mudah dibaca (R001, CUST004) dari sequence di tabel id_sequences.
+ *
+ * Angka dialokasikan per blok: satu UPDATE ... LAST_INSERT_ID() memesan
+ * blockSize angka sekaligus, lalu angka di dalam blok dibagikan dari memori
+ * dengan AtomicLong (lock-free). Query ke database hanya terjadi sekali per blok.
+ * Instance aplikasi lain memesan blok yang berbeda, jadi tidak ada bentrok;
+ * angka yang tidak terpakai saat aplikasi ditutup hanya menjadi celah.
+ *
+ * Baris sequence dibuat otomatis saat pertama dipakai, mulai dari angka
+ * terbesar yang sudah ada di tabel target (misal MAX dari products.product_id
+ * dengan prefix R) + 1, sehingga ID lama tidak pernah dipakai ulang.
+ *
+ * Jika database tidak tersedia, ID dibuat dengan fallback time-ordered
+ * (prefix + 13 karakter base32) supaya tetap unik.
+ */
+class BlockSequenceIdGenerator implements IdGenerator {
+    private final String prefix;
+    private final String table;
+    private final String column;
+    private final int blockSize;
+    private final IdGenerator fallback;
+
+    private volatile Block block = new Block(0, 0);
+    private boolean seeded;
+
+    /**
+     * @param table  tabel yang ID-nya di-generate (untuk seed awal sequence)
+     * @param column kolom ID di tabel tersebut
+     */
+    BlockSequenceIdGenerator(String prefix, String table, String column, int blockSize) {
+        this.prefix = prefix;
+        this.table = table;
+        this.column = column;
+        this.blockSize = Math.max(1, blockSize);
+        this.fallback = new TimeOrderedIdGenerator(prefix);
+    }
+
+    @Override
+    public String nextId() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return format(value);
+            }
+            if (!refill(current)) {
+                String id = fallback.nextId();
+                Log.warn("⚠️ Sequence " + prefix + " unavailable, using fallback ID: " + id);
+                return id;
+            }
+        }
+    }
+
+    private String format(long value) {
+        return prefix + String.format("%03d", value);
+    }
+
+    /**
+     * Pesan blok baru dari database. Hanya satu thread yang melakukan query;
+     * thread lain yang melihat blok sudah diganti langsung mencoba lagi.
+     */
+    private synchronized boolean refill(Block exhausted) {
+        if (block != exhausted) {
+            return true; // Sudah di-refill oleh thread lain
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            if (!seeded) {
+                seed(conn);
+                seeded = true;
+            }
+
+            String reserveSql = "UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(reserveSql)) {
+                pstmt.setInt(1, blockSize);
+                pstmt.setString(2, sequenceName());
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            // LAST_INSERT_ID() per koneksi: nilai next_value setelah blok ini dipesan
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                if (!rs.next()) {
+                    return false;
+                }
+                long end = rs.getLong(1);
+                block = new Block(end - blockSize, end);
+                Log.info("🆔 Reserved IDs " + format(end - blockSize) + ".." + format(end - 1));
+                return true;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error reserving ID block for " + prefix + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Buat baris sequence jika belum ada, mulai dari angka terbesar yang sudah dipakai + 1.
+     * INSERT IGNORE: jika instance lain sudah membuatnya lebih dulu, baris itu yang dipakai.
+     */
+    private void seed(Connection conn) throws SQLException {
+        String sql = "INSERT IGNORE INTO id_sequences (name, next_value) " +
+                     "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(" + column + ", ?) AS UNSIGNED)), 0) + 1 " +
+                     "FROM " + table + " WHERE " + column + " REGEXP ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, sequenceName());
+            pstmt.setInt(2, prefix.length() + 1);
+            pstmt.setString(3, "^" + prefix + "[0-9]+$");
+            pstmt.executeUpdate();
+        }
+    }
+
+    private String sequenceName() {
+        return table + ":" + prefix;
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -6,15 +6,23 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Map;
 
 import model.CartItem;
+import model.Money;
 import model.Product;
 import model.ShoppingCart;
+import utils.Log;
 
 public class CartDAO {
-    private static final Logger LOGGER = Logger.getLogger(CartDAO.class.getName());
+    // Insert-or-increment dalam satu statement; butuh unique key uk_cart_items_cart_product
+    // (migration V2). JOIN memastikan cart dan produk ada tanpa query terpisah.
+    static final String UPSERT_ITEM_SQL =
+            "INSERT INTO cart_items (cart_id, product_id, quantity) " +
+            "SELECT c.cart_id, p.product_id, ? FROM shopping_carts c " +
+            "JOIN products p ON p.product_id = ? " +
+            "WHERE c.cart_id = ? " +
+            "ON DUPLICATE KEY UPDATE quantity = cart_items.quantity + ?";
     
     /**
      * 🛒 MENDAPATKAN ATAU MEMBUAT KERANJANG BELANJA UNTUK USER
@@ -22,35 +30,34 @@ public class CartDAO {
      * Jika database tidak tersedia, akan membuat local cart sebagai fallback
      */
     public ShoppingCart getOrCreateCart(String userId) {
-        System.out.println("🛒 Getting cart for user: " + userId);
+        Log.debug(() -> "🛒 Getting cart for user: " + userId);
         
-        //  CEK KONEKSI DATABASE TERLEBIH DAHULU
-        // Memastikan koneksi database berfungsi sebelum melanjutkan
-        try {
-            Connection testConn = DatabaseConnection.getConnection();
-            if (testConn == null || testConn.isClosed()) {
-                throw new SQLException("Database connection failed");
-            }
-        } catch (Exception e) {
+        //  CEK STATUS DATABASE DARI HEALTH PROBE (tanpa membuka koneksi test)
+        if (!DatabaseHealth.getInstance().isAvailable()) {
             // ⚠️ JIKA DATABASE TIDAK TERSEDIA, GUNAKAN LOCAL CART
-            System.out.println("⚠️ Database unavailable, creating local cart for user: " + userId);
+            // (LocalCartSync memindahkannya ke database saat probe melihat database kembali)
+            Log.warn("⚠️ Database unavailable, creating local cart for user: " + userId);
             return createLocalCart(userId);
         }
         
         // 🔍 CARI KERANJANG YANG SUDAH ADA DI DATABASE
         String cartId = findCartByUserId(userId);
+        if (cartId == null && !DatabaseHealth.getInstance().isAvailable()) {
+            Log.warn("⚠️ Database became unavailable, creating local cart for user: " + userId);
+            return createLocalCart(userId);
+        }
         
         if (cartId == null) {
             // 📝 JIKA TIDAK ADA, BUAT KERANJANG BARU
             cartId = createNewCart(userId);
             if (cartId == null) {
                 // ⚠️ JIKA GAGAL BUAT KERANJANG DI DATABASE, GUNAKAN LOCAL CART
-                System.out.println("⚠️ Failed to create database cart, falling back to local cart");
+                Log.warn("⚠️ Failed to create database cart, falling back to local cart");
                 return createLocalCart(userId);
             }
-            System.out.println("✅ Created new cart: " + cartId);
+            Log.info("✅ Created new cart: " + cartId);
         } else {
-            System.out.println("✅ Found existing cart: " + cartId);
+            Log.debug("✅ Found existing cart: " + cartId);
         }
         
         // 🛍️ LOAD ITEM-ITEM DALAM KERANJANG
@@ -58,7 +65,7 @@ public class CartDAO {
         List<CartItem> items = getCartItems(cartId);
         cart.setItems(items);
         
-        System.out.println("🛒 Cart loaded with " + items.size() + " items");
+        Log.debug(() -> "🛒 Cart loaded with " + items.size() + " items");
         return cart;
     }
     
@@ -69,10 +76,10 @@ public class CartDAO {
      */
     private ShoppingCart createLocalCart(String userId) {
         // 🆔 GENERATE ID UNIK UNTUK LOCAL CART
-        String localCartId = "LOCAL_CART_" + userId + "_" + System.currentTimeMillis();
+        String localCartId = "LOCAL_CART_" + userId + "_" + IdGenerators.nextCartSuffix();
         ShoppingCart cart = new ShoppingCart(localCartId, userId);
         cart.setItems(new ArrayList<>()); // Keranjang kosong
-        System.out.println("🛒 Created local cart: " + localCartId);
+        Log.info("🛒 Created local cart: " + localCartId);
         return cart;
     }
     
@@ -83,18 +90,20 @@ public class CartDAO {
     private String findCartByUserId(String userId) {
         String sql = "SELECT cart_id FROM shopping_carts WHERE user_id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, userId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("cart_id");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return null; // Database baru saja tidak bisa dihubungi (lihat DatabaseHealth)
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getString("cart_id");
+                    }
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error finding cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error finding cart: " + e.getMessage(), e);
+            Log.error("❌ Error finding cart: " + e.getMessage(), e);
         }
         return null;
     }
@@ -105,7 +114,7 @@ public class CartDAO {
      */
     private String createNewCart(String userId) {
         // 🆔 GENERATE CART ID UNIK
-        String cartId = "CART_" + userId + "_" + System.currentTimeMillis();
+        String cartId = "CART_" + userId + "_" + IdGenerators.nextCartSuffix();
         String sql = "INSERT INTO shopping_carts (cart_id, user_id) VALUES (?, ?)";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -117,8 +126,7 @@ public class CartDAO {
             return cartId;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error creating cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error creating cart: " + e.getMessage(), e);
+            Log.error("❌ Error creating cart: " + e.getMessage(), e);
         }
         return null; // Return null jika gagal
     }
@@ -126,10 +134,10 @@ public class CartDAO {
     /**
      * 🔧 METHOD HELPER BARU: EKSTRAK USER ID DARI CART ID
      * Berguna untuk mendapatkan user_id dari format cart_id yang sudah ada
-     * Format: CART_USERID_TIMESTAMP atau LOCAL_CART_USERID_TIMESTAMP
+     * Format: CART_USERID_ID atau LOCAL_CART_USERID_ID (ID time-ordered, tanpa "_")
      */
     private String extractUserIdFromCartId(String cartId) {
-        // Format: CART_USERID_TIMESTAMP atau LOCAL_CART_USERID_TIMESTAMP
+        // Format: CART_USERID_ID atau LOCAL_CART_USERID_ID (ID time-ordered, tanpa "_")
         if (cartId.startsWith("CART_")) {
             String[] parts = cartId.split("_");
             if (parts.length >= 3) {
@@ -141,201 +149,187 @@ public class CartDAO {
                 return parts[2]; // user ID adalah bagian ketiga untuk LOCAL_CART
             }
         }
-        System.err.println("❌ Invalid cart ID format: " + cartId);
+        Log.error("❌ Invalid cart ID format: " + cartId);
         return null;
     }
     
     /**
-     ✅ METHOD addToCart YANG SUDAH DIPERBAIKI
-     * Menambahkan produk ke keranjang dengan berbagai validasi:
-     * 1. Cek apakah ini local cart
-     * 2. Cek apakah keranjang ada di database
-     * 3. Cek apakah produk ada
-     * 4. Update quantity jika item sudah ada, atau insert baru
+     ✅ METHOD addToCart DENGAN SATU ROUND TRIP
+     * Menambahkan produk ke keranjang dengan satu statement UPSERT_ITEM_SQL:
+     * - JOIN ke shopping_carts dan products sekaligus menjadi cek keberadaan
+     *   cart dan produk (tidak ada baris yang di-insert jika salah satunya tidak ada)
+     * - Unique key (cart_id, product_id) membuat item yang sudah ada di-increment,
+     *   item baru di-insert
+     * Query tambahan hanya dijalankan jika upsert gagal, untuk membuat ulang cart
+     * yang hilang seperti sebelumnya.
      */
     public boolean addToCart(String cartId, String productId, int quantity) {
-        System.out.println("🛒 DEBUG - Adding to cart:");
-        System.out.println("   Cart ID: " + cartId);
-        System.out.println("   Product ID: " + productId);
-        System.out.println("   Quantity: " + quantity);
+        Log.debug(() -> "🛒 Adding to cart: " + cartId + " <- " + productId + " x" + quantity);
         
         // ✅ CEK JIKA INI LOCAL CART
         // Local cart tidak disimpan di database, jadi operasi tidak didukung
         if (cartId != null && cartId.startsWith("LOCAL_CART_")) {
-            System.out.println("⚠️ This is a local cart, addToCart operation not supported in database");
+            Log.warn("⚠️ This is a local cart, addToCart operation not supported in database");
             return false; // Local cart ditangani oleh DatabaseManager
         }
+        if (quantity <= 0) {
+            Log.error("❌ Invalid quantity: " + quantity);
+            return false;
+        }
+        
+        if (upsertCartItem(cartId, productId, quantity)) {
+            return true;
+        }
         
-        // ✅ PERBAIKAN: JIKA CART TIDAK ADA, BUAT BARU
+        // ✅ PERBAIKAN: JIKA CART TIDAK ADA, BUAT BARU LALU COBA SEKALI LAGI
         // Handle kasus dimana cart_id tidak ditemukan di database
         if (!cartExists(cartId)) {
-            System.out.println("🛒 Cart not found, extracting user ID and creating new cart...");
+            Log.info("🛒 Cart not found, extracting user ID and creating new cart...");
             String userId = extractUserIdFromCartId(cartId);
             if (userId == null) {
-                System.err.println("❌ Cannot extract user ID from cart ID: " + cartId);
+                Log.error("❌ Cannot extract user ID from cart ID: " + cartId);
                 return false;
             }
             String newCartId = createNewCart(userId);
             if (newCartId == null) {
-                System.err.println("❌ Failed to create new cart in database");
+                Log.error("❌ Failed to create new cart in database");
                 return false;
             }
-            System.out.println("✅ Created new cart: " + newCartId);
-            cartId = newCartId; // Gunakan cart_id yang baru
+            Log.info("✅ Created new cart: " + newCartId);
+            return upsertCartItem(newCartId, productId, quantity);
         }
         
-        // 🔍 CEK APAKAH PRODUK ADA DI DATABASE
-        if (!productExists(productId)) {
-            System.err.println("❌ Product does not exist: " + productId);
-            return false;
-        }
-        
-        // 🔍 CEK APAKAH ITEM SUDAH ADA DI KERANJANG
-        Integer existingItemId = findCartItem(cartId, productId);
-        
-        if (existingItemId != null) {
-            // 📈 JIKA SUDAH ADA, UPDATE QUANTITY
-            System.out.println("🛒 Item exists, updating quantity...");
-            return updateCartItemQuantity(existingItemId, quantity);
-        } else {
-            // 🆕 JIKA BARU, INSERT ITEM BARU
-            System.out.println("🛒 New item, inserting...");
-            return insertCartItem(cartId, productId, quantity);
-        }
+        Log.error("❌ Product does not exist: " + productId);
+        return false;
     }
     
-    // ==================== HELPER METHODS UNTUK DEBUGGING ====================
-    
     /**
-     * 🔍 CEK APAKAH KERANJANG ADA DI DATABASE
+     * 📦 TAMBAH BANYAK PRODUK SEKALIGUS (productId -> quantity)
+     * Semua upsert dikirim sebagai satu JDBC batch di satu transaksi. Jika cart
+     * tidak ada atau ada produk yang tidak ditemukan, seluruh batch dibatalkan
+     * (all-or-nothing).
      */
-    private boolean cartExists(String cartId) {
-        // Jika local cart, return false karena tidak ada di database
+    public boolean addAllToCart(String cartId, Map<String, Integer> quantities) {
         if (cartId != null && cartId.startsWith("LOCAL_CART_")) {
+            Log.warn("⚠️ This is a local cart, addAllToCart operation not supported in database");
             return false;
         }
+        if (quantities == null || quantities.isEmpty()) {
+            return true;
+        }
         
-        String sql = "SELECT COUNT(*) FROM shopping_carts WHERE cart_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, cartId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    boolean exists = rs.getInt(1) > 0;
-                    System.out.println("🛒 Cart exists check: " + cartId + " = " + exists);
-                    return exists;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                boolean added = upsertCartItems(conn, cartId, quantities);
+                if (added) {
+                    conn.commit();
+                    Log.info("✅ Added " + quantities.size() + " products to cart: " + cartId);
+                } else {
+                    conn.rollback();
+                    Log.error("❌ Batch add to cart rejected (missing cart/product or invalid quantity): " + cartId);
                 }
+                return added;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error checking cart existence: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error checking cart existence: " + e.getMessage(), e);
+            Log.error("❌ Error adding products to cart: " + e.getMessage(), e);
+            return false;
         }
-        return false;
     }
     
     /**
-     * 🔍 CEK APAKAH PRODUK ADA DI DATABASE
+     * Jalankan UPSERT_ITEM_SQL untuk satu produk. Return false jika cart/produk tidak ada.
      */
-    private boolean productExists(String productId) {
-        String sql = "SELECT COUNT(*) FROM products WHERE product_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, productId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    boolean exists = rs.getInt(1) > 0;
-                    System.out.println("📦 Product exists check: " + productId + " = " + exists);
-                    return exists;
-                }
+    private boolean upsertCartItem(String cartId, String productId, int quantity) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
             }
+            boolean success = upsertCartItem(conn, cartId, productId, quantity);
+            Log.debug(() -> "✅ Upsert cart item: " + (success ? "SUCCESS" : "NO MATCHING CART/PRODUCT"));
+            return success;
         } catch (SQLException e) {
-            System.err.println("❌ Error checking product existence: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error checking product existence: " + e.getMessage(), e);
+            Log.error("❌ Error adding to cart: " + e.getMessage(), e);
+            return false;
         }
-        return false;
     }
     
     /**
-     * 🔍 MENCARI ITEM DI KERANJANG BERDASARKAN CART_ID DAN PRODUCT_ID
+     * Upsert satu item di koneksi milik pemanggil (dipakai juga oleh StockReservationDAO
+     * supaya masuk ke transaksi reservasi stok).
      */
-    private Integer findCartItem(String cartId, String productId) {
-        // Jika local cart, return null
-        if (cartId != null && cartId.startsWith("LOCAL_CART_")) {
-            return null;
+    static boolean upsertCartItem(Connection conn, String cartId, String productId, int quantity) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_ITEM_SQL)) {
+            bindUpsert(pstmt, cartId, productId, quantity);
+            // 1 = insert, 2 = update, 0 = cart atau produk tidak ada
+            return pstmt.executeUpdate() > 0;
         }
-        
-        String sql = "SELECT cart_item_id FROM cart_items WHERE cart_id = ? AND product_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, cartId);
-            pstmt.setString(2, productId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("cart_item_id");
+    }
+    
+    /**
+     * Upsert banyak item sebagai satu batch di koneksi milik pemanggil.
+     * Return false jika ada quantity <= 0 atau ada baris yang tidak ter-upsert;
+     * pemanggil yang bertanggung jawab me-rollback transaksinya.
+     */
+    static boolean upsertCartItems(Connection conn, String cartId, Map<String, Integer> quantities) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_ITEM_SQL)) {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                if (entry.getValue() == null || entry.getValue() <= 0) {
+                    return false;
                 }
+                bindUpsert(pstmt, cartId, entry.getKey(), entry.getValue());
+                pstmt.addBatch();
             }
-        } catch (SQLException e) {
-            System.err.println("❌ Error finding cart item: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error finding cart item: " + e.getMessage(), e);
+            for (int count : pstmt.executeBatch()) {
+                // SUCCESS_NO_INFO (-2) dianggap berhasil, 0 berarti cart/produk tidak ada
+                if (count == 0) {
+                    return false;
+                }
+            }
+            return true;
         }
-        return null;
     }
     
+    private static void bindUpsert(PreparedStatement pstmt, String cartId, String productId, int quantity) throws SQLException {
+        pstmt.setInt(1, quantity);
+        pstmt.setString(2, productId);
+        pstmt.setString(3, cartId);
+        pstmt.setInt(4, quantity);
+    }
+    
+    // ==================== HELPER METHODS UNTUK DEBUGGING ====================
+    
     /**
-     * 📝 INSERT ITEM BARU KE KERANJANG
+     * 🔍 CEK APAKAH KERANJANG ADA DI DATABASE
      */
-    private boolean insertCartItem(String cartId, String productId, int quantity) {
-        // Jika local cart, return false
+    private boolean cartExists(String cartId) {
+        // Jika local cart, return false karena tidak ada di database
         if (cartId != null && cartId.startsWith("LOCAL_CART_")) {
             return false;
         }
         
-        String sql = "INSERT INTO cart_items (cart_id, product_id, quantity) VALUES (?, ?, ?)";
-        
+        String sql = "SELECT COUNT(*) FROM shopping_carts WHERE cart_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, cartId);
-            pstmt.setString(2, productId);
-            pstmt.setInt(3, quantity);
-            
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
-            System.out.println("✅ Insert cart item: " + (success ? "SUCCESS" : "FAILED"));
-            return success;
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error adding to cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error adding to cart: " + e.getMessage(), e);
-            return false;
-        }
-    }
-    
-    /**
-     * 📈 UPDATE QUANTITY ITEM YANG SUDAH ADA DI KERANJANG
-     */
-    private boolean updateCartItemQuantity(int cartItemId, int additionalQuantity) {
-        String sql = "UPDATE cart_items SET quantity = quantity + ? WHERE cart_item_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, additionalQuantity);
-            pstmt.setInt(2, cartItemId);
-            
-            int result = pstmt.executeUpdate();
-            return result > 0;
-            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    boolean exists = rs.getInt(1) > 0;
+                    Log.debug(() -> "🛒 Cart exists check: " + cartId + " = " + exists);
+                    return exists;
+                }
+            }
         } catch (SQLException e) {
-            System.err.println("❌ Error updating cart item quantity: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error updating cart item quantity: " + e.getMessage(), e);
-            return false;
+            Log.error("❌ Error checking cart existence: " + e.getMessage(), e);
         }
+        return false;
     }
     
     /**
@@ -343,7 +337,7 @@ public class CartDAO {
      * Jika quantity <= 0, item akan dihapus dari keranjang
      */
     public boolean updateCartItem(int cartItemId, int quantity) {
-        System.out.println("🛒 Updating cart item: " + cartItemId + " to quantity: " + quantity);
+        Log.info("🛒 Updating cart item: " + cartItemId + " to quantity: " + quantity);
         
         // 🗑️ JIKA QUANTITY <= 0, HAPUS ITEM DARI KERANJANG
         if (quantity <= 0) {
@@ -360,12 +354,11 @@ public class CartDAO {
             
             int result = pstmt.executeUpdate();
             boolean success = result > 0;
-            System.out.println("✅ Update cart item: " + (success ? "SUCCESS" : "FAILED"));
+            Log.info("✅ Update cart item: " + (success ? "SUCCESS" : "FAILED"));
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error updating cart item: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error updating cart item: " + e.getMessage(), e);
+            Log.error("❌ Error updating cart item: " + e.getMessage(), e);
             return false;
         }
     }
@@ -374,7 +367,7 @@ public class CartDAO {
      * 🗑️ MENGHAPUS ITEM DARI KERANJANG BERDASARKAN CART_ITEM_ID
      */
     public boolean removeFromCart(int cartItemId) {
-        System.out.println("🛒 Removing cart item: " + cartItemId);
+        Log.info("🛒 Removing cart item: " + cartItemId);
         
         String sql = "DELETE FROM cart_items WHERE cart_item_id = ?";
         
@@ -384,12 +377,11 @@ public class CartDAO {
             pstmt.setInt(1, cartItemId);
             int result = pstmt.executeUpdate();
             boolean success = result > 0;
-            System.out.println("✅ Remove from cart: " + (success ? "SUCCESS" : "FAILED"));
+            Log.info("✅ Remove from cart: " + (success ? "SUCCESS" : "FAILED"));
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error removing from cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error removing from cart: " + e.getMessage(), e);
+            Log.error("❌ Error removing from cart: " + e.getMessage(), e);
             return false;
         }
     }
@@ -404,7 +396,7 @@ public class CartDAO {
             return false;
         }
         
-        System.out.println("🛒 Removing item from cart - Cart: " + cartId + ", Product: " + productId);
+        Log.info("🛒 Removing item from cart - Cart: " + cartId + ", Product: " + productId);
         
         String sql = "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
         
@@ -416,12 +408,11 @@ public class CartDAO {
             
             int result = pstmt.executeUpdate();
             boolean success = result > 0;
-            System.out.println("✅ Remove from cart by product: " + (success ? "SUCCESS" : "FAILED"));
+            Log.info("✅ Remove from cart by product: " + (success ? "SUCCESS" : "FAILED"));
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error removing from cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error removing from cart: " + e.getMessage(), e);
+            Log.error("❌ Error removing from cart: " + e.getMessage(), e);
             return false;
         }
     }
@@ -436,7 +427,7 @@ public class CartDAO {
             return false;
         }
         
-        System.out.println("🛒 Clearing cart: " + cartId);
+        Log.info("🛒 Clearing cart: " + cartId);
         
         String sql = "DELETE FROM cart_items WHERE cart_id = ?";
         
@@ -446,12 +437,11 @@ public class CartDAO {
             pstmt.setString(1, cartId);
             int result = pstmt.executeUpdate();
             boolean success = result > 0;
-            System.out.println("✅ Clear cart: " + (success ? "SUCCESS" : "FAILED"));
+            Log.info("✅ Clear cart: " + (success ? "SUCCESS" : "FAILED"));
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error clearing cart: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error clearing cart: " + e.getMessage(), e);
+            Log.error("❌ Error clearing cart: " + e.getMessage(), e);
             return false;
         }
     }
@@ -487,7 +477,7 @@ public class CartDAO {
                         rs.getString("name"),
                         rs.getString("category"),
                         rs.getString("material"),
-                        rs.getDouble("price"),
+                        Money.of(rs.getBigDecimal("price")),
                         rs.getInt("stock"),
                         rs.getString("description"),
                         rs.getString("image_path"),
@@ -505,12 +495,11 @@ public class CartDAO {
                     );
                     
                     items.add(item);
-                    System.out.println("📦 Cart item: " + product.getName() + " x" + item.getQuantity());
+                    Log.debug(() -> "📦 Cart item: " + product.getName() + " x" + item.getQuantity());
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting cart items: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "❌ Error getting cart items: " + e.getMessage(), e);
+            Log.error("❌ Error getting cart items: " + e.getMessage(), e);
         }
         
         return items;
@@ -0,0 +1,327 @@
+package database;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import model.CartItem;
+import model.ShoppingCart;
+import utils.Log;
+
+/**
+ * Write-behind untuk perubahan quantity item keranjang (cart di database).
+ *
+ * stage() langsung mengubah ShoppingCart di memori (UI ter-update lewat CartListener)
+ * dan mencatat perubahan di journal lokal, tanpa menunggu database. Perubahan ke
+ * cart_item_id yang sama digabung: klik +/- berkali-kali hanya menghasilkan satu
+ * StockReservationDAO.changeQuantity() dengan quantity terakhir.
+ *
+ * Flush terjadi:
+ * - periodik di thread "cart-write-behind" (-Darlene.cart.flushIntervalMs, default 2000),
+ * - sebelum operasi cart lain yang langsung ke database (add, remove, clear, checkout),
+ * - saat logout.
+ *
+ * Journal (satu file per cart di assets/exports/cart-writebehind) ditulis dengan fsync
+ * sebelum stage() kembali, jadi perubahan yang belum di-flush tidak hilang saat aplikasi
+ * crash; recover() memutar ulang journal saat cart dimuat berikutnya. stage() dipanggil
+ * dari thread "db-cart" AsyncDatabaseService, bukan dari EDT, jadi fsync tidak menahan UI.
+ *
+ * Flush menyalin perubahan di bawah lock lalu memanggil database tanpa lock, sehingga
+ * stage() tidak pernah menunggu JDBC. Tulisan yang gagal saat database tidak tersedia
+ * (DatabaseHealth) tidak dihitung: perubahan dan baris journal-nya disimpan sampai database
+ * pulih. Jika database menjawab tapi menolak MAX_ATTEMPTS kali (misal stok tidak cukup),
+ * onRejected dipanggil untuk memuat ulang cart dari database; perubahan baru dibuang
+ * setelah reload berhasil.
+ */
+class CartWriteBehindStore {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final StockReservationDAO reservations;
+    private final File journalDir;
+    private final Consumer<String> onStockChanged;
+    private final Predicate<ShoppingCart> onRejected;
+    private final Map<String, PendingCart> pendingByCart = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * @param onStockChanged dipanggil dengan product_id setiap kali reservasi stok berubah
+     * @param onRejected     dipanggil jika perubahan quantity ditolak database; return true
+     *                       jika cart di memori berhasil dimuat ulang dari database
+     */
+    CartWriteBehindStore(StockReservationDAO reservations, File journalDir, long flushIntervalMillis,
+                         Consumer<String> onStockChanged, Predicate<ShoppingCart> onRejected) {
+        this.reservations = reservations;
+        this.journalDir = journalDir;
+        this.onStockChanged = onStockChanged;
+        this.onRejected = onRejected;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(100, flushIntervalMillis);
+        flusher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Catat quantity baru untuk item, terapkan ke cart di memori, flush belakangan.
+     *
+     * @return false jika item tidak ada di cart atau journal gagal ditulis
+     *         (pemanggil sebaiknya menulis langsung ke database)
+     */
+    boolean stage(ShoppingCart cart, int cartItemId, int quantity) {
+        CartItem item = cart.getItem(cartItemId);
+        if (item == null) {
+            return false;
+        }
+        PendingCart pending = pendingByCart.computeIfAbsent(cart.getCartId(), id -> new PendingCart(cart));
+        synchronized (pending) {
+            if (!appendJournal(cart.getCartId(), cartItemId, quantity)) {
+                return false;
+            }
+            pending.cart = cart;
+            pending.edits.put(cartItemId, new Edit(item.getProduct().getProductId(), quantity));
+        }
+        cart.updateQuantity(cartItemId, quantity);
+        return true;
+    }
+
+    boolean hasPending(String cartId) {
+        PendingCart pending = pendingByCart.get(cartId);
+        if (pending == null) {
+            return false;
+        }
+        synchronized (pending) {
+            return !pending.edits.isEmpty();
+        }
+    }
+
+    /**
+     * Tulis semua perubahan yang tertunda untuk cart ini ke database.
+     *
+     * @return true jika tidak ada lagi perubahan yang tertunda
+     */
+    boolean flush(String cartId) {
+        PendingCart pending = pendingByCart.get(cartId);
+        if (pending == null) {
+            return true;
+        }
+        // Satu flush per cart dalam satu waktu (thread flusher vs. operasi cart lain)
+        synchronized (pending.flushLock) {
+            ShoppingCart cart;
+            Map<Integer, Edit> snapshot;
+            synchronized (pending) {
+                if (pending.edits.isEmpty()) {
+                    return true;
+                }
+                cart = pending.cart;
+                snapshot = new LinkedHashMap<>(pending.edits);
+            }
+
+            // JDBC tanpa memegang lock pending, stage() dari UI tetap bisa jalan
+            Map<Integer, Edit> written = new LinkedHashMap<>();
+            Map<Integer, Edit> rejected = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Edit> entry : snapshot.entrySet()) {
+                Edit edit = entry.getValue();
+                if (reservations.changeQuantity(cartId, entry.getKey(), edit.quantity)) {
+                    written.put(entry.getKey(), edit);
+                    onStockChanged.accept(edit.productId);
+                } else if (!DatabaseHealth.getInstance().isAvailable()) {
+                    break; // Database down: bukan penolakan, sisanya dicoba setelah pulih
+                } else if (++edit.attempts >= MAX_ATTEMPTS) {
+                    rejected.put(entry.getKey(), edit);
+                }
+            }
+
+            // Cart dimuat ulang dulu; perubahan yang ditolak hanya dibuang jika reload berhasil
+            if (!rejected.isEmpty()) {
+                if (onRejected.test(cart)) {
+                    for (Map.Entry<Integer, Edit> entry : rejected.entrySet()) {
+                        Log.warn("⚠️ Dropping rejected cart update: item " + entry.getKey() + " -> " + entry.getValue().quantity);
+                    }
+                    written.putAll(rejected);
+                } else {
+                    Log.warn("⚠️ Keeping " + rejected.size() + " rejected cart updates until the cart can be reloaded");
+                }
+            }
+            if (written.isEmpty()) {
+                return !hasPending(cartId);
+            }
+
+            Map<Integer, Edit> remaining;
+            synchronized (pending) {
+                // Perubahan yang di-stage selama flush (objek Edit baru) tetap tertunda
+                for (Map.Entry<Integer, Edit> entry : written.entrySet()) {
+                    pending.edits.remove(entry.getKey(), entry.getValue());
+                }
+                rewriteJournal(cartId, pending.edits);
+                remaining = new LinkedHashMap<>(pending.edits);
+            }
+            Log.debug(() -> "💾 Flushed " + written.size() + " cart updates for " + cartId);
+            if (!rejected.isEmpty()) {
+                // Reload menimpa cart di memori dengan isi database; pasang lagi yang masih tertunda
+                for (Map.Entry<Integer, Edit> entry : remaining.entrySet()) {
+                    cart.updateQuantity(entry.getKey(), entry.getValue().quantity);
+                }
+            }
+            return remaining.isEmpty();
+        }
+    }
+
+    void flushAll() {
+        for (String cartId : pendingByCart.keySet()) {
+            try {
+                flush(cartId);
+            } catch (RuntimeException e) {
+                Log.error("❌ Error flushing cart " + cartId + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Putar ulang journal dari sesi sebelumnya (misal setelah crash) lalu flush.
+     * Dipanggil setelah cart dimuat dari database, sebelum ditampilkan.
+     *
+     * @return true jika ada perubahan yang diterapkan dan cart perlu dimuat ulang
+     */
+    boolean recover(ShoppingCart cart) {
+        File journal = journalFile(cart.getCartId());
+        if (!journal.exists() || hasPending(cart.getCartId())) {
+            return false;
+        }
+        Map<Integer, Integer> edits = readJournal(journal);
+        if (edits.isEmpty()) {
+            journal.delete();
+            return false;
+        }
+        Log.warn("⚠️ Replaying " + edits.size() + " unsaved cart updates for " + cart.getCartId());
+        PendingCart pending = pendingByCart.computeIfAbsent(cart.getCartId(), id -> new PendingCart(cart));
+        synchronized (pending) {
+            pending.cart = cart;
+            for (Map.Entry<Integer, Integer> entry : edits.entrySet()) {
+                CartItem item = cart.getItem(entry.getKey());
+                if (item != null) {
+                    pending.edits.put(entry.getKey(), new Edit(item.getProduct().getProductId(), entry.getValue()));
+                }
+            }
+        }
+        flush(cart.getCartId());
+        return true;
+    }
+
+    // ==================== JOURNAL ====================
+
+    private File journalFile(String cartId) {
+        return new File(journalDir, cartId + ".journal");
+    }
+
+    private boolean appendJournal(String cartId, int cartItemId, int quantity) {
+        if (!journalDir.isDirectory() && !journalDir.mkdirs()) {
+            Log.error("❌ Cannot create cart journal directory: " + journalDir);
+            return false;
+        }
+        byte[] line = (cartItemId + " " + quantity + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(journalFile(cartId), true)) {
+            out.write(line);
+            out.getChannel().force(false);
+            return true;
+        } catch (IOException e) {
+            Log.error("❌ Error writing cart journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Tulis ulang journal hanya dengan perubahan yang masih tertunda (hapus file jika kosong).
+     */
+    private void rewriteJournal(String cartId, Map<Integer, Edit> remaining) {
+        File journal = journalFile(cartId);
+        if (remaining.isEmpty()) {
+            if (journal.exists() && !journal.delete()) {
+                Log.warn("⚠️ Cannot delete cart journal: " + journal);
+            }
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<Integer, Edit> entry : remaining.entrySet()) {
+            content.append(entry.getKey()).append(' ').append(entry.getValue().quantity).append('\n');
+        }
+        File temp = new File(journalDir, journal.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(content.toString().getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false);
+        } catch (IOException e) {
+            Log.error("❌ Error compacting cart journal: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.error("❌ Error replacing cart journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Baris terakhir per cart_item_id yang menang. Baris terakhir yang terpotong (crash saat menulis) dilewati.
+     */
+    private static Map<Integer, Integer> readJournal(File journal) {
+        Map<Integer, Integer> edits = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(journal.toPath()), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length != 2) {
+                    continue;
+                }
+                try {
+                    edits.put(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+                } catch (NumberFormatException ignored) {
+                    // Baris rusak dilewati
+                }
+            }
+        } catch (IOException e) {
+            Log.error("❌ Error reading cart journal " + journal + ": " + e.getMessage());
+        }
+        return edits;
+    }
+
+    // ==================== DATA ====================
+
+    private static final class PendingCart {
+        final Object flushLock = new Object();
+        ShoppingCart cart;
+        // Urutan klik dipertahankan; quantity terakhir per item menimpa yang lama
+        final Map<Integer, Edit> edits = new LinkedHashMap<>();
+
+        PendingCart(ShoppingCart cart) {
+            this.cart = cart;
+        }
+    }
+
+    private static final class Edit {
+        final String productId;
+        final int quantity;
+        int attempts; // Hanya diubah di dalam flushLock
+
+        Edit(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import utils.Log;
+
+/**
+ * Pool koneksi JDBC sederhana yang dipakai oleh DatabaseConnection.
+ *
+ * - Jumlah koneksi dibatasi oleh maxSize (semaphore), peminjam menunggu maxWaitMillis.
+ * - Koneksi idle divalidasi dengan isValid() sebelum dipinjamkan kembali.
+ * - Koneksi idle yang melebihi idleTimeout ditutup, tetapi pool dijaga minimal minSize.
+ * - Koneksi yang dipinjam terlalu lama dilaporkan sebagai leak beserta stack trace peminjamnya.
+ *
+ * Connection yang dikembalikan ke pemanggil adalah proxy: memanggil close()
+ * mengembalikan koneksi fisik ke pool, bukan menutupnya.
+ */
+class ConnectionPool {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    ConnectionPool(String url, String username, String password,
+                   int minSize, int maxSize, long maxWaitMillis,
+                   long idleTimeoutMillis, long leakThresholdMillis) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = Math.max(0, minSize);
+        this.maxSize = Math.max(1, Math.max(this.minSize, maxSize));
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationIntervalMillis = 5000;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Meminjam koneksi dari pool. Jika tidak ada koneksi idle yang valid,
+     * koneksi fisik baru dibuat selama jumlahnya belum mencapai maxSize.
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Connection pool exhausted: " + maxSize
+                        + " connections in use after waiting " + maxWaitMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowerTrace = new Throwable("Connection borrowed here");
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            closeQuietly(pooled.physical);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            // Koneksi yang baru saja dipakai dianggap masih hidup, hemat satu round trip
+            if (System.currentTimeMillis() - pooled.lastUsedAt < validationIntervalMillis) {
+                return true;
+            }
+            return pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        try {
+            return DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            // Server tidak bisa dihubungi (bukan sekadar pool penuh)
+            DatabaseHealth.getInstance().reportFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Dipanggil oleh proxy saat close(). Status koneksi di-reset supaya
+     * peminjam berikutnya mendapat koneksi yang bersih (auto-commit aktif).
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.borrowerTrace = null;
+        boolean reusable = !closed;
+        try {
+            if (reusable && pooled.physical.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.physical.clearWarnings();
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closeQuietly(pooled.physical);
+        }
+        permits.release();
+    }
+
+    private void housekeep() {
+        if (closed) return;
+        long now = System.currentTimeMillis();
+
+        // 1. Buang koneksi idle yang terlalu lama, sisakan minimal minSize
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() + borrowed.size() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                closeQuietly(pooled.physical);
+            }
+        }
+
+        // 2. Isi ulang sampai minSize (best effort, abaikan jika database mati)
+        while (idle.size() + borrowed.size() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = new PooledConnection(openPhysical());
+                pooled.lastUsedAt = now;
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+
+        // 3. Laporkan koneksi yang dipinjam terlalu lama
+        for (PooledConnection pooled : borrowed) {
+            Throwable trace = pooled.borrowerTrace;
+            if (!pooled.leakReported && trace != null && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                Log.error("⚠️ Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + " ms", trace);
+            }
+        }
+    }
+
+    int getActiveCount() {
+        return borrowed.size();
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Koneksi fisik beserta metadata pool-nya.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Throwable borrowerTrace;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Setiap peminjaman mendapat handle baru, sehingga handle lama yang
+         * sudah di-close tidak bisa lagi memakai koneksi fisik yang sama.
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
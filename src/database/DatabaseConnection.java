@@ -2,47 +2,86 @@ package database;
 
 import java.sql.*;
 
+import utils.Log;
+
 /**
  * Kelas DatabaseConnection bertugas menangani koneksi ke database.
- * Pada versi ini, koneksi TIDAK disimpan sebagai variabel global.
- * Setiap pemanggilan getConnection() akan membuat koneksi baru.
+ * Koneksi diambil dari ConnectionPool yang dibuat sekali saat pertama dipakai,
+ * sehingga setiap operasi DAO tidak lagi membayar handshake TCP + autentikasi MySQL.
+ * Pemanggil tetap wajib menutup koneksi (try-with-resources); close() akan
+ * mengembalikan koneksi ke pool.
+ *
+ * Ukuran pool bisa diatur lewat system property:
+ *   arlene.db.pool.min, arlene.db.pool.max, arlene.db.pool.maxWaitMs,
+ *   arlene.db.pool.idleTimeoutMs, arlene.db.pool.leakThresholdMs
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/arlene_jewelry";
+    // rewriteBatchedStatements: batch INSERT dikirim sebagai satu multi-row INSERT
+    private static final String URL = "jdbc:mysql://localhost:3306/arlene_jewelry?rewriteBatchedStatements=true";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "";
 
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Membuat pool secara lazy. Driver MySQL hanya di-load sekali di sini.
+     */
+    private static ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                    p = new ConnectionPool(URL, USERNAME, PASSWORD,
+                            Integer.getInteger("arlene.db.pool.min", 2),
+                            Integer.getInteger("arlene.db.pool.max", 10),
+                            Long.getLong("arlene.db.pool.maxWaitMs", 5000L),
+                            Long.getLong("arlene.db.pool.idleTimeoutMs", 300000L),
+                            Long.getLong("arlene.db.pool.leakThresholdMs", 60000L));
+                    pool = p;
+                    Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::closeConnection, "db-pool-shutdown"));
+                }
+            }
+        }
+        return p;
+    }
+
     /**
-     * Selalu membuat koneksi baru ke database.
-     * Pendekatan ini mencegah error saat ada banyak transaksi paralel,
-     * karena setiap operasi memiliki koneksi sendiri.
+     * Meminjam koneksi dari pool.
      *
-     * @return Connection baru, atau null jika gagal.
+     * @return Connection dari pool, atau null jika gagal.
      */
     public static Connection getConnection() {
         try {
-            // Load driver MySQL
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Membuat koneksi baru ke database
-            Connection conn = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            System.out.println("✅ Database connected successfully!");
-            return conn;
-
+            return getPool().borrow();
         } catch (Exception e) {
-            System.err.println("❌ Database connection failed: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Database connection failed: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Ringkasan kondisi pool, berguna untuk debugging.
+     */
+    public static String getPoolStatus() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            return "pool not initialized";
+        }
+        return "active=" + p.getActiveCount() + ", idle=" + p.getIdleCount() + ", max=" + p.getMaxSize();
+    }
+
     /**
      * Digunakan saat aplikasi mulai.
      * Tujuannya hanya untuk mengecek apakah koneksi berhasil dibuat.
      */
     public static void initializeDatabase() {
-        System.out.println("🔄 Initializing database connection...");
+        Log.info("🔄 Initializing database connection...");
         testConnection(); // Test koneksi dulu
+        
+        // Index dan constraint tambahan (database/migrations), hanya yang belum pernah dijalankan
+        new SchemaMigrator(System.getProperty("arlene.db.migrationsDir", "database/migrations")).migrate();
     }
 
     /**
@@ -54,33 +93,40 @@ public class DatabaseConnection {
 
             // Jika koneksi gagal dibuat
             if (conn == null) {
-                System.err.println("❌ Database connection test: FAILED - Connection is null");
+                Log.error("❌ Database connection test: FAILED - Connection is null");
                 return;
             }
 
-            System.out.println("✅ Database connection test: SUCCESS");
+            Log.info("✅ Database connection test: SUCCESS");
 
             // Query sederhana untuk melihat tabel-tabel dalam database
             String testQuery = "SHOW TABLES";
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(testQuery)) {
 
-                System.out.println("📊 Database tables:");
+                Log.info("📊 Database tables:");
                 while (rs.next()) {
-                    System.out.println("   - " + rs.getString(1));
+                    Log.info("   - " + rs.getString(1));
                 }
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Database connection test: FAILED - " + e.getMessage());
+            Log.error("❌ Database connection test: FAILED - " + e.getMessage());
         }
     }
 
     /**
-     * Karena tidak menggunakan koneksi global, maka tidak ada yang perlu ditutup.
-     * Method ini hanya sebagai placeholder agar struktur tetap konsisten.
+     * Menutup semua koneksi idle di pool. Dipanggil otomatis saat JVM berhenti.
      */
     public static void closeConnection() {
-        System.out.println("ℹ️ No global connection to close.");
+        ConnectionPool p;
+        synchronized (DatabaseConnection.class) {
+            p = pool;
+            pool = null;
+        }
+        if (p != null) {
+            p.shutdown();
+            Log.info("ℹ️ Database connection pool closed.");
+        }
     }
 }
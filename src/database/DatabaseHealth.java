@@ -0,0 +1,107 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import utils.Log;
+
+/**
+ * Status ketersediaan database, pengganti test connection di setiap pemanggilan.
+ *
+ * Database dianggap tersedia sampai ConnectionPool gagal membuka koneksi fisik baru
+ * (pool yang penuh tidak dihitung). Setelah itu isAvailable() langsung mengembalikan
+ * false tanpa menunggu timeout koneksi, dan thread "db-health" mem-probe database
+ * dengan backoff eksponensial (-Darlene.db.probe.minBackoffMs default 1000,
+ * -Darlene.db.probe.maxBackoffMs default 30000). Saat probe berhasil, recovery
+ * listener dipanggil di thread tersebut.
+ */
+final class DatabaseHealth {
+    private static final long MIN_BACKOFF_MILLIS = Long.getLong("arlene.db.probe.minBackoffMs", 1_000L);
+    private static final long MAX_BACKOFF_MILLIS = Long.getLong("arlene.db.probe.maxBackoffMs", 30_000L);
+
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService prober;
+    private volatile boolean available = true;
+    private boolean probing;
+    private long backoffMillis;
+
+    private DatabaseHealth() {
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-health");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static class Holder {
+        private static final DatabaseHealth INSTANCE = new DatabaseHealth();
+    }
+
+    static DatabaseHealth getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Dipanggil saat koneksi gagal. Menandai database down dan memulai probe jika belum berjalan.
+     */
+    void reportFailure() {
+        synchronized (this) {
+            available = false;
+            if (probing) {
+                return;
+            }
+            probing = true;
+            backoffMillis = MIN_BACKOFF_MILLIS;
+        }
+        Log.warn("⚠️ Database marked unavailable, probing every " + MIN_BACKOFF_MILLIS + "-" + MAX_BACKOFF_MILLIS + " ms");
+        prober.schedule(this::probe, MIN_BACKOFF_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param listener dipanggil di thread "db-health" setiap kali database kembali tersedia
+     */
+    void addRecoveryListener(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    private void probe() {
+        if (!check()) {
+            long delay;
+            synchronized (this) {
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                delay = backoffMillis;
+            }
+            prober.schedule(this::probe, delay, TimeUnit.MILLISECONDS);
+            return;
+        }
+        synchronized (this) {
+            available = true;
+            probing = false;
+        }
+        Log.info("✅ Database is reachable again");
+        for (Runnable listener : recoveryListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Log.error("❌ Database recovery listener failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static boolean check() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return conn != null && conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
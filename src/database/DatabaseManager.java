@@ -1,53 +1,69 @@
 package database;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import model.Admin;
 import model.CartItem;
 import model.Customer;
 import model.Order;
+import model.Money;
 import model.OrderItem;
 import model.Product;
 import model.ShoppingCart;
 import model.User;
 import utils.CurrencyUtils;
+import utils.Log;
 
 public class DatabaseManager {
-    private static DatabaseManager instance;
+    private static final int ORDER_ITEMS_BATCH_SIZE = 500;
+    private static final long PRODUCT_CACHE_TTL_MILLIS = 60_000;
     private UserDAO userDAO;
     private ProductDAO productDAO;
     private CartDAO cartDAO;
-    private Map<String, User> users;
-    private User currentUser;
-    private Map<String, String> orderStatusOverrides;
+    private StockReservationDAO stockReservationDAO;
+    private ProductCatalogCache productCache;
+    private CartWriteBehindStore cartWriter;
+    private LocalCartJournal localCartJournal;
+    private LocalCartSync localCartSync;
+    private final Map<String, User> users;
+    private volatile UserSession session;
+    private final Map<String, String> orderStatusOverrides;
     private final File orderStatusFile = new File("assets/exports/order-status.properties");
     private final File localCartDir = new File("assets/exports/local-carts");
-    private String lastError; // Untuk menyimpan error message terakhir
     
-    private DatabaseManager() {
-        userDAO = new UserDAO();
-        productDAO = new ProductDAO();
-        cartDAO = new CartDAO();
-        users = new HashMap<>();
-        orderStatusOverrides = new HashMap<>();
+    // Package-private agar bisa di-extend InstrumentedDatabaseManager
+    DatabaseManager() {
+        userDAO = new InstrumentedUserDAO();
+        productDAO = new InstrumentedProductDAO();
+        cartDAO = new InstrumentedCartDAO();
+        stockReservationDAO = new StockReservationDAO();
+        productCache = new ProductCatalogCache(productDAO, PRODUCT_CACHE_TTL_MILLIS);
+        cartWriter = new CartWriteBehindStore(stockReservationDAO,
+                new File(System.getProperty("arlene.cart.journalDir", "assets/exports/cart-writebehind")),
+                Long.getLong("arlene.cart.flushIntervalMs", 2_000L),
+                productCache::markStale, this::reloadCartItems);
+        localCartJournal = new LocalCartJournal(localCartDir, Long.getLong("arlene.localCart.fsyncIntervalMs", 200L));
+        localCartSync = new LocalCartSync(cartDAO, productDAO, stockReservationDAO, localCartJournal,
+                productCache::markStale, this::getSessionCart);
+        DatabaseHealth.getInstance().addRecoveryListener(localCartSync::requestSync);
+        users = new ConcurrentHashMap<>();
+        orderStatusOverrides = new ConcurrentHashMap<>();
         loadOrderStatusOverrides();
         loadUsersFromDatabase();
     }
@@ -62,13 +78,13 @@ public class DatabaseManager {
             for (String name : p.stringPropertyNames()) {
                 orderStatusOverrides.put(name, p.getProperty(name));
             }
-            System.out.println("🔄 Loaded order status overrides: " + orderStatusOverrides.size());
+            Log.info("🔄 Loaded order status overrides: " + orderStatusOverrides.size());
         } catch (IOException e) {
-            System.err.println("❌ Failed to load order status overrides: " + e.getMessage());
+            Log.error("❌ Failed to load order status overrides: " + e.getMessage());
         }
     }
 
-    private void saveOrderStatusOverrides() {
+    private synchronized void saveOrderStatusOverrides() {
         try {
             if (!orderStatusFile.getParentFile().exists()) orderStatusFile.getParentFile().mkdirs();
             Properties p = new Properties();
@@ -76,24 +92,30 @@ public class DatabaseManager {
             try (FileOutputStream fos = new FileOutputStream(orderStatusFile)) {
                 p.store(fos, "Order status overrides (orderId=status)");
             }
-            System.out.println("💾 Saved order status overrides: " + orderStatusOverrides.size());
+            Log.info("💾 Saved order status overrides: " + orderStatusOverrides.size());
         } catch (IOException e) {
-            System.err.println("❌ Failed to save order status overrides: " + e.getMessage());
+            Log.error("❌ Failed to save order status overrides: " + e.getMessage());
         }
     }
     
+    /**
+     * Lazy initialization yang thread-safe (holder idiom): instance dibuat
+     * saat getInstance() pertama kali dipanggil, tepat satu kali.
+     * Instance-nya versi yang diukur Metrics (lihat tab Diagnostics).
+     */
+    private static class Holder {
+        private static final DatabaseManager INSTANCE = new InstrumentedDatabaseManager();
+    }
+    
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     private void loadUsersFromDatabase() {
         for (User user : userDAO.getAllUsers()) {
             users.put(user.getUsername(), user);
         }
-        System.out.println("✅ Loaded " + users.size() + " users from database");
+        Log.info("✅ Loaded " + users.size() + " users from database");
     }
     
     // ==================== USER MANAGEMENT METHODS ====================
@@ -101,9 +123,9 @@ public class DatabaseManager {
     public User login(String username, String password) {
         User user = userDAO.login(username, password);
         if (user != null) {
-            currentUser = user;
+            session = new UserSession(user);
             users.put(username, user);
-            System.out.println("✅ User logged in: " + user.getUserId() + " - " + user.getRole());
+            Log.info("✅ User logged in: " + user.getUserId() + " - " + user.getRole());
         }
         return user;
     }
@@ -122,7 +144,7 @@ public class DatabaseManager {
         
         if (success) {
             users.put(username, customer);
-            System.out.println("✅ New user registered: " + username);
+            Log.info("✅ New user registered: " + username);
         }
         
         return success;
@@ -137,29 +159,60 @@ public class DatabaseManager {
     }
     
     public void logout() {
-        currentUser = null;
+        UserSession s = session;
+        session = null;
+        // Jika gagal (database down), journal tetap ada dan diputar ulang saat login berikutnya
+        if (s != null && s.getCart() != null) {
+            ShoppingCart cart = s.getCart();
+            if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
+                localCartJournal.detach(cart);
+            } else {
+                flushCartEdits(cart);
+            }
+        }
     }
     
     // ==================== PRODUCT MANAGEMENT METHODS ====================
     
     public List<Product> getAllProducts() {
-        return productDAO.getAllProducts();
+        return productCache.getAll();
     }
     
     public Product getProductById(String productId) {
-        return productDAO.getProductById(productId);
+        return productCache.getById(productId);
     }
     
     public List<Product> getProductsByCategory(String category) {
-        return productDAO.getProductsByCategory(category);
+        return productCache.getByCategory(category);
+    }
+    
+    public List<Product> getProductsByMaterial(String material) {
+        return productCache.getByMaterial(material);
+    }
+    
+    /**
+     * Satu halaman produk langsung dari database (filter + sort + keyset pagination,
+     * lihat ProductQuery). after = produk terakhir halaman sebelumnya, null untuk halaman pertama.
+     */
+    public List<Product> getProductsPage(ProductQuery query, Product after) {
+        return productDAO.getProductsPage(query, after);
+    }
+    
+    /**
+     * Pencarian produk dari inverted index di memori (prefix match per kata,
+     * diurutkan berdasarkan relevansi). Tidak ada query LIKE ke database.
+     */
+    public List<Product> searchProducts(String keyword) {
+        return productCache.search(keyword);
     }
     
     public boolean addProduct(Product product) {
         boolean success = productDAO.addProduct(product);
         if (success) {
-            System.out.println("✅ Product added to database: " + product.getProductId());
+            productCache.put(product);
+            Log.info("✅ Product added to database: " + product.getProductId());
         } else {
-            System.err.println("❌ Failed to add product: " + product.getProductId());
+            Log.error("❌ Failed to add product: " + product.getProductId());
         }
         return success;
     }
@@ -167,9 +220,10 @@ public class DatabaseManager {
     public boolean updateProduct(Product product) {
         boolean success = productDAO.updateProduct(product);
         if (success) {
-            System.out.println("✅ Product updated in database: " + product.getProductId());
+            productCache.put(product);
+            Log.info("✅ Product updated in database: " + product.getProductId());
         } else {
-            System.err.println("❌ Failed to update product: " + product.getProductId());
+            Log.error("❌ Failed to update product: " + product.getProductId());
         }
         return success;
     }
@@ -177,9 +231,10 @@ public class DatabaseManager {
     public boolean deleteProduct(String productId) {
         boolean success = productDAO.deleteProduct(productId);
         if (success) {
-            System.out.println("🗑️ Product deleted from database: " + productId);
+            productCache.remove(productId);
+            Log.info("🗑️ Product deleted from database: " + productId);
         } else {
-            System.err.println("❌ Failed to delete product: " + productId);
+            Log.error("❌ Failed to delete product: " + productId);
         }
         return success;
     }
@@ -193,240 +248,262 @@ public class DatabaseManager {
     }
     
     public boolean updateProductStock(String productId, int newStock) {
-        return productDAO.updateStock(productId, newStock);
+        boolean success = productDAO.updateStock(productId, newStock);
+        if (success) {
+            productCache.markStale(productId);
+        }
+        return success;
     }
     
     // ==================== SHOPPING CART METHODS ====================
     
+    /**
+     * Cart milik sesi login. Dimuat dari database sekali per sesi, setelah itu
+     * instance yang sama dikembalikan dan diubah oleh method cart di bawah.
+     */
     public ShoppingCart getCurrentUserCart() {
+        UserSession session = this.session;
+        User currentUser = session != null ? session.getUser() : null;
         if (currentUser == null) {
-            System.err.println("❌ No user logged in");
+            Log.error("❌ No user logged in");
             return null;
         }
-        System.out.println("👤 Getting cart for user: " + currentUser.getUserId());
-        ShoppingCart cart = cartDAO.getOrCreateCart(currentUser.getUserId());
-        System.out.println("🛒 Cart retrieved: " + (cart != null ? cart.getCartId() : "NULL"));
-        // If this is a local cart, attempt to load persisted items from disk
-        try {
-            if (cart != null && cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
-                List<CartItem> persisted = loadLocalCartItems(currentUser.getUserId());
-                if (persisted != null && !persisted.isEmpty()) {
-                    cart.setItems(persisted);
-                    System.out.println("⚠️ Loaded " + persisted.size() + " items from local cart file for user: " + currentUser.getUserId());
-                }
+        synchronized (session) {
+            ShoppingCart cached = session.getCart();
+            if (cached != null) {
+                return cached;
             }
-        } catch (Exception e) {
-            System.err.println("❌ Failed loading local cart for user: " + currentUser.getUserId() + " - " + e.getMessage());
+            ShoppingCart cart = loadUserCart(currentUser);
+            // Perubahan quantity yang belum sempat ditulis sebelum aplikasi ditutup/crash
+            if (cart != null && cart.getCartId() != null && !cart.getCartId().startsWith("LOCAL_CART_")
+                    && cartWriter.recover(cart)) {
+                reloadCartItems(cart);
+            }
+            session.setCart(cart);
+            return cart;
+        }
+    }
+
+    /**
+     * Muat ulang isi cart sesi dari database (tombol Refresh). Perubahan quantity
+     * yang tertunda ditulis dulu supaya tidak tertimpa data lama.
+     */
+    public ShoppingCart reloadCurrentUserCart() {
+        ShoppingCart cart = getCurrentUserCart();
+        if (cart != null && cart.getCartId() != null && !cart.getCartId().startsWith("LOCAL_CART_")
+                && flushCartEdits(cart)) {
+            reloadCartItems(cart);
         }
         return cart;
     }
 
+    private ShoppingCart loadUserCart(User currentUser) {
+        Log.debug(() -> "👤 Getting cart for user: " + currentUser.getUserId());
+        ShoppingCart cart = cartDAO.getOrCreateCart(currentUser.getUserId());
+        Log.debug(() -> "🛒 Cart retrieved: " + (cart != null ? cart.getCartId() : "NULL"));
+        if (cart == null || cart.getCartId() == null) {
+            return cart;
+        }
+        if (cart.getCartId().startsWith("LOCAL_CART_")) {
+            // Database tidak tersedia: isi cart dari journal lokal (snapshot produk ada di journal)
+            cart.setItems(localCartJournal.load(currentUser.getUserId(), cart.getCartId()));
+            localCartJournal.attach(cart);
+            localCartSync.requestSync(); // Berjalan tertunda, setelah sesi menyimpan cart ini
+        } else {
+            replayLocalCart(cart);
+        }
+        return cart;
+    }
+
+    /**
+     * Pindahkan isi local cart dari sesi offline sebelumnya ke cart di database (aturan
+     * konflik stok/produk di LocalCartSync), lalu hapus journal-nya. Jika gagal, journal
+     * dibiarkan supaya bisa dicoba lagi saat cart dimuat berikutnya.
+     */
+    private void replayLocalCart(ShoppingCart cart) {
+        List<CartItem> offline = localCartJournal.load(cart.getUserId(), cart.getCartId());
+        if (offline.isEmpty()) {
+            localCartJournal.delete(cart.getUserId());
+            return;
+        }
+        if (localCartSync.mergeInto(cart.getCartId(), offline)) {
+            localCartJournal.delete(cart.getUserId());
+            reloadCartItems(cart);
+            Log.info("✅ Replayed " + offline.size() + " local cart items into " + cart.getCartId());
+        } else {
+            Log.warn("⚠️ Could not replay local cart into " + cart.getCartId() + ", keeping journal for next time");
+        }
+    }
+
+    private ShoppingCart getSessionCart() {
+        UserSession s = session;
+        return s != null ? s.getCart() : null;
+    }
+
+    /**
+     * Ganti isi cart dengan cart_items terbaru dari database (memicu cartReset di listener).
+     */
+    private boolean reloadCartItems(ShoppingCart cart) {
+        ShoppingCart fresh = cartDAO.getOrCreateCart(cart.getUserId());
+        if (fresh == null || !cart.getCartId().equals(fresh.getCartId())) {
+            Log.warn("⚠️ Could not reload cart from database: " + cart.getCartId());
+            return false;
+        }
+        cart.setItems(fresh.getItems());
+        return true;
+    }
+
+    /**
+     * Tulis perubahan quantity yang masih tertunda di write-behind, supaya operasi
+     * berikutnya bekerja dengan cart_items yang sama seperti yang ditampilkan.
+     */
+    private boolean flushCartEdits(ShoppingCart cart) {
+        if (cart == null || cart.getCartId() == null || cart.getCartId().startsWith("LOCAL_CART_")) {
+            return true;
+        }
+        if (!cartWriter.flush(cart.getCartId())) {
+            Log.warn("⚠️ Cart still has unsaved quantity changes: " + cart.getCartId());
+            return false;
+        }
+        return true;
+    }
+
     public boolean addToCart(Product product, int quantity) {
-        System.out.println("=== 🗃️ DATABASE MANAGER ADD TO CART START ===");
-        System.out.println("👤 Current User: " + (currentUser != null ? currentUser.getUserId() : "NULL"));
-        System.out.println("📦 Product ID: " + product.getProductId());
-        System.out.println("📦 Product Name: " + product.getName());
-        System.out.println("🔢 Quantity: " + quantity);
+        User currentUser = getCurrentUser();
+        Log.debug(() -> "🗃️ DatabaseManager.addToCart: user=" + (currentUser != null ? currentUser.getUserId() : "NULL") +
+                ", product=" + product.getProductId() + " (" + product.getName() + "), quantity=" + quantity);
         
         if (currentUser == null) {
-            System.err.println("❌ ERROR: No user logged in DatabaseManager!");
+            Log.error("❌ ERROR: No user logged in DatabaseManager!");
             return false;
         }
         
         // ✅ STEP 1: PASTIKAN CART ADA
         ShoppingCart cart = getCurrentUserCart();
         if (cart == null) {
-            System.err.println("❌ ERROR: Failed to get or create cart");
+            Log.error("❌ ERROR: Failed to get or create cart");
             return false;
         }
-        System.out.println("🛒 Using cart: " + cart.getCartId());
+        Log.debug(() -> "🛒 Using cart: " + cart.getCartId());
 
         // If cart is local/in-memory (DB unavailable), handle add-to-cart locally
         if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
             try {
-                List<CartItem> items = cart.getItems();
-                // Try to find existing item
-                CartItem existing = items.stream()
-                        .filter(ci -> ci.getProduct().getProductId().equals(product.getProductId()))
-                        .findFirst().orElse(null);
-
+                CartItem existing = cart.findByProductId(product.getProductId());
                 if (existing != null) {
-                    int newQty = existing.getQuantity() + quantity;
-                    CartItem replacement = new CartItem(existing.getCartItemId(), cart.getCartId(), existing.getProduct(), newQty);
-                    items.remove(existing);
-                    items.add(replacement);
+                    cart.updateQuantity(existing.getCartItemId(), existing.getQuantity() + quantity);
                 } else {
-                    int localId = (int) (-(System.currentTimeMillis() % Integer.MAX_VALUE));
-                    CartItem newItem = new CartItem(localId, cart.getCartId(), product, quantity);
-                    items.add(newItem);
+                    int localId = localCartJournal.nextItemId(cart.getUserId());
+                    cart.addItem(new CartItem(localId, cart.getCartId(), product, quantity));
                 }
-                cart.setItems(items);
-                System.out.println("⚠️ Added to local in-memory cart: " + product.getProductId() + " x" + quantity);
-                // persist local cart
-                saveLocalCart(cart);
+                // Dicatat ke journal lokal oleh LocalCartJournal (CartListener)
+                Log.warn("⚠️ Added to local in-memory cart: " + product.getProductId() + " x" + quantity);
                 return true;
             } catch (Exception ex) {
-                System.err.println("❌ Failed to add to local cart: " + ex.getMessage());
+                Log.error("❌ Failed to add to local cart: " + ex.getMessage());
                 return false;
             }
         }
         
-        // ✅ STEP 2: AMBIL DATA PRODUCT TERBARU DARI DATABASE
-        System.out.println("🔄 Getting fresh product data from database...");
-        Product currentProduct = productDAO.getProductById(product.getProductId());
-        if (currentProduct == null) {
-            System.err.println("❌ ERROR: Product not found in database: " + product.getProductId());
+        // ✅ STEP 2: VALIDASI HARGA
+        if (!product.getPrice().isPositive()) {
+            Log.error("❌ ERROR: Invalid price: " + product.getPrice());
             return false;
         }
         
-        System.out.println("📦 Product details from DB:");
-        System.out.println("   Name: " + currentProduct.getName());
-        System.out.println("   Price: " + currentProduct.getPrice());
-        System.out.println("   Stock: " + currentProduct.getStock());
-        System.out.println("   Category: " + currentProduct.getCategory());
-        
-        // ✅ STEP 3: VALIDASI STOCK
-        if (currentProduct.getStock() < quantity) {
-            System.err.println("❌ ERROR: Insufficient stock! Available: " + currentProduct.getStock() + ", Requested: " + quantity);
-            return false;
-        }
-        
-        // ✅ STEP 4: VALIDASI HARGA
-        if (currentProduct.getPrice() <= 0) {
-            System.err.println("❌ ERROR: Invalid price: " + currentProduct.getPrice());
+        // Quantity tertunda untuk produk yang sama harus ditulis dulu, kalau tidak akan menimpa hasil add
+        if (!flushCartEdits(cart)) {
             return false;
         }
         
-        // ✅ STEP 5: ADD TO CART VIA CartDAO
-        System.out.println("🛒 Calling CartDAO.addToCart()...");
-        boolean success = cartDAO.addToCart(cart.getCartId(), product.getProductId(), quantity);
-        System.out.println("🛒 CartDAO add result: " + success);
-        
-        // ✅ STEP 6: UPDATE STOCK JIKA BERHASIL
+        // ✅ STEP 3: RESERVASI STOK + TULIS CART_ITEMS DALAM SATU TRANSAKSI
+        // Stok divalidasi oleh UPDATE bersyarat (stock >= quantity), bukan read-then-write
+        boolean success = stockReservationDAO.reserveAndAdd(cart.getCartId(), product.getProductId(), quantity);
         if (success) {
-            int newStock = currentProduct.getStock() - quantity;
-            boolean stockUpdated = productDAO.updateStock(product.getProductId(), newStock);
-            System.out.println("📦 Stock update result: " + stockUpdated);
-            System.out.println("📦 Stock changed: " + currentProduct.getStock() + " → " + newStock);
-            
-            if (!stockUpdated) {
-                System.err.println("❌ ERROR: Failed to update stock for product: " + product.getProductId());
-                // Rollback: remove item from cart
-                cartDAO.removeFromCart(cart.getCartId(), product.getProductId());
-                return false;
-            }
-            
-            System.out.println("✅ SUCCESS: Added to cart: " + product.getName() + " x" + quantity);
-            return true;
+            productCache.markStale(product.getProductId());
+            reloadCartItems(cart); // cart_item_id baru dibuat database
+            Log.info("✅ SUCCESS: Added to cart: " + product.getName() + " x" + quantity);
         } else {
-            System.err.println("❌ ERROR: Failed to add product to cart: " + product.getProductId());
-            return false;
+            Log.error("❌ ERROR: Failed to add product to cart (insufficient stock or product missing): " + product.getProductId());
         }
+        return success;
     }
     
     public boolean updateCartItem(int cartItemId, int quantity) {
+        User currentUser = getCurrentUser();
         if (currentUser == null) {
-            System.err.println("❌ No user logged in");
+            Log.error("❌ No user logged in");
             return false;
         }
         
-        // Get current cart item to check stock
         ShoppingCart cart = getCurrentUserCart();
         if (cart == null) return false;
         
-        CartItem currentItem = cart.getItems().stream()
-                .filter(item -> item.getCartItemId() == cartItemId)
-                .findFirst()
-                .orElse(null);
-        
-            if (currentItem != null) {
-            // ✅ PERBAIKAN: AMBIL DATA PRODUCT TERBARU
-            Product currentProduct = productDAO.getProductById(currentItem.getProduct().getProductId());
-            if (currentProduct == null) {
-                System.err.println("❌ Product not found for update: " + currentItem.getProduct().getProductId());
-                return false;
-            }
-            
-            int stockChange = currentItem.getQuantity() - quantity;
-            
-            // Check if new quantity is valid
-            if (currentProduct.getStock() + stockChange < 0) {
-                System.err.println("❌ Insufficient stock for update");
+        // If this is a local/in-memory cart, update locally (stok tidak direservasi untuk local cart)
+        if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
+            try {
+                // Quantity <= 0 menghapus item
+                return cart.updateQuantity(cartItemId, quantity);
+            } catch (Exception ex) {
+                Log.error("❌ Failed to update local cart item: " + ex.getMessage());
                 return false;
             }
-            
-            // If this is a local/in-memory cart, update locally
-            if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
-                try {
-                    List<CartItem> items = cart.getItems();
-                    CartItem replacement = new CartItem(currentItem.getCartItemId(), cart.getCartId(), currentItem.getProduct(), quantity);
-                    items.remove(currentItem);
-                    items.add(replacement);
-                    cart.setItems(items);
-                    // persist change
-                    saveLocalCart(cart);
-                    return true;
-                } catch (Exception ex) {
-                    System.err.println("❌ Failed to update local cart item: " + ex.getMessage());
-                    return false;
-                }
-            }
+        }
 
-            boolean success = cartDAO.updateCartItem(cartItemId, quantity);
-            if (success) {
-                // Update product stock dengan data terbaru
-                productDAO.updateStock(currentProduct.getProductId(), currentProduct.getStock() + stockChange);
-            }
-            return success;
+        // Klik +/- beruntun digabung jadi satu write (lihat CartWriteBehindStore).
+        // Quantity <= 0 menghapus item, jadi langsung ke database seperti removeFromCart.
+        if (quantity > 0 && cartWriter.stage(cart, cartItemId, quantity)) {
+            return true;
         }
-        
-        return false;
+        if (!flushCartEdits(cart)) {
+            return false;
+        }
+
+        // Selisih quantity direservasi/dikembalikan bersama update cart_items
+        boolean success = stockReservationDAO.changeQuantity(cart.getCartId(), cartItemId, quantity);
+        if (success) {
+            markCartItemStockStale(cart, cartItemId);
+            cart.updateQuantity(cartItemId, quantity);
+        }
+        return success;
     }
 
     public boolean removeFromCart(int cartItemId) {
+        User currentUser = getCurrentUser();
         if (currentUser == null) {
-            System.err.println("❌ No user logged in");
+            Log.error("❌ No user logged in");
             return false;
         }
         
-        // Get item details before removing to restore stock
         ShoppingCart cart = getCurrentUserCart();
-        if (cart != null) {
-            CartItem itemToRemove = cart.getItems().stream()
-                    .filter(item -> item.getCartItemId() == cartItemId)
-                    .findFirst()
-                    .orElse(null);
-            
-            if (itemToRemove != null) {
-                // ✅ PERBAIKAN: AMBIL DATA PRODUCT TERBARU
-                Product currentProduct = productDAO.getProductById(itemToRemove.getProduct().getProductId());
-                if (currentProduct != null) {
-                    // Restore stock dengan data terbaru
-                    productDAO.updateStock(currentProduct.getProductId(), currentProduct.getStock() + itemToRemove.getQuantity());
-                }
-                // If this is a local cart, remove locally
-                if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
-                    try {
-                        List<CartItem> items = cart.getItems();
-                        items.removeIf(ci -> ci.getCartItemId() == cartItemId);
-                        cart.setItems(items);
-                        // persist change
-                        saveLocalCart(cart);
-                        return true;
-                    } catch (Exception ex) {
-                        System.err.println("❌ Failed to remove item from local cart: " + ex.getMessage());
-                        return false;
-                    }
-                }
+        if (cart == null) return false;
+        // If this is a local cart, remove locally
+        if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
+            try {
+                return cart.removeItem(cartItemId);
+            } catch (Exception ex) {
+                Log.error("❌ Failed to remove item from local cart: " + ex.getMessage());
+                return false;
             }
         }
 
-        return cartDAO.removeFromCart(cartItemId);
+        if (!flushCartEdits(cart)) {
+            return false;
+        }
+
+        // Hapus item dan kembalikan stoknya dalam satu transaksi
+        boolean success = stockReservationDAO.releaseItem(cart.getCartId(), cartItemId);
+        if (success) {
+            markCartItemStockStale(cart, cartItemId);
+            cart.removeItem(cartItemId);
+        }
+        return success;
     }
 
     public boolean clearCart() {
+        User currentUser = getCurrentUser();
         if (currentUser == null) {
-            System.err.println("❌ No user logged in");
+            Log.error("❌ No user logged in");
             return false;
         }
         
@@ -434,140 +511,124 @@ public class DatabaseManager {
         if (cart == null) {
             return false;
         }
-        
-        // Restore stock for all items dengan data terbaru
-        for (CartItem item : cart.getItems()) {
-            Product currentProduct = productDAO.getProductById(item.getProduct().getProductId());
-            if (currentProduct != null) {
-                productDAO.updateStock(currentProduct.getProductId(), currentProduct.getStock() + item.getQuantity());
-            }
-        }
 
-        // If local cart, just clear in-memory and remove persisted file
+        // If local cart, just clear in-memory (journal lokal ikut dikosongkan lewat cartReset)
         if (cart.getCartId() != null && cart.getCartId().startsWith("LOCAL_CART_")) {
-            String uid = cart.getUserId();
             cart.clear();
-            File f = getLocalCartFile(uid);
-            if (f.exists()) {
-                try {
-                    f.delete();
-                } catch (Exception ex) {
-                    System.err.println("❌ Failed to delete local cart file: " + ex.getMessage());
-                }
-            }
             return true;
         }
 
-        return cartDAO.clearCart(cart.getCartId());
+        if (!flushCartEdits(cart)) {
+            return false;
+        }
+
+        // Semua stok dikembalikan dengan satu statement, lalu cart_items dihapus
+        boolean success = stockReservationDAO.releaseCart(cart.getCartId());
+        if (success) {
+            productCache.markStale(cart.getItems().stream()
+                    .map(item -> item.getProduct().getProductId())
+                    .collect(Collectors.toList()));
+            cart.clear();
+        }
+        return success;
+    }
+    
+    private void markCartItemStockStale(ShoppingCart cart, int cartItemId) {
+        cart.getItems().stream()
+                .filter(item -> item.getCartItemId() == cartItemId)
+                .findFirst()
+                .ifPresent(item -> productCache.markStale(item.getProduct().getProductId()));
     }
 
     public boolean createTransaction(ShoppingCart cart, String paymentMethod) {
+        User currentUser = getCurrentUser();
         if (currentUser == null || cart == null || cart.isEmpty()) {
             return false;
         }
         
         try {
-            System.out.println("💳 Processing transaction...");
-            System.out.println("   Cart: " + cart.getCartId());
-            System.out.println("   User: " + currentUser.getUsername());
-            System.out.println("   Items: " + cart.getTotalItems());
-            System.out.println("   Total: " + CurrencyUtils.format(cart.getTotalAmount()));
-            System.out.println("   Payment: " + paymentMethod);
+            Log.info("💳 Processing transaction...");
+            Log.info("   Cart: " + cart.getCartId());
+            Log.info("   User: " + currentUser.getUsername());
+            Log.info("   Items: " + cart.getTotalItems());
+            Log.info("   Total: " + CurrencyUtils.format(cart.getTotalAmount()));
+            Log.info("   Payment: " + paymentMethod);
             
             // Untuk sementara, langsung clear cart sebagai simulasi transaksi berhasil
             boolean success = clearCart();
             if (success) {
-                System.out.println("✅ Transaction completed successfully!");
+                Log.info("✅ Transaction completed successfully!");
                 return true;
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Error processing transaction: " + e.getMessage());
+            Log.error("❌ Error processing transaction: " + e.getMessage());
             // logged
         }
         
         return false;
     }
 
-    // ---------------- Local cart persistence helpers ----------------
-    private File getLocalCartFile(String userId) {
-        try {
-            if (!localCartDir.exists()) localCartDir.mkdirs();
-        } catch (Exception ignored) {}
-        return new File(localCartDir, userId + ".cart");
-    }
-
-    private void saveLocalCart(ShoppingCart cart) {
-        if (cart == null || cart.getUserId() == null) return;
-        File f = getLocalCartFile(cart.getUserId());
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f))) {
-            for (CartItem item : cart.getItems()) {
-                // store: cartItemId,productId,quantity
-                bw.write(item.getCartItemId() + "," + item.getProduct().getProductId() + "," + item.getQuantity());
-                bw.newLine();
-            }
-            bw.flush();
-            System.out.println("💾 Saved local cart for user: " + cart.getUserId());
-        } catch (IOException e) {
-            System.err.println("❌ Failed to save local cart for user: " + cart.getUserId() + " - " + e.getMessage());
-        }
-    }
-
-    private List<CartItem> loadLocalCartItems(String userId) {
-        List<CartItem> items = new ArrayList<>();
-        File f = getLocalCartFile(userId);
-        if (!f.exists()) return items;
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                String[] parts = line.split(",");
-                if (parts.length < 3) continue;
-                try {
-                    int cartItemId = Integer.parseInt(parts[0]);
-                    String productId = parts[1];
-                    int qty = Integer.parseInt(parts[2]);
-                    Product p = productDAO.getProductById(productId);
-                    if (p != null) {
-                        CartItem ci = new CartItem(cartItemId, "LOCAL_CART_" + userId, p, qty);
-                        items.add(ci);
-                    }
-                } catch (NumberFormatException ignored) {
-                }
-            }
-            System.out.println("⚠️ Loaded local cart file for user " + userId + ", items=" + items.size());
-        } catch (IOException e) {
-            System.err.println("❌ Failed to load local cart file for user: " + userId + " - " + e.getMessage());
-        }
-        return items;
-    }
-    
     // ==================== ORDER MANAGEMENT METHODS ====================
     
     public List<Order> getUserOrders() {
+        return getUserOrders(null, null, 0);
+    }
+    
+    /**
+     * Mengambil order milik user yang sedang login, diurutkan dari yang terbaru.
+     * Paging memakai keyset (order_date, order_id): untuk halaman berikutnya,
+     * kirim order_date dan order_id dari order terakhir di halaman sebelumnya.
+     *
+     * Hanya dua query per halaman: satu untuk orders, satu untuk semua
+     * order_items-nya (IN batch + LEFT JOIN products). Product dibangun
+     * langsung dari hasil join, tanpa getProductById per item.
+     *
+     * @param beforeDate    order_date dari order terakhir halaman sebelumnya, null untuk halaman pertama
+     * @param beforeOrderId order_id dari order terakhir halaman sebelumnya
+     * @param limit         jumlah order maksimal, 0 berarti semua
+     */
+    public List<Order> getUserOrders(Date beforeDate, String beforeOrderId, int limit) {
+        User currentUser = getCurrentUser();
         List<Order> orders = new ArrayList<>();
         
         if (currentUser == null) {
-            System.err.println("❌ No user logged in");
+            Log.error("❌ No user logged in");
             return orders;
         }
         
-        try {
-            System.out.println("📊 Getting user orders for: " + currentUser.getUserId());
-            
-            Connection conn = DatabaseConnection.getConnection();
+        Log.info("📊 Getting user orders for: " + currentUser.getUserId());
+        
+        StringBuilder orderSql = new StringBuilder(
+                "SELECT order_id, order_date, total_amount, status, payment_method, shipping_address, notes " +
+                "FROM orders WHERE user_id = ?");
+        if (beforeDate != null) {
+            orderSql.append(" AND (order_date < ? OR (order_date = ? AND order_id < ?))");
+        }
+        orderSql.append(" ORDER BY order_date DESC, order_id DESC");
+        if (limit > 0) {
+            orderSql.append(" LIMIT ?");
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) {
-                System.err.println("❌ Database connection failed");
+                Log.error("❌ Database connection failed");
                 return orders;
             }
             
-            // Query untuk mengambil orders dari database
-            String orderSql = "SELECT order_id, order_date, total_amount, status, payment_method, shipping_address, notes " +
-                            "FROM orders WHERE user_id = ? ORDER BY order_date DESC";
-            
-            try (PreparedStatement orderStmt = conn.prepareStatement(orderSql)) {
-                orderStmt.setString(1, currentUser.getUserId());
+            Map<String, Order> ordersById = new LinkedHashMap<>();
+            try (PreparedStatement orderStmt = conn.prepareStatement(orderSql.toString())) {
+                int idx = 1;
+                orderStmt.setString(idx++, currentUser.getUserId());
+                if (beforeDate != null) {
+                    java.sql.Timestamp cursor = new java.sql.Timestamp(beforeDate.getTime());
+                    orderStmt.setTimestamp(idx++, cursor);
+                    orderStmt.setTimestamp(idx++, cursor);
+                    orderStmt.setString(idx++, beforeOrderId != null ? beforeOrderId : "");
+                }
+                if (limit > 0) {
+                    orderStmt.setInt(idx, limit);
+                }
                 
                 try (ResultSet orderRs = orderStmt.executeQuery()) {
                     while (orderRs.next()) {
@@ -583,7 +644,7 @@ public class DatabaseManager {
                         
                         order.setPaymentMethod(orderRs.getString("payment_method"));
                         order.setShippingAddress(orderRs.getString("shipping_address"));
-                        order.setTotalAmount(orderRs.getDouble("total_amount"));
+                        order.setTotalAmount(Money.of(orderRs.getBigDecimal("total_amount")));
                         order.setNotes(orderRs.getString("notes"));
                         
                         // Parse order date
@@ -592,122 +653,98 @@ public class DatabaseManager {
                             order.setOrderDate(new Date(timestamp.getTime()));
                         }
                         
-                        // Get order items
-                        List<OrderItem> items = getOrderItems(conn, order.getOrderId());
-                        order.setItems(items);
-                        
-                        orders.add(order);
-                        System.out.println("✅ Loaded order: " + order.getOrderId() + " with " + items.size() + " items");
+                        order.setItems(new ArrayList<>());
+                        ordersById.put(order.getOrderId(), order);
                     }
                 }
             }
             
-            System.out.println("✅ Loaded " + orders.size() + " orders from database");
+            loadOrderItems(conn, ordersById);
+            orders.addAll(ordersById.values());
+            
+            Log.info("✅ Loaded " + orders.size() + " orders from database");
             
         } catch (SQLException e) {
-            System.err.println("❌ Error getting user orders: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting user orders: " + e.getMessage(), e);
         }
         
         return orders;
     }
     
-    private List<OrderItem> getOrderItems(Connection conn, String orderId) {
-        List<OrderItem> items = new ArrayList<>();
+    /**
+     * Mengisi item untuk semua order sekaligus. Order id dikirim dalam batch IN (...)
+     * agar jumlah query tidak bertambah seiring jumlah order.
+     */
+    private void loadOrderItems(Connection conn, Map<String, Order> ordersById) throws SQLException {
+        if (ordersById.isEmpty()) {
+            return;
+        }
         
-        try {
-            System.out.println("🔍 Fetching order items for order: " + orderId);
+        List<String> orderIds = new ArrayList<>(ordersById.keySet());
+        for (int start = 0; start < orderIds.size(); start += ORDER_ITEMS_BATCH_SIZE) {
+            List<String> chunk = orderIds.subList(start, Math.min(orderIds.size(), start + ORDER_ITEMS_BATCH_SIZE));
             
-            String itemSql = "SELECT oi.product_id, oi.quantity, oi.unit_price, " +
-                           "p.product_id, p.name, p.category, p.material, p.price, p.stock, " +
-                           "p.description, p.image_path, p.weight, p.has_gemstone, p.gemstone_type " +
-                           "FROM order_items oi " +
-                           "LEFT JOIN products p ON oi.product_id = p.product_id " +
-                           "WHERE oi.order_id = ?";
+            StringBuilder itemSql = new StringBuilder(
+                    "SELECT oi.order_id, oi.product_id AS item_product_id, oi.quantity, oi.unit_price, " +
+                    "p.name, p.category, p.material, p.price, p.stock, " +
+                    "p.description, p.image_path, p.weight, p.has_gemstone, p.gemstone_type " +
+                    "FROM order_items oi " +
+                    "LEFT JOIN products p ON oi.product_id = p.product_id " +
+                    "WHERE oi.order_id IN (");
+            for (int k = 0; k < chunk.size(); k++) {
+                itemSql.append(k == 0 ? "?" : ", ?");
+            }
+            itemSql.append(") ORDER BY oi.order_id, oi.order_item_id");
             
-            try (PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
-                itemStmt.setString(1, orderId);
-                
+            try (PreparedStatement itemStmt = conn.prepareStatement(itemSql.toString())) {
+                for (int k = 0; k < chunk.size(); k++) {
+                    itemStmt.setString(k + 1, chunk.get(k));
+                }
                 try (ResultSet itemRs = itemStmt.executeQuery()) {
-                    int count = 0;
                     while (itemRs.next()) {
-                        count++;
-                        String productId = itemRs.getString("product_id");
-                        System.out.println("   📦 Found order item #" + count + ": Product ID = " + productId);
-                        
-                        // Create product from result set
-                        Product product = productDAO.getProductById(productId);
-                        if (product == null) {
-                            System.out.println("   ⚠️ Product not found in cache, creating from result set");
-                            // If product not found, create a basic product from the result set
-                            String productName = itemRs.getString("name");
-                            if (productName == null || productName.trim().isEmpty()) {
-                                productName = "Unknown Product (" + productId + ")";
-                                System.err.println("   ⚠️ Product name is null, using default name");
-                            }
-                            
-                            product = new Product(
-                                productId,
-                                productName,
-                                itemRs.getString("category") != null ? itemRs.getString("category") : "Unknown",
-                                itemRs.getString("material") != null ? itemRs.getString("material") : "Unknown",
-                                itemRs.getDouble("price"),
-                                itemRs.getInt("stock"),
-                                itemRs.getString("description") != null ? itemRs.getString("description") : "",
-                                itemRs.getString("image_path") != null ? itemRs.getString("image_path") : "default_product.png",
-                                itemRs.getDouble("weight"),
-                                itemRs.getBoolean("has_gemstone"),
-                                itemRs.getString("gemstone_type") != null ? itemRs.getString("gemstone_type") : ""
-                            );
-                            System.out.println("   ✅ Created product from result set: " + productName);
-                        }
-                        
-                        // Double check product name
-                        if (product != null && (product.getName() == null || product.getName().trim().isEmpty())) {
-                            System.err.println("   ⚠️ Product name is still null after creation!");
-                            // Try to get name from result set again
-                            String nameFromRs = itemRs.getString("name");
-                            if (nameFromRs != null && !nameFromRs.trim().isEmpty()) {
-                                // Product doesn't have setName, so we can't fix it here
-                                System.err.println("   ⚠️ Cannot set product name - Product class may not have setName method");
-                            }
-                        }
+                        Order order = ordersById.get(itemRs.getString("order_id"));
+                        if (order == null) continue;
                         
                         OrderItem item = new OrderItem();
-                        item.setProduct(product);
+                        item.setProduct(mapOrderItemProduct(itemRs));
                         item.setQuantity(itemRs.getInt("quantity"));
-                        item.setPrice(itemRs.getDouble("unit_price"));
-                        
-                        items.add(item);
-                        String productName = (product != null && product.getName() != null) ? product.getName() : "Unknown Product";
-                        System.out.println("   ✅ Added item: " + productName + " x" + item.getQuantity());
-                    }
-                    
-                    System.out.println("📊 Total order items found: " + count);
-                    if (count == 0) {
-                        System.err.println("⚠️ WARNING: No order items found for order: " + orderId);
-                        // Cek apakah order_items ada di database
-                        String checkSql = "SELECT COUNT(*) as count FROM order_items WHERE order_id = ?";
-                        try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                            checkStmt.setString(1, orderId);
-                            try (ResultSet checkRs = checkStmt.executeQuery()) {
-                                if (checkRs.next()) {
-                                    int dbCount = checkRs.getInt("count");
-                                    System.err.println("   Database shows " + dbCount + " order_items for this order");
-                                }
-                            }
-                        }
+                        item.setPrice(Money.of(itemRs.getBigDecimal("unit_price")));
+                        order.getItems().add(item);
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("❌ Error getting order items: " + e.getMessage());
-            System.err.println("   SQL State: " + e.getSQLState());
-            System.err.println("   Error Code: " + e.getErrorCode());
-            e.printStackTrace();
         }
+    }
+    
+    /**
+     * Product dari baris LEFT JOIN. Jika produk sudah dihapus, kolom products bernilai
+     * NULL sehingga dibuat produk placeholder dengan nama "Unknown Product (id)".
+     */
+    private Product mapOrderItemProduct(ResultSet rs) throws SQLException {
+        String productId = rs.getString("item_product_id");
+        String productName = rs.getString("name");
+        if (productName == null || productName.trim().isEmpty()) {
+            productName = "Unknown Product (" + productId + ")";
+        }
+        String category = rs.getString("category");
+        String material = rs.getString("material");
+        String description = rs.getString("description");
+        String imagePath = rs.getString("image_path");
+        String gemstoneType = rs.getString("gemstone_type");
         
-        return items;
+        return new Product(
+            productId,
+            productName,
+            category != null ? category : "Unknown",
+            material != null ? material : "Unknown",
+            Money.of(rs.getBigDecimal("price")),
+            rs.getInt("stock"),
+            description != null ? description : "",
+            imagePath != null ? imagePath : "default_product.png",
+            rs.getDouble("weight"),
+            rs.getBoolean("has_gemstone"),
+            gemstoneType != null ? gemstoneType : ""
+        );
     }
 
     /**
@@ -716,111 +753,132 @@ public class DatabaseManager {
     public boolean updateOrderStatus(String orderId, String newStatus) {
         if (orderId == null || newStatus == null) return false;
         orderStatusOverrides.put(orderId, newStatus);
-        System.out.println("🔁 Order status updated: " + orderId + " -> " + newStatus);
+        Log.info("🔁 Order status updated: " + orderId + " -> " + newStatus);
         saveOrderStatusOverrides();
         return true;
     }
 
     public boolean createOrderFromCart(ShoppingCart cart, String paymentMethod, String shippingAddress, String notes) {
+        User currentUser = getCurrentUser();
         try {
             if (currentUser == null) {
-                System.err.println("❌ No user logged in");
+                Log.error("❌ No user logged in");
                 return false;
             }
 
             
             
             if (cart == null || cart.isEmpty()) {
-                System.err.println("❌ Cart is empty");
+                Log.error("❌ Cart is empty");
                 return false;
             }
             
-            System.out.println("🛒 Creating order from cart...");
-            System.out.println("   User: " + currentUser.getUsername());
-            System.out.println("   Payment: " + paymentMethod);
-            System.out.println("   Shipping: " + shippingAddress);
-            System.out.println("   Items: " + cart.getTotalItems());
-            System.out.println("   Total: " + CurrencyUtils.format(cart.getTotalAmount()));
-            System.out.println("   Notes: " + (notes != null ? notes : "None"));
+            Log.info("🛒 Creating order from cart...");
+            Log.info("   User: " + currentUser.getUsername());
+            Log.info("   Payment: " + paymentMethod);
+            Log.info("   Shipping: " + shippingAddress);
+            Log.info("   Items: " + cart.getTotalItems());
+            Log.info("   Total: " + CurrencyUtils.format(cart.getTotalAmount()));
+            Log.info("   Notes: " + (notes != null ? notes : "None"));
             
             // ✅ SIMULASI: CREATE ORDER DI DATABASE
-            String orderId = "ORD-" + System.currentTimeMillis();
-            System.out.println("   Generated Order ID: " + orderId);
+            String orderId = generateOrderId();
+            Log.info("   Generated Order ID: " + orderId);
+            
+            // Cart sesi ikut dikosongkan oleh clearCart(), jadi simpan isinya untuk log
+            List<CartItem> orderedItems = cart.getItems();
+            Money orderTotal = cart.getTotalAmount();
             
             // ✅ CLEAR CART SETELAH ORDER BERHASIL
             boolean clearSuccess = clearCart();
             
             if (clearSuccess) {
-                System.out.println("🎉 ORDER CREATED SUCCESSFULLY!");
-                System.out.println("📦 Order Details:");
-                for (CartItem item : cart.getItems()) {
-                    double itemTotal = item.getProduct().getPrice() * item.getQuantity();
-                    System.out.println("   - " + item.getProduct().getName() + " x" + item.getQuantity() + " = " + CurrencyUtils.format(itemTotal));
+                Log.info("🎉 ORDER CREATED SUCCESSFULLY!");
+                Log.info("📦 Order Details:");
+                for (CartItem item : orderedItems) {
+                    Money itemTotal = item.getProduct().getPrice().times(item.getQuantity());
+                    Log.info("   - " + item.getProduct().getName() + " x" + item.getQuantity() + " = " + CurrencyUtils.format(itemTotal));
                 }
-                System.out.println("   💰 Total: " + CurrencyUtils.format(cart.getTotalAmount()));
-                System.out.println("   💳 Payment: " + paymentMethod);
-                System.out.println("   🏠 Shipping: " + shippingAddress);
+                Log.info("   💰 Total: " + CurrencyUtils.format(orderTotal));
+                Log.info("   💳 Payment: " + paymentMethod);
+                Log.info("   🏠 Shipping: " + shippingAddress);
                 
                 return true;
             } else {
-                System.err.println("❌ Failed to clear cart after order");
+                Log.error("❌ Failed to clear cart after order");
                 return false;
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Error creating order: " + e.getMessage());
+            Log.error("❌ Error creating order: " + e.getMessage());
             // logged
             return false;
         }
     }
 
     // ✅ TAMBAHKAN METHOD INI DI DATABASEMANAGER
-public boolean createOrderFromSelectedItems(List<CartItem> selectedItems, String paymentMethod, String shippingAddress, String notes, double totalAmount) {
-    lastError = null; // Reset error message
-    System.out.println("=== 🛒 CHECKOUT PROCESS START ===");
-    System.out.println("📋 Parameters:");
-    System.out.println("   Selected Items Count: " + (selectedItems != null ? selectedItems.size() : "NULL"));
-    System.out.println("   Payment Method: " + paymentMethod);
-    System.out.println("   Shipping Address: " + shippingAddress);
-System.out.println("   Total Amount: " + CurrencyUtils.format(totalAmount));
-    System.out.println("   Current User: " + (currentUser != null ? currentUser.getUserId() : "NULL"));
+public boolean createOrderFromSelectedItems(List<CartItem> selectedItems, String paymentMethod, String shippingAddress, String notes, Money totalAmount) {
+    UserSession session = this.session; // Ambil sekali, tetap konsisten walau ada logout di thread lain
+    User currentUser = session != null ? session.getUser() : null;
+    setLastError(session, null); // Reset error message
+    Log.info("=== 🛒 CHECKOUT PROCESS START ===");
+    Log.info("📋 Checkout: user=" + (currentUser != null ? currentUser.getUserId() : "NULL") +
+            ", items=" + (selectedItems != null ? selectedItems.size() : "NULL") +
+            ", payment=" + paymentMethod + ", total=" + CurrencyUtils.format(totalAmount));
     
     if (currentUser == null) {
-        System.err.println("❌ No user logged in");
-        lastError = "No user logged in. Please login again.";
+        Log.error("❌ No user logged in");
+        setLastError(session, "No user logged in. Please login again.");
         return false;
     }
     
     if (selectedItems == null || selectedItems.isEmpty()) {
-        System.err.println("❌ No items selected for checkout");
-        lastError = "No items selected for checkout.";
+        Log.error("❌ No items selected for checkout");
+        setLastError(session, "No items selected for checkout.");
+        return false;
+    }
+    
+    // Validasi semua item SEBELUM transaksi dibuka, supaya transaksi hanya berisi write
+    for (CartItem cartItem : selectedItems) {
+        String error = validateCheckoutItem(cartItem);
+        if (error != null) {
+            Log.error("❌ " + error);
+            setLastError(session, error);
+            return false;
+        }
+    }
+    
+    // Quantity yang di-checkout harus sama dengan yang tersimpan (dan direservasi) di cart_items
+    ShoppingCart cart = session.getCart();
+    if (!flushCartEdits(cart)) {
+        setLastError(session, "Cart changes could not be saved yet. Please check your database connection and try again.");
         return false;
     }
     
     Connection conn = null;
     try {
-        System.out.println("🔌 Getting database connection...");
         conn = DatabaseConnection.getConnection();
         if (conn == null) {
-            System.err.println("❌ Failed to get database connection");
-            lastError = "Failed to connect to database. Please check your database connection.";
+            Log.error("❌ Failed to get database connection");
+            setLastError(session, "Failed to connect to database. Please check your database connection.");
             return false;
         }
-        System.out.println("✅ Database connection obtained");
         
-        System.out.println("🔄 Starting transaction...");
         try {
             conn.setAutoCommit(false); // Start transaction
-            System.out.println("✅ Transaction started (auto-commit = false)");
         } catch (SQLException e) {
-            System.err.println("❌ Failed to set auto-commit to false: " + e.getMessage());
-            lastError = "Database connection error: " + e.getMessage();
+            Log.error("❌ Failed to set auto-commit to false: " + e.getMessage());
+            setLastError(session, "Database connection error: " + e.getMessage());
             return false;
         }
         
+        // Transaksi berisi tepat tiga round trip berapa pun jumlah item:
+        // INSERT order, batch INSERT order_items (di-rewrite driver jadi multi-row
+        // INSERT karena rewriteBatchedStatements=true), dan satu DELETE ... IN.
+        long start = System.currentTimeMillis();
+        
         // 1. GENERATE ORDER ID
         String orderId = generateOrderId();
-        System.out.println("🆕 Creating order: " + orderId);
         
         // 2. INSERT KE TABEL ORDERS
         String orderSql = "INSERT INTO orders (order_id, user_id, order_date, total_amount, status, payment_method, shipping_address, notes) " +
@@ -829,7 +887,7 @@ System.out.println("   Total Amount: " + CurrencyUtils.format(totalAmount));
         try (PreparedStatement orderStmt = conn.prepareStatement(orderSql)) {
             orderStmt.setString(1, orderId);
             orderStmt.setString(2, currentUser.getUserId());
-            orderStmt.setDouble(3, totalAmount);
+            orderStmt.setBigDecimal(3, totalAmount.toBigDecimal());
             orderStmt.setString(4, paymentMethod);
             orderStmt.setString(5, shippingAddress);
             orderStmt.setString(6, notes != null ? notes : "");
@@ -838,90 +896,66 @@ System.out.println("   Total Amount: " + CurrencyUtils.format(totalAmount));
             if (orderResult == 0) {
                 throw new SQLException("Failed to create order");
             }
-            System.out.println("✅ Order created: " + orderId);
         }
         
-        // 3. INSERT ORDER ITEMS
+        // 3. INSERT ORDER ITEMS (satu batch)
+        // ✅ CATATAN: Stock sudah dikurangi saat add to cart, jadi tidak perlu dikurangi lagi
         String itemSql = "INSERT INTO order_items (order_id, product_id, quantity, unit_price) " +
                         "VALUES (?, ?, ?, ?)";
         
-        for (CartItem cartItem : selectedItems) {
-            double unitPrice = cartItem.getProduct().getPrice();
-            String productId = cartItem.getProduct().getProductId();
-            int quantity = cartItem.getQuantity();
-            
-            // Validasi data sebelum insert
-            if (productId == null || productId.trim().isEmpty()) {
-                throw new SQLException("Invalid product ID for item: " + cartItem.getProduct().getName());
-            }
-            if (quantity <= 0) {
-                throw new SQLException("Invalid quantity for item: " + cartItem.getProduct().getName());
-            }
-            if (unitPrice <= 0) {
-                throw new SQLException("Invalid unit price for item: " + cartItem.getProduct().getName());
-            }
-            
-            System.out.println("📦 Inserting order item:");
-            System.out.println("   Order ID: " + orderId);
-            System.out.println("   Product ID: " + productId);
-            System.out.println("   Product Name: " + cartItem.getProduct().getName());
-            System.out.println("   Quantity: " + quantity);
-            System.out.println("   Unit Price: " + unitPrice);
-            
-            // ✅ CATATAN: Tidak perlu verifikasi product karena sudah valid dari cart
-            // Verifikasi product akan membuat connection baru yang bisa mengganggu transaction
-            
-            try (PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+        try (PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+            for (CartItem cartItem : selectedItems) {
                 itemStmt.setString(1, orderId);
-                itemStmt.setString(2, productId);
-                itemStmt.setInt(3, quantity);
-                itemStmt.setDouble(4, unitPrice);
-                
-                int itemResult = itemStmt.executeUpdate();
-                if (itemResult == 0) {
-                    System.err.println("❌ Failed to insert order item - executeUpdate returned 0");
-                    throw new SQLException("Failed to add order item: " + cartItem.getProduct().getName());
+                itemStmt.setString(2, cartItem.getProduct().getProductId());
+                itemStmt.setInt(3, cartItem.getQuantity());
+                itemStmt.setBigDecimal(4, cartItem.getProduct().getPrice().toBigDecimal());
+                itemStmt.addBatch();
+            }
+            int[] results = itemStmt.executeBatch();
+            for (int i = 0; i < results.length; i++) {
+                // SUCCESS_NO_INFO (-2) adalah hasil normal untuk batch yang di-rewrite
+                if (results[i] == 0 || results[i] == Statement.EXECUTE_FAILED) {
+                    throw new SQLException("Failed to add order item: " + selectedItems.get(i).getProduct().getName());
                 }
-                System.out.println("✅ Order item inserted successfully: " + cartItem.getProduct().getName() + " x" + quantity);
-            } catch (SQLException e) {
-                System.err.println("❌ SQL Error inserting order item: " + e.getMessage());
-                System.err.println("   SQL State: " + e.getSQLState());
-                System.err.println("   Error Code: " + e.getErrorCode());
-                System.err.println("   Product ID: " + productId);
-                System.err.println("   Order ID: " + orderId);
-                e.printStackTrace();
-                throw e; // Re-throw untuk rollback transaction
             }
-            
-            // ✅ CATATAN: Stock sudah dikurangi saat add to cart, jadi tidak perlu dikurangi lagi
         }
         
         // 4. HAPUS ITEMS DARI CART (dalam transaction yang sama, tanpa restore stock)
-        String deleteCartItemSql = "DELETE FROM cart_items WHERE cart_item_id = ?";
-        for (CartItem cartItem : selectedItems) {
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteCartItemSql)) {
-                deleteStmt.setInt(1, cartItem.getCartItemId());
-                int deleteResult = deleteStmt.executeUpdate();
-                if (deleteResult == 0) {
-                    System.err.println("⚠️ Warning: Failed to remove cart item: " + cartItem.getCartItemId());
-                    // Tidak throw exception karena order sudah dibuat
-                } else {
-                    System.out.println("✅ Cart item removed: " + cartItem.getCartItemId());
-                }
+        StringBuilder deleteCartItemSql = new StringBuilder("DELETE FROM cart_items WHERE cart_item_id IN (");
+        for (int i = 0; i < selectedItems.size(); i++) {
+            deleteCartItemSql.append(i == 0 ? "?" : ", ?");
+        }
+        deleteCartItemSql.append(")");
+        
+        int removed;
+        try (PreparedStatement deleteStmt = conn.prepareStatement(deleteCartItemSql.toString())) {
+            for (int i = 0; i < selectedItems.size(); i++) {
+                deleteStmt.setInt(i + 1, selectedItems.get(i).getCartItemId());
             }
+            removed = deleteStmt.executeUpdate();
         }
         
         try {
             conn.commit(); // Commit transaction
-            System.out.println("🎉 ORDER COMPLETED: " + orderId + " with " + selectedItems.size() + " items");
-            System.out.println("✅ Transaction committed successfully");
         } catch (SQLException e) {
-            System.err.println("❌ Failed to commit transaction: " + e.getMessage());
+            Log.error("❌ Failed to commit transaction: " + e.getMessage());
             throw e; // Re-throw untuk masuk ke catch block
         }
         
+        Log.info("🎉 ORDER COMPLETED: " + orderId + " with " + selectedItems.size() + " items in " +
+                (System.currentTimeMillis() - start) + " ms");
+        if (removed < selectedItems.size()) {
+            // Tidak dianggap gagal karena order sudah dibuat
+            Log.warn("⚠️ Warning: only " + removed + " of " + selectedItems.size() + " cart items were removed");
+        }
+        if (cart != null) {
+            for (CartItem cartItem : selectedItems) {
+                cart.removeItem(cartItem.getCartItemId());
+            }
+        }
+        
         // ✅ Reset auto-commit sebelum return (dilakukan di finally block)
-        lastError = null; // Clear error on success
+        setLastError(session, null); // Clear error on success
         return true;
         
     } catch (SQLException e) {
@@ -933,38 +967,35 @@ System.out.println("   Total Amount: " + CurrencyUtils.format(totalAmount));
             errorMsg += " (Error Code: " + e.getErrorCode() + ")";
         }
         
-        System.err.println("❌ SQL Error creating order: " + errorMsg);
-        e.printStackTrace();
+        Log.error("❌ SQL Error creating order: " + errorMsg, e);
         
         try {
             if (conn != null) {
                 conn.rollback(); // Rollback jika error
-                System.out.println("🔄 Transaction rolled back");
+                Log.info("🔄 Transaction rolled back");
             }
         } catch (SQLException ex) {
-            System.err.println("❌ Error rolling back: " + ex.getMessage());
-            ex.printStackTrace();
+            Log.error("❌ Error rolling back: " + ex.getMessage(), ex);
         }
         
         // Simpan error message untuk ditampilkan ke user
-        lastError = errorMsg;
+        setLastError(session, errorMsg);
         return false;
     } catch (Exception e) {
         String errorMsg = "Error: " + e.getMessage();
-        System.err.println("❌ General error creating order: " + errorMsg);
-        e.printStackTrace();
+        Log.error("❌ General error creating order: " + errorMsg, e);
         
         try {
             if (conn != null) {
                 conn.rollback(); // Rollback jika error
-                System.out.println("🔄 Transaction rolled back");
+                Log.info("🔄 Transaction rolled back");
             }
         } catch (SQLException ex) {
-            System.err.println("❌ Error rolling back: " + ex.getMessage());
+            Log.error("❌ Error rolling back: " + ex.getMessage());
         }
         
         // Simpan error message untuk ditampilkan ke user
-        lastError = errorMsg;
+        setLastError(session, errorMsg);
         return false;
     } finally {
         // Reset auto-commit hanya jika transaction berhasil atau perlu cleanup
@@ -974,26 +1005,45 @@ System.out.println("   Total Amount: " + CurrencyUtils.format(totalAmount));
                 if (!conn.isClosed()) {
                     try {
                         conn.setAutoCommit(true);
-                        System.out.println("✅ Auto-commit reset to true");
                     } catch (SQLException e) {
                         // Jika gagal reset, mungkin connection sudah ditutup
-                        System.out.println("⚠️ Could not reset auto-commit (connection may be closed): " + e.getMessage());
+                        Log.warn("⚠️ Could not reset auto-commit (connection may be closed): " + e.getMessage());
                     }
-                } else {
-                    System.out.println("⚠️ Connection already closed");
                 }
             } catch (SQLException e) {
-                System.err.println("❌ Error checking connection status: " + e.getMessage());
+                Log.error("❌ Error checking connection status: " + e.getMessage());
+            }
+            try {
+                conn.close(); // Kembalikan koneksi ke pool
+            } catch (SQLException e) {
+                Log.error("❌ Error returning connection to pool: " + e.getMessage());
             }
-            // Jangan close connection karena DatabaseConnection menggunakan connection pooling
         }
-        System.out.println("=== 🛒 CHECKOUT PROCESS END ===");
+        Log.info("=== 🛒 CHECKOUT PROCESS END ===");
     }
 }
 
 // ✅ HELPER METHODS
+/**
+ * Validasi satu item checkout. Return pesan error, atau null jika valid.
+ */
+private String validateCheckoutItem(CartItem cartItem) {
+    Product product = cartItem.getProduct();
+    if (product == null || product.getProductId() == null || product.getProductId().trim().isEmpty()) {
+        return "Invalid product ID for item: " + (product != null ? product.getName() : "NULL");
+    }
+    if (cartItem.getQuantity() <= 0) {
+        return "Invalid quantity for item: " + product.getName();
+    }
+    if (!product.getPrice().isPositive()) {
+        return "Invalid unit price for item: " + product.getName();
+    }
+    return null;
+}
+
 private String generateOrderId() {
-    return "ORD_" + System.currentTimeMillis();
+    // Time-ordered + node ID: unik walau dua checkout terjadi di milidetik yang sama
+    return IdGenerators.nextOrderId();
 }
 
 private String generateOrderItemId() {
@@ -1020,7 +1070,7 @@ private String generateOrderItemId() {
     // ==================== CATEGORY METHODS ====================
     
     public List<String> getAllCategories() {
-        return productDAO.getAllProducts().stream()
+        return getAllProducts().stream()
                 .map(Product::getCategory)
                 .distinct()
                 .collect(Collectors.toList());
@@ -1033,12 +1083,12 @@ private String generateOrderItemId() {
     }
     
     public boolean updateUser(User user) {
-        System.out.println("🔧 Updating user: " + user.getUsername());
+        Log.info("🔧 Updating user: " + user.getUsername());
         return true;
     }
     
     public boolean deleteUser(String userId) {
-        System.out.println("🗑️ Deleting user: " + userId);
+        Log.info("🗑️ Deleting user: " + userId);
         return true;
     }
     
@@ -1058,21 +1108,23 @@ private String generateOrderItemId() {
                 .count();
     }
     
-    public double getTotalInventoryValue() {
-        return getAllProducts().stream()
-                .mapToDouble(product -> product.getPrice() * product.getStock())
-                .sum();
+    public Money getTotalInventoryValue() {
+        long total = 0;
+        for (Product product : getAllProducts()) {
+            total = Math.addExact(total, Math.multiplyExact(product.getPrice().getMinorUnits(), product.getStock()));
+        }
+        return Money.ofMinor(total);
     }
     
     // ==================== USER STATISTICS METHODS ====================
     
     public int getUserTotalOrders() {
+        User currentUser = getCurrentUser();
         if (currentUser == null) {
             return 0;
         }
         
-        try {
-            Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) {
                 return 0;
             }
@@ -1087,20 +1139,19 @@ private String generateOrderItemId() {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting user total orders: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting user total orders: " + e.getMessage(), e);
         }
         
         return 0;
     }
     
     public int getUserTotalItemsPurchased() {
+        User currentUser = getCurrentUser();
         if (currentUser == null) {
             return 0;
         }
         
-        try {
-            Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnection()) {
             if (conn == null) {
                 return 0;
             }
@@ -1119,8 +1170,7 @@ private String generateOrderItemId() {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting user total items purchased: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting user total items purchased: " + e.getMessage(), e);
         }
         
         return 0;
@@ -1129,29 +1179,41 @@ private String generateOrderItemId() {
     // ==================== GETTERS ====================
     
     public User getCurrentUser() { 
-        return currentUser; 
+        UserSession s = session;
+        return s != null ? s.getUser() : null; 
+    }
+    
+    public UserSession getCurrentSession() {
+        return session;
     }
     
     public boolean isLoggedIn() { 
-        return currentUser != null; 
+        return getCurrentUser() != null; 
     }
     
     public boolean isAdmin() {
-        return currentUser instanceof Admin;
+        return getCurrentUser() instanceof Admin;
     }
     
     public boolean isCustomer() {
-        return currentUser instanceof Customer;
+        return getCurrentUser() instanceof Customer;
     }
     
     // ==================== ERROR HANDLING ====================
     
     public String getLastError() {
-        return lastError;
+        UserSession s = session;
+        return s != null ? s.getLastError() : null;
     }
     
     public void clearLastError() {
-        lastError = null;
+        setLastError(session, null);
+    }
+    
+    private static void setLastError(UserSession session, String message) {
+        if (session != null) {
+            session.setLastError(message);
+        }
     }
     
     // ==================== CACHE MANAGEMENT ====================
@@ -1159,10 +1221,11 @@ private String generateOrderItemId() {
     public void refreshUsersCache() {
         users.clear();
         loadUsersFromDatabase();
-        System.out.println("🔄 Users cache refreshed");
+        Log.info("🔄 Users cache refreshed");
     }
     
     public void refreshProductsCache() {
-        System.out.println("🔄 Products data refreshed from database");
+        productCache.invalidateAll();
+        Log.info("🔄 Products data refreshed from database");
     }
 }
\ No newline at end of file
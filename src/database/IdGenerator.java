@@ -0,0 +1,17 @@
+package database;
+
+/**
+ * Sumber ID unik untuk satu jenis entitas (order, cart, produk, user).
+ *
+ * Implementasi harus thread-safe dan tidak boleh mengembalikan ID yang sama dua
+ * kali, termasuk antar instance aplikasi yang memakai database yang sama.
+ * Implementasi default didaftarkan di IdGenerators dan bisa diganti lewat
+ * IdGenerators.register().
+ */
+public interface IdGenerator {
+
+    /**
+     * ID berikutnya, sudah termasuk prefix-nya.
+     */
+    String nextId();
+}
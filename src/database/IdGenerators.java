@@ -0,0 +1,83 @@
+package database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry generator ID per jenis entitas.
+ *
+ * Default:
+ * - order  : time-ordered, "ORD_" + 13 karakter base32 (lihat TimeOrderedIdGenerator)
+ * - cart   : time-ordered tanpa prefix, dipakai sebagai suffix CART_<user>_<id>
+ * - produk : sequence per prefix kategori (R001, N002, ...) dari tabel id_sequences
+ * - user   : sequence per prefix role (ADM001, CUST004, ...)
+ *
+ * Generator bisa diganti lewat register(), misalnya untuk node lain atau
+ * backend sequence yang berbeda. Ukuran blok sequence diatur dengan
+ * -Darlene.id.blockSize (default 10).
+ */
+public final class IdGenerators {
+    public static final String ORDER = "order";
+    public static final String CART = "cart";
+
+    private static final int BLOCK_SIZE = Integer.getInteger("arlene.id.blockSize", 10);
+    private static final Map<String, IdGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    private IdGenerators() {
+    }
+
+    /**
+     * Ganti generator untuk satu key (ORDER, CART, productKey(...), userKey(...)).
+     */
+    public static void register(String key, IdGenerator generator) {
+        GENERATORS.put(key, generator);
+    }
+
+    public static IdGenerator get(String key) {
+        return GENERATORS.computeIfAbsent(key, IdGenerators::createDefault);
+    }
+
+    public static String next(String key) {
+        return get(key).nextId();
+    }
+
+    public static String nextOrderId() {
+        return next(ORDER);
+    }
+
+    public static String nextCartSuffix() {
+        return next(CART);
+    }
+
+    public static String nextProductId(String prefix) {
+        return next(productKey(prefix));
+    }
+
+    public static String nextUserId(String prefix) {
+        return next(userKey(prefix));
+    }
+
+    public static String productKey(String prefix) {
+        return "products:" + prefix;
+    }
+
+    public static String userKey(String prefix) {
+        return "users:" + prefix;
+    }
+
+    private static IdGenerator createDefault(String key) {
+        if (ORDER.equals(key)) {
+            return new TimeOrderedIdGenerator("ORD_");
+        }
+        if (CART.equals(key)) {
+            return new TimeOrderedIdGenerator("");
+        }
+        if (key.startsWith("products:")) {
+            return new BlockSequenceIdGenerator(key.substring("products:".length()), "products", "product_id", BLOCK_SIZE);
+        }
+        if (key.startsWith("users:")) {
+            return new BlockSequenceIdGenerator(key.substring("users:".length()), "users", "user_id", BLOCK_SIZE);
+        }
+        throw new IllegalArgumentException("No ID generator registered for: " + key);
+    }
+}
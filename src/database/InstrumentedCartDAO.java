@@ -0,0 +1,48 @@
+package database;
+
+import java.util.Map;
+
+import model.ShoppingCart;
+import utils.Metrics;
+
+/**
+ * CartDAO yang mencatat jumlah pemanggilan, error, dan latency setiap method publik ke Metrics.
+ * Dipakai oleh DatabaseManager menggantikan CartDAO biasa.
+ */
+class InstrumentedCartDAO extends CartDAO {
+
+    @Override
+    public ShoppingCart getOrCreateCart(String userId) {
+        return Metrics.time("CartDAO.getOrCreateCart", () -> super.getOrCreateCart(userId));
+    }
+
+    @Override
+    public boolean addToCart(String cartId, String productId, int quantity) {
+        return Metrics.time("CartDAO.addToCart", () -> super.addToCart(cartId, productId, quantity));
+    }
+
+    @Override
+    public boolean addAllToCart(String cartId, Map<String, Integer> quantities) {
+        return Metrics.time("CartDAO.addAllToCart", () -> super.addAllToCart(cartId, quantities));
+    }
+
+    @Override
+    public boolean updateCartItem(int cartItemId, int quantity) {
+        return Metrics.time("CartDAO.updateCartItem", () -> super.updateCartItem(cartItemId, quantity));
+    }
+
+    @Override
+    public boolean removeFromCart(int cartItemId) {
+        return Metrics.time("CartDAO.removeFromCart(int)", () -> super.removeFromCart(cartItemId));
+    }
+
+    @Override
+    public boolean removeFromCart(String cartId, String productId) {
+        return Metrics.time("CartDAO.removeFromCart(String,String)", () -> super.removeFromCart(cartId, productId));
+    }
+
+    @Override
+    public boolean clearCart(String cartId) {
+        return Metrics.time("CartDAO.clearCart", () -> super.clearCart(cartId));
+    }
+}
@@ -0,0 +1,226 @@
+package database;
+
+import java.util.Date;
+import java.util.List;
+
+import model.CartItem;
+import model.Money;
+import model.Order;
+import model.Product;
+import model.ShoppingCart;
+import model.User;
+import utils.Metrics;
+
+/**
+ * DatabaseManager yang mencatat jumlah pemanggilan, error, dan latency setiap
+ * method publik ke Metrics. Getter sesi (getCurrentUser, isLoggedIn, dll.)
+ * tidak diukur karena hanya membaca field dan dipanggil sangat sering oleh GUI.
+ * Dipakai oleh DatabaseManager.getInstance().
+ */
+class InstrumentedDatabaseManager extends DatabaseManager {
+
+    @Override
+    public User login(String username, String password) {
+        return Metrics.time("DatabaseManager.login", () -> super.login(username, password));
+    }
+
+    @Override
+    public boolean registerCustomer(String fullName, String username, String password, String email, String phone, String address) {
+        return Metrics.time("DatabaseManager.registerCustomer", () -> super.registerCustomer(fullName, username, password, email, phone, address));
+    }
+
+    @Override
+    public boolean isUsernameAvailable(String username) {
+        return Metrics.time("DatabaseManager.isUsernameAvailable", () -> super.isUsernameAvailable(username));
+    }
+
+    @Override
+    public boolean isEmailAvailable(String email) {
+        return Metrics.time("DatabaseManager.isEmailAvailable", () -> super.isEmailAvailable(email));
+    }
+
+    @Override
+    public void logout() {
+        Metrics.run("DatabaseManager.logout", super::logout);
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return Metrics.time("DatabaseManager.getAllProducts", super::getAllProducts);
+    }
+
+    @Override
+    public Product getProductById(String productId) {
+        return Metrics.time("DatabaseManager.getProductById", () -> super.getProductById(productId));
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category) {
+        return Metrics.time("DatabaseManager.getProductsByCategory", () -> super.getProductsByCategory(category));
+    }
+
+    @Override
+    public List<Product> getProductsByMaterial(String material) {
+        return Metrics.time("DatabaseManager.getProductsByMaterial", () -> super.getProductsByMaterial(material));
+    }
+
+    @Override
+    public List<Product> getProductsPage(ProductQuery query, Product after) {
+        return Metrics.time("DatabaseManager.getProductsPage", () -> super.getProductsPage(query, after));
+    }
+
+    @Override
+    public List<Product> searchProducts(String keyword) {
+        return Metrics.time("DatabaseManager.searchProducts", () -> super.searchProducts(keyword));
+    }
+
+    @Override
+    public boolean addProduct(Product product) {
+        return Metrics.time("DatabaseManager.addProduct", () -> super.addProduct(product));
+    }
+
+    @Override
+    public boolean updateProduct(Product product) {
+        return Metrics.time("DatabaseManager.updateProduct", () -> super.updateProduct(product));
+    }
+
+    @Override
+    public boolean deleteProduct(String productId) {
+        return Metrics.time("DatabaseManager.deleteProduct", () -> super.deleteProduct(productId));
+    }
+
+    @Override
+    public boolean productExists(String productId) {
+        return Metrics.time("DatabaseManager.productExists", () -> super.productExists(productId));
+    }
+
+    @Override
+    public String generateProductId(String category) {
+        return Metrics.time("DatabaseManager.generateProductId", () -> super.generateProductId(category));
+    }
+
+    @Override
+    public boolean updateProductStock(String productId, int newStock) {
+        return Metrics.time("DatabaseManager.updateProductStock", () -> super.updateProductStock(productId, newStock));
+    }
+
+    @Override
+    public ShoppingCart getCurrentUserCart() {
+        return Metrics.time("DatabaseManager.getCurrentUserCart", super::getCurrentUserCart);
+    }
+
+    @Override
+    public ShoppingCart reloadCurrentUserCart() {
+        return Metrics.time("DatabaseManager.reloadCurrentUserCart", super::reloadCurrentUserCart);
+    }
+
+    @Override
+    public boolean addToCart(Product product, int quantity) {
+        return Metrics.time("DatabaseManager.addToCart", () -> super.addToCart(product, quantity));
+    }
+
+    @Override
+    public boolean updateCartItem(int cartItemId, int quantity) {
+        return Metrics.time("DatabaseManager.updateCartItem", () -> super.updateCartItem(cartItemId, quantity));
+    }
+
+    @Override
+    public boolean removeFromCart(int cartItemId) {
+        return Metrics.time("DatabaseManager.removeFromCart", () -> super.removeFromCart(cartItemId));
+    }
+
+    @Override
+    public boolean clearCart() {
+        return Metrics.time("DatabaseManager.clearCart", super::clearCart);
+    }
+
+    @Override
+    public boolean createTransaction(ShoppingCart cart, String paymentMethod) {
+        return Metrics.time("DatabaseManager.createTransaction", () -> super.createTransaction(cart, paymentMethod));
+    }
+
+    @Override
+    public List<Order> getUserOrders() {
+        return Metrics.time("DatabaseManager.getUserOrders()", super::getUserOrders);
+    }
+
+    @Override
+    public List<Order> getUserOrders(Date beforeDate, String beforeOrderId, int limit) {
+        return Metrics.time("DatabaseManager.getUserOrders(Date,String,int)", () -> super.getUserOrders(beforeDate, beforeOrderId, limit));
+    }
+
+    @Override
+    public boolean updateOrderStatus(String orderId, String newStatus) {
+        return Metrics.time("DatabaseManager.updateOrderStatus", () -> super.updateOrderStatus(orderId, newStatus));
+    }
+
+    @Override
+    public boolean createOrderFromCart(ShoppingCart cart, String paymentMethod, String shippingAddress, String notes) {
+        return Metrics.time("DatabaseManager.createOrderFromCart", () -> super.createOrderFromCart(cart, paymentMethod, shippingAddress, notes));
+    }
+
+    @Override
+    public boolean createOrderFromSelectedItems(List<CartItem> selectedItems, String paymentMethod, String shippingAddress, String notes, Money totalAmount) {
+        return Metrics.time("DatabaseManager.createOrderFromSelectedItems", () -> super.createOrderFromSelectedItems(selectedItems, paymentMethod, shippingAddress, notes, totalAmount));
+    }
+
+    @Override
+    public List<String> getAllCategories() {
+        return Metrics.time("DatabaseManager.getAllCategories", super::getAllCategories);
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return Metrics.time("DatabaseManager.getAllUsers", super::getAllUsers);
+    }
+
+    @Override
+    public boolean updateUser(User user) {
+        return Metrics.time("DatabaseManager.updateUser", () -> super.updateUser(user));
+    }
+
+    @Override
+    public boolean deleteUser(String userId) {
+        return Metrics.time("DatabaseManager.deleteUser", () -> super.deleteUser(userId));
+    }
+
+    @Override
+    public int getTotalProductsCount() {
+        return Metrics.time("DatabaseManager.getTotalProductsCount", super::getTotalProductsCount);
+    }
+
+    @Override
+    public int getTotalUsersCount() {
+        return Metrics.time("DatabaseManager.getTotalUsersCount", super::getTotalUsersCount);
+    }
+
+    @Override
+    public int getLowStockProductsCount(int threshold) {
+        return Metrics.time("DatabaseManager.getLowStockProductsCount", () -> super.getLowStockProductsCount(threshold));
+    }
+
+    @Override
+    public Money getTotalInventoryValue() {
+        return Metrics.time("DatabaseManager.getTotalInventoryValue", super::getTotalInventoryValue);
+    }
+
+    @Override
+    public int getUserTotalOrders() {
+        return Metrics.time("DatabaseManager.getUserTotalOrders", super::getUserTotalOrders);
+    }
+
+    @Override
+    public int getUserTotalItemsPurchased() {
+        return Metrics.time("DatabaseManager.getUserTotalItemsPurchased", super::getUserTotalItemsPurchased);
+    }
+
+    @Override
+    public void refreshUsersCache() {
+        Metrics.run("DatabaseManager.refreshUsersCache", super::refreshUsersCache);
+    }
+
+    @Override
+    public void refreshProductsCache() {
+        Metrics.run("DatabaseManager.refreshProductsCache", super::refreshProductsCache);
+    }
+}
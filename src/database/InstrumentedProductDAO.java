@@ -0,0 +1,79 @@
+package database;
+
+import java.util.Collection;
+import java.util.List;
+
+import model.Product;
+import utils.Metrics;
+
+/**
+ * ProductDAO yang mencatat jumlah pemanggilan, error, dan latency setiap method publik ke Metrics.
+ * Dipakai oleh DatabaseManager menggantikan ProductDAO biasa.
+ */
+class InstrumentedProductDAO extends ProductDAO {
+
+    @Override
+    public List<Product> getAllProducts() {
+        return Metrics.time("ProductDAO.getAllProducts", super::getAllProducts);
+    }
+
+    @Override
+    public Product getProductById(String productId) {
+        return Metrics.time("ProductDAO.getProductById", () -> super.getProductById(productId));
+    }
+
+    @Override
+    public List<Product> getProductsByIds(Collection<String> productIds) {
+        return Metrics.time("ProductDAO.getProductsByIds", () -> super.getProductsByIds(productIds));
+    }
+
+    @Override
+    public List<Product> getProductsPage(ProductQuery query, Product after) {
+        return Metrics.time("ProductDAO.getProductsPage", () -> super.getProductsPage(query, after));
+    }
+
+    @Override
+    public List<Product> getProductsByCategory(String category) {
+        return Metrics.time("ProductDAO.getProductsByCategory", () -> super.getProductsByCategory(category));
+    }
+
+    @Override
+    public boolean addProduct(Product product) {
+        return Metrics.time("ProductDAO.addProduct", () -> super.addProduct(product));
+    }
+
+    @Override
+    public boolean updateProduct(Product product) {
+        return Metrics.time("ProductDAO.updateProduct", () -> super.updateProduct(product));
+    }
+
+    @Override
+    public boolean deleteProduct(String productId) {
+        return Metrics.time("ProductDAO.deleteProduct", () -> super.deleteProduct(productId));
+    }
+
+    @Override
+    public boolean productExists(String productId) {
+        return Metrics.time("ProductDAO.productExists", () -> super.productExists(productId));
+    }
+
+    @Override
+    public String generateProductId(String category) {
+        return Metrics.time("ProductDAO.generateProductId", () -> super.generateProductId(category));
+    }
+
+    @Override
+    public boolean updateStock(String productId, int newStock) {
+        return Metrics.time("ProductDAO.updateStock", () -> super.updateStock(productId, newStock));
+    }
+
+    @Override
+    public List<Product> searchProducts(String keyword) {
+        return Metrics.time("ProductDAO.searchProducts", () -> super.searchProducts(keyword));
+    }
+
+    @Override
+    public List<Product> getLowStockProducts(int threshold) {
+        return Metrics.time("ProductDAO.getLowStockProducts", () -> super.getLowStockProducts(threshold));
+    }
+}
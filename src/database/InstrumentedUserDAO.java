@@ -0,0 +1,44 @@
+package database;
+
+import java.util.List;
+
+import model.Customer;
+import model.User;
+import utils.Metrics;
+
+/**
+ * UserDAO yang mencatat jumlah pemanggilan, error, dan latency setiap method publik ke Metrics.
+ * Dipakai oleh DatabaseManager menggantikan UserDAO biasa.
+ */
+class InstrumentedUserDAO extends UserDAO {
+
+    @Override
+    public User login(String username, String password) {
+        return Metrics.time("UserDAO.login", () -> super.login(username, password));
+    }
+
+    @Override
+    public boolean registerCustomer(Customer customer) {
+        return Metrics.time("UserDAO.registerCustomer", () -> super.registerCustomer(customer));
+    }
+
+    @Override
+    public boolean usernameExists(String username) {
+        return Metrics.time("UserDAO.usernameExists", () -> super.usernameExists(username));
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return Metrics.time("UserDAO.emailExists", () -> super.emailExists(email));
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return Metrics.time("UserDAO.getAllUsers", super::getAllUsers);
+    }
+
+    @Override
+    public String generateUserId(String role) {
+        return Metrics.time("UserDAO.generateUserId", () -> super.generateUserId(role));
+    }
+}
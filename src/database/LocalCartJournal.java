@@ -0,0 +1,464 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import model.CartItem;
+import model.CartListener;
+import model.Money;
+import model.Product;
+import model.ShoppingCart;
+import utils.Log;
+
+/**
+ * Journal append-only untuk local cart (cart offline saat database tidak tersedia),
+ * satu file per user: assets/exports/local-carts/&lt;userId&gt;.journal.
+ *
+ * Dipasang sebagai CartListener pada local cart, jadi setiap perubahan ShoppingCart
+ * ditambahkan sebagai satu record di akhir file, tanpa menulis ulang seluruh isi:
+ * <pre>
+ *   crc32(hex)|P  id  qty  productId  name  category  material  price  stock  description  imagePath  weight  gemstone  gemstoneType
+ *   crc32(hex)|Q  id  qty
+ *   crc32(hex)|D  id
+ *   crc32(hex)|C
+ * </pre>
+ * (field dipisah tab). Record P membawa snapshot produk, sehingga load() tidak perlu
+ * database sama sekali.
+ *
+ * Record langsung ditulis ke file (aman jika aplikasi crash); fsync dikumpulkan dan
+ * dijalankan thread "local-cart-journal" setiap -Darlene.localCart.fsyncIntervalMs
+ * (default 200), jadi beberapa perubahan beruntun berbagi satu fsync. Record yang
+ * checksum-nya salah (misal terpotong karena mati listrik) dilewati saat load.
+ *
+ * Compaction: saat load, dan secara periodik jika record mati sudah jauh lebih banyak
+ * daripada item yang masih ada, file ditulis ulang berisi satu record P per item.
+ */
+class LocalCartJournal implements CartListener {
+    private static final int COMPACT_MIN_RECORDS = 64;
+    private static final String NULL = "\\N";
+
+    private final File dir;
+    private final Map<String, Journal> journals = new HashMap<>();
+    // cart_item_id terakhir yang dibagikan per user (negatif, terus turun)
+    private final Map<String, Integer> lowestItemIds = new HashMap<>();
+    private final ScheduledExecutorService syncer;
+
+    LocalCartJournal(File dir, long fsyncIntervalMillis) {
+        this.dir = dir;
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "local-cart-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(10, fsyncIntervalMillis);
+        syncer.scheduleWithFixedDelay(this::syncAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // ==================== LOAD / ATTACH ====================
+
+    /**
+     * Putar ulang journal user ini. Tidak memanggil database.
+     *
+     * @return item local cart, kosong jika belum ada journal
+     */
+    synchronized List<CartItem> load(String userId, String cartId) {
+        close(userId);
+        lowestItemIds.put(userId, 0);
+        File file = journalFile(userId);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, CartItem> items = new LinkedHashMap<>();
+        int records = 0;
+        int corrupt = 0;
+        int lowestId = 0;
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String payload = verify(line);
+                if (payload == null || !apply(items, payload, cartId)) {
+                    corrupt++;
+                } else {
+                    records++;
+                    if (payload.startsWith("P\t")) {
+                        // Termasuk item yang sudah dihapus: id-nya tidak dipakai ulang
+                        lowestId = Math.min(lowestId, Integer.parseInt(payload.substring(2, payload.indexOf('\t', 2))));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.error("❌ Failed to read local cart journal for user: " + userId + " - " + e.getMessage());
+        }
+        lowestItemIds.put(userId, lowestId);
+        if (corrupt > 0) {
+            Log.warn("⚠️ Skipped " + corrupt + " damaged records in local cart journal for user: " + userId);
+        }
+        List<CartItem> result = new ArrayList<>(items.values());
+        // Selalu tulis ulang jika ada sampah: record baru tidak boleh menempel di record yang terpotong
+        if (corrupt > 0 || records > result.size()) {
+            compact(userId, result);
+        } else {
+            Journal journal = open(userId);
+            if (journal != null) {
+                journal.records = records;
+                journal.live = result.size();
+            }
+        }
+        Log.warn("⚠️ Loaded local cart journal for user " + userId + ", items=" + result.size());
+        return result;
+    }
+
+    /**
+     * Mulai mencatat perubahan cart ini. Panggil setelah isi awal di-set (setItems),
+     * supaya load tidak dicatat ulang.
+     */
+    synchronized void attach(ShoppingCart cart) {
+        Journal journal = open(cart.getUserId());
+        if (journal != null) {
+            journal.cart = cart;
+        }
+        cart.removeListener(this);
+        cart.addListener(this);
+    }
+
+    void detach(ShoppingCart cart) {
+        cart.removeListener(this);
+        close(cart.getUserId());
+    }
+
+    /**
+     * cart_item_id untuk item baru di local cart user ini: negatif dan turun satu per item,
+     * mulai di bawah id terkecil yang dibaca load(). Dua item yang ditambah di milidetik
+     * yang sama tetap mendapat id berbeda.
+     */
+    synchronized int nextItemId(String userId) {
+        int next = lowestItemIds.getOrDefault(userId, 0) - 1;
+        lowestItemIds.put(userId, next);
+        return next;
+    }
+
+    /**
+     * Hapus journal setelah isinya dipindahkan ke cart di database.
+     */
+    synchronized void delete(String userId) {
+        close(userId);
+        lowestItemIds.remove(userId);
+        File file = journalFile(userId);
+        if (file.exists() && !file.delete()) {
+            Log.warn("⚠️ Cannot delete local cart journal: " + file);
+        }
+    }
+
+    // ==================== CART LISTENER ====================
+
+    @Override
+    public void itemAdded(ShoppingCart cart, CartItem item) {
+        append(cart.getUserId(), put(item), 1);
+    }
+
+    @Override
+    public void itemUpdated(ShoppingCart cart, CartItem previous, CartItem updated) {
+        if (previous.getProduct() == updated.getProduct()) {
+            append(cart.getUserId(), "Q\t" + updated.getCartItemId() + "\t" + updated.getQuantity(), 0);
+        } else {
+            append(cart.getUserId(), put(updated), 0);
+        }
+    }
+
+    @Override
+    public void itemRemoved(ShoppingCart cart, CartItem item) {
+        append(cart.getUserId(), "D\t" + item.getCartItemId(), -1);
+    }
+
+    @Override
+    public void cartReset(ShoppingCart cart) {
+        List<CartItem> items = cart.getItems(); // Sebelum lock journal, lihat syncAll()
+        compact(cart.getUserId(), items);
+    }
+
+    // ==================== WRITE ====================
+
+    private synchronized void append(String userId, String payload, int liveDelta) {
+        Journal journal = open(userId);
+        if (journal == null) {
+            return;
+        }
+        try {
+            writeFully(journal.channel, record(payload));
+            journal.records++;
+            journal.live += liveDelta;
+            journal.dirty = true;
+        } catch (IOException e) {
+            Log.error("❌ Failed to append local cart journal for user: " + userId + " - " + e.getMessage());
+            close(userId);
+        }
+    }
+
+    /**
+     * fsync semua journal yang berubah sejak sync terakhir, lalu compaction jika perlu.
+     *
+     * Isi cart dibaca di luar lock journal: LocalCartSync dan listener cart mengambil lock
+     * cart lalu lock journal, jadi urutan sebaliknya di sini bisa deadlock.
+     */
+    void syncAll() {
+        Map<String, Journal> candidates = new LinkedHashMap<>();
+        Map<String, Integer> recordsSeen = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, Journal> entry : journals.entrySet()) {
+                Journal journal = entry.getValue();
+                try {
+                    if (journal.dirty) {
+                        journal.channel.force(false);
+                        journal.dirty = false;
+                    }
+                } catch (IOException e) {
+                    Log.error("❌ Failed to sync local cart journal for user: " + entry.getKey() + " - " + e.getMessage());
+                }
+                if (journal.cart != null && journal.records >= COMPACT_MIN_RECORDS
+                        && journal.records > 4 * Math.max(1, journal.live)) {
+                    candidates.put(entry.getKey(), journal);
+                    recordsSeen.put(entry.getKey(), journal.records);
+                }
+            }
+        }
+        for (Map.Entry<String, Journal> entry : candidates.entrySet()) {
+            Journal journal = entry.getValue();
+            ShoppingCart cart = journal.cart;
+            if (cart == null) {
+                continue;
+            }
+            List<CartItem> live = cart.getItems();
+            synchronized (this) {
+                // Ada record baru (atau journal diganti) sejak isi cart dibaca: coba lagi di putaran berikutnya
+                if (journals.get(entry.getKey()) != journal || journal.records != recordsSeen.get(entry.getKey())) {
+                    continue;
+                }
+                compact(entry.getKey(), live);
+            }
+            Log.debug(() -> "🗜️ Compacted local cart journal for " + entry.getKey() + " to " + live.size() + " records");
+        }
+    }
+
+    /**
+     * Tulis ulang journal berisi satu record P per item (tmp + fsync + rename atomik).
+     */
+    private synchronized void compact(String userId, List<CartItem> items) {
+        Journal previous = journals.get(userId);
+        ShoppingCart cart = previous != null ? previous.cart : null;
+        close(userId);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.error("❌ Cannot create local cart directory: " + dir);
+            return;
+        }
+        File file = journalFile(userId);
+        File temp = new File(dir, file.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (CartItem item : items) {
+                writeFully(channel, record(put(item)));
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            Log.error("❌ Failed to compact local cart journal for user: " + userId + " - " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.error("❌ Failed to replace local cart journal for user: " + userId + " - " + e.getMessage());
+            return;
+        }
+        Journal journal = open(userId);
+        if (journal != null) {
+            journal.cart = cart;
+            journal.records = items.size();
+            journal.live = items.size();
+        }
+    }
+
+    private Journal open(String userId) {
+        Journal journal = journals.get(userId);
+        if (journal != null) {
+            return journal;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.error("❌ Cannot create local cart directory: " + dir);
+            return null;
+        }
+        try {
+            FileChannel channel = FileChannel.open(journalFile(userId).toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            journal = new Journal(channel);
+            journals.put(userId, journal);
+            return journal;
+        } catch (IOException e) {
+            Log.error("❌ Failed to open local cart journal for user: " + userId + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void close(String userId) {
+        Journal journal = journals.remove(userId);
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (journal.dirty) {
+                journal.channel.force(false);
+            }
+            journal.channel.close();
+        } catch (IOException e) {
+            Log.error("❌ Failed to close local cart journal for user: " + userId + " - " + e.getMessage());
+        }
+    }
+
+    private File journalFile(String userId) {
+        return new File(dir, userId + ".journal");
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ==================== RECORD FORMAT ====================
+
+    private static byte[] record(String payload) {
+        byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (Long.toHexString(crc.getValue()) + "|" + payload + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return payload jika checksum cocok, null jika record rusak
+     */
+    private static String verify(String line) {
+        int separator = line.indexOf('|');
+        if (separator <= 0) {
+            return null;
+        }
+        String payload = line.substring(separator + 1);
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue()).equals(line.substring(0, separator)) ? payload : null;
+    }
+
+    private static String put(CartItem item) {
+        Product p = item.getProduct();
+        return "P\t" + item.getCartItemId() + "\t" + item.getQuantity()
+                + "\t" + escape(p.getProductId()) + "\t" + escape(p.getName())
+                + "\t" + escape(p.getCategory()) + "\t" + escape(p.getMaterial())
+                + "\t" + p.getPrice().getMinorUnits() + "\t" + p.getStock()
+                + "\t" + escape(p.getDescription()) + "\t" + escape(p.getImagePath())
+                + "\t" + p.getWeight() + "\t" + p.hasGemstone() + "\t" + escape(p.getGemstoneType());
+    }
+
+    /**
+     * @return false jika record tidak dikenali
+     */
+    private static boolean apply(Map<Integer, CartItem> items, String payload, String cartId) {
+        String[] f = payload.split("\t", -1);
+        try {
+            switch (f[0]) {
+                case "P": {
+                    if (f.length != 14) {
+                        return false;
+                    }
+                    Product product = new Product(unescape(f[3]), unescape(f[4]), unescape(f[5]), unescape(f[6]),
+                            Money.ofMinor(Long.parseLong(f[7])), Integer.parseInt(f[8]), unescape(f[9]),
+                            unescape(f[10]), Double.parseDouble(f[11]), Boolean.parseBoolean(f[12]), unescape(f[13]));
+                    int id = Integer.parseInt(f[1]);
+                    items.put(id, new CartItem(id, cartId, product, Integer.parseInt(f[2])));
+                    return true;
+                }
+                case "Q": {
+                    int id = Integer.parseInt(f[1]);
+                    int quantity = Integer.parseInt(f[2]);
+                    CartItem item = items.get(id);
+                    if (item != null) {
+                        items.put(id, new CartItem(id, item.getCartId(), item.getProduct(), quantity));
+                    }
+                    return f.length == 3;
+                }
+                case "D":
+                    items.remove(Integer.parseInt(f[1]));
+                    return f.length == 2;
+                case "C":
+                    items.clear();
+                    return f.length == 1;
+                default:
+                    return false;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (NULL.equals(value)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Journal {
+        final FileChannel channel;
+        volatile ShoppingCart cart; // Cart yang di-attach, sumber isi untuk compaction periodik
+        int records;
+        int live;
+        boolean dirty;
+
+        Journal(FileChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import model.CartItem;
+import model.Product;
+import model.ShoppingCart;
+import utils.Log;
+
+/**
+ * Memindahkan local cart (LOCAL_CART_, dibuat saat database down) ke cart user di database.
+ *
+ * Dipicu oleh DatabaseHealth saat database kembali tersedia, dan saat sesi mendapat
+ * local cart. Sinkronisasi berjalan di thread "local-cart-sync"; jika reservasi ditolak
+ * (misal stok berubah di tengah jalan) dicoba lagi dengan backoff eksponensial sampai
+ * MAX_ATTEMPTS kali, setelah itu menunggu pemulihan database berikutnya.
+ *
+ * Aturan konflik per produk (quantity local cart dijumlahkan per product_id):
+ * - produk sudah dihapus dari katalog: item dibuang
+ * - stok tersisa lebih kecil dari quantity: quantity dikurangi ke stok tersisa,
+ *   item dibuang jika stok habis
+ * - harga dan data produk lain mengikuti database (snapshot di journal hanya untuk offline)
+ * Item yang sudah ada di cart database ditambah quantity-nya (upsert), bukan ditimpa.
+ *
+ * Setelah berhasil, objek ShoppingCart sesi di-rebind ke cart database, sehingga
+ * UI yang mendengarkan cart tersebut langsung menampilkan isi baru tanpa login ulang.
+ */
+class LocalCartSync {
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long MIN_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+
+    private final CartDAO cartDAO;
+    private final ProductDAO productDAO;
+    private final StockReservationDAO reservations;
+    private final LocalCartJournal journal;
+    private final Consumer<Collection<String>> onStockChanged;
+    private final Supplier<ShoppingCart> currentCart;
+    private final ScheduledExecutorService executor;
+    private boolean running; // Hanya satu rangkaian percobaan dalam satu waktu
+    private boolean requestedAgain;
+
+    LocalCartSync(CartDAO cartDAO, ProductDAO productDAO, StockReservationDAO reservations,
+                  LocalCartJournal journal, Consumer<Collection<String>> onStockChanged,
+                  Supplier<ShoppingCart> currentCart) {
+        this.cartDAO = cartDAO;
+        this.productDAO = productDAO;
+        this.reservations = reservations;
+        this.journal = journal;
+        this.onStockChanged = onStockChanged;
+        this.currentCart = currentCart;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "local-cart-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Jadwalkan sinkronisasi cart sesi saat ini (tidak melakukan apa-apa jika bukan local cart).
+     */
+    synchronized void requestSync() {
+        if (running) {
+            requestedAgain = true; // Misal database pulih lagi saat rangkaian sebelumnya selesai
+            return;
+        }
+        running = true;
+        executor.schedule(() -> attempt(0), MIN_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void attempt(int attempt) {
+        boolean done;
+        try {
+            done = syncCurrentCart();
+        } catch (RuntimeException e) {
+            Log.error("❌ Local cart sync failed: " + e.getMessage(), e);
+            done = false;
+        }
+        if (done || !DatabaseHealth.getInstance().isAvailable() || attempt + 1 >= MAX_ATTEMPTS) {
+            // Database down lagi: recovery listener DatabaseHealth akan memanggil requestSync()
+            if (!done) {
+                Log.warn("⚠️ Local cart sync postponed until the database recovers again");
+            }
+            synchronized (this) {
+                if (requestedAgain) {
+                    requestedAgain = false;
+                    executor.schedule(() -> attempt(0), MIN_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                } else {
+                    running = false;
+                }
+            }
+            return;
+        }
+        long delay = Math.min(MIN_RETRY_MILLIS << (attempt + 1), MAX_RETRY_MILLIS);
+        executor.schedule(() -> attempt(attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true jika tidak ada lagi yang perlu disinkronkan
+     */
+    private boolean syncCurrentCart() {
+        ShoppingCart cart = currentCart.get();
+        if (cart == null || cart.getCartId() == null || !cart.getCartId().startsWith("LOCAL_CART_")) {
+            return true;
+        }
+        if (!DatabaseHealth.getInstance().isAvailable()) {
+            return false;
+        }
+        // Semua JDBC berjalan tanpa lock cart (UI dan journal juga memakai lock itu);
+        // yang dikirim ke database adalah snapshot isi cart
+        ShoppingCart dbCart = cartDAO.getOrCreateCart(cart.getUserId());
+        if (dbCart == null || dbCart.getCartId().startsWith("LOCAL_CART_")) {
+            return false;
+        }
+        String dbCartId = dbCart.getCartId();
+        List<CartItem> synced = cart.getItems();
+        if (!mergeInto(dbCartId, synced)) {
+            return false;
+        }
+        // Item sudah ada di database: journal harus hilang sekarang juga, jangan sampai di-merge dua kali.
+        // Di luar lock cart, karena detach/delete memegang lock journal
+        journal.detach(cart);
+        journal.delete(cart.getUserId());
+
+        for (int round = 1; ; round++) {
+            ShoppingCart merged = cartDAO.getOrCreateCart(cart.getUserId());
+            if (merged == null || !dbCartId.equals(merged.getCartId())) {
+                Log.warn("⚠️ Could not reload merged cart, showing cart without synced items until refresh");
+                merged = dbCart;
+            }
+            List<CartItem> late;
+            List<CartItem> current;
+            // Lock singkat: rebind hanya jika isi local cart belum berubah sejak snapshot terakhir
+            synchronized (cart) {
+                current = cart.getItems();
+                late = addedSince(synced, current);
+                if (late.isEmpty() || round >= MAX_ATTEMPTS) {
+                    if (!late.isEmpty()) {
+                        Log.warn("⚠️ Local cart kept changing during sync, " + late.size() + " items not synced");
+                    }
+                    cart.rebind(merged.getCartId(), merged.getItems());
+                    break;
+                }
+            }
+            // Item yang ditambah dari UI selama merge berjalan ikut dipindahkan sebelum rebind
+            if (!mergeInto(dbCartId, late)) {
+                Log.warn("⚠️ Could not sync " + late.size() + " items added during local cart sync");
+            }
+            synced = current;
+        }
+        Log.info("✅ Local cart for user " + cart.getUserId() + " switched to " + dbCartId);
+        return true;
+    }
+
+    /**
+     * Item (quantity selisih per produk) yang bertambah dari before ke after.
+     * Pengurangan diabaikan: item tersebut sudah ada di cart database.
+     */
+    private static List<CartItem> addedSince(List<CartItem> before, List<CartItem> after) {
+        Map<String, Integer> delta = new LinkedHashMap<>();
+        Map<String, CartItem> latest = new HashMap<>();
+        for (CartItem item : after) {
+            delta.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+            latest.put(item.getProduct().getProductId(), item);
+        }
+        for (CartItem item : before) {
+            delta.merge(item.getProduct().getProductId(), -item.getQuantity(), Integer::sum);
+        }
+        List<CartItem> added = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : delta.entrySet()) {
+            CartItem item = latest.get(entry.getKey());
+            if (entry.getValue() > 0 && item != null) {
+                added.add(new CartItem(item.getCartItemId(), item.getCartId(), item.getProduct(), entry.getValue()));
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Reservasi item offline ke cart database dalam satu transaksi, setelah aturan konflik diterapkan.
+     *
+     * @return false jika database gagal dibaca atau reservasi ditolak (boleh dicoba lagi)
+     */
+    boolean mergeInto(String cartId, List<CartItem> offlineItems) {
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        for (CartItem item : offlineItems) {
+            requested.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (requested.isEmpty()) {
+            return true;
+        }
+
+        // Stok terbaru langsung dari database, bukan dari cache katalog. null = query gagal
+        // (coba lagi); list tanpa produk tertentu = produk sudah dihapus dari katalog
+        List<Product> loaded = productDAO.getProductsByIds(requested.keySet());
+        if (loaded == null) {
+            return false;
+        }
+        Map<String, Product> current = new HashMap<>();
+        for (Product product : loaded) {
+            current.put(product.getProductId(), product);
+        }
+
+        Map<String, Integer> accepted = new LinkedHashMap<>();
+        List<String> dropped = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            Product product = current.get(entry.getKey());
+            if (product == null) {
+                dropped.add(entry.getKey() + " (removed)");
+                continue;
+            }
+            int quantity = Math.min(entry.getValue(), product.getStock());
+            if (quantity <= 0) {
+                dropped.add(entry.getKey() + " (out of stock)");
+                continue;
+            }
+            if (quantity < entry.getValue()) {
+                Log.warn("⚠️ Local cart item " + entry.getKey() + " reduced from " + entry.getValue()
+                        + " to " + quantity + " (stock left)");
+            }
+            accepted.put(entry.getKey(), quantity);
+        }
+        if (!dropped.isEmpty()) {
+            Log.warn("⚠️ Local cart items not synced: " + dropped);
+        }
+
+        if (!reservations.reserveAndAddAll(cartId, accepted)) {
+            return false;
+        }
+        onStockChanged.accept(accepted.keySet());
+        Log.info("🔄 Synced " + accepted.size() + " local cart products into " + cartId);
+        return true;
+    }
+}
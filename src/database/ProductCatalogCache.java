@@ -0,0 +1,256 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.Product;
+import utils.Log;
+
+/**
+ * Cache katalog produk di memori, dipakai oleh DatabaseManager.
+ *
+ * Isi cache disimpan sebagai snapshot immutable (list berurutan + index id,
+ * kategori, dan material). Setiap perubahan membuat snapshot baru, sehingga
+ * pembaca dari thread mana pun tidak pernah melihat index setengah jadi.
+ *
+ * - Seluruh katalog dimuat ulang setelah TTL habis.
+ * - Tulisan lewat DatabaseManager (add/update/delete) langsung mem-patch snapshot.
+ * - Perubahan stok hanya menandai produk sebagai "stale"; produk tersebut
+ *   dimuat ulang dalam satu query saat dibaca berikutnya.
+ * - ProductSearchIndex ikut di-update secara incremental setiap kali snapshot berubah.
+ */
+class ProductCatalogCache {
+    private static final long EMPTY_RETRY_MILLIS = 5000;
+
+    private final ProductDAO productDAO;
+    private final long ttlMillis;
+    private final Set<String> staleIds = new HashSet<>();
+    private long staleRetryAt; // Setelah reload stale gagal, tunggu sebelum mencoba lagi
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private volatile Snapshot snapshot;
+
+    ProductCatalogCache(ProductDAO productDAO, long ttlMillis) {
+        this.productDAO = productDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // ==================== READ ====================
+
+    List<Product> getAll() {
+        return current().ordered;
+    }
+
+    /**
+     * Read-through: produk yang belum ada di cache diambil dari database lalu disimpan.
+     */
+    Product getById(String productId) {
+        if (productId == null) return null;
+        Product product = current().byId.get(productId);
+        if (product == null) {
+            product = productDAO.getProductById(productId);
+            if (product != null) {
+                put(product);
+            }
+        }
+        return product;
+    }
+
+    List<Product> getByCategory(String category) {
+        if (category == null) return Collections.emptyList();
+        List<Product> result = current().byCategory.get(category.toLowerCase());
+        return result != null ? result : Collections.<Product>emptyList();
+    }
+
+    List<Product> getByMaterial(String material) {
+        if (material == null) return Collections.emptyList();
+        List<Product> result = current().byMaterial.get(material.toLowerCase());
+        return result != null ? result : Collections.<Product>emptyList();
+    }
+
+    /**
+     * Pencarian full-text lewat inverted index (nama, deskripsi, material, kategori, gemstone).
+     */
+    List<Product> search(String keyword) {
+        current();
+        return searchIndex.search(keyword);
+    }
+
+    // ==================== WRITE / INVALIDATION ====================
+
+    /**
+     * Menambah produk baru (di posisi paling depan, sama seperti ORDER BY created_at DESC)
+     * atau mengganti produk yang sudah ada di posisi yang sama.
+     */
+    synchronized void put(Product product) {
+        Snapshot snap = snapshot;
+        if (snap == null) return; // Belum dimuat, load berikutnya akan mengambil data terbaru
+        List<Product> ordered = new ArrayList<>(snap.ordered.size() + 1);
+        boolean replaced = false;
+        for (Product p : snap.ordered) {
+            if (p.getProductId().equals(product.getProductId())) {
+                ordered.add(product);
+                replaced = true;
+            } else {
+                ordered.add(p);
+            }
+        }
+        if (!replaced) {
+            ordered.add(0, product);
+        }
+        staleIds.remove(product.getProductId());
+        searchIndex.index(product);
+        snapshot = new Snapshot(ordered, snap.loadedAt, snap.expiresAt);
+    }
+
+    synchronized void remove(String productId) {
+        Snapshot snap = snapshot;
+        staleIds.remove(productId);
+        if (snap == null || !snap.byId.containsKey(productId)) return;
+        List<Product> ordered = new ArrayList<>(snap.ordered);
+        ordered.removeIf(p -> p.getProductId().equals(productId));
+        searchIndex.remove(productId);
+        snapshot = new Snapshot(ordered, snap.loadedAt, snap.expiresAt);
+    }
+
+    /**
+     * Menandai produk yang stoknya berubah di database. Produk tetap ada di cache
+     * dan akan dimuat ulang (satu query untuk semua id stale) saat dibaca berikutnya.
+     */
+    synchronized void markStale(Collection<String> productIds) {
+        if (productIds != null) {
+            staleIds.addAll(productIds);
+        }
+    }
+
+    void markStale(String productId) {
+        if (productId != null) {
+            markStale(Collections.singleton(productId));
+        }
+    }
+
+    synchronized void invalidateAll() {
+        snapshot = null;
+        staleIds.clear();
+        staleRetryAt = 0;
+    }
+
+    // ==================== LOADING ====================
+
+    private Snapshot current() {
+        Snapshot snap = snapshot;
+        if (snap == null || System.currentTimeMillis() >= snap.expiresAt || hasStale()) {
+            snap = refresh();
+        }
+        return snap;
+    }
+
+    private synchronized boolean hasStale() {
+        return !staleIds.isEmpty() && System.currentTimeMillis() >= staleRetryAt;
+    }
+
+    private synchronized Snapshot refresh() {
+        Snapshot snap = snapshot;
+        long now = System.currentTimeMillis();
+
+        if (snap == null || now >= snap.expiresAt) {
+            List<Product> products = productDAO.getAllProducts();
+            if (products.isEmpty() && snap != null && !snap.ordered.isEmpty()) {
+                // Kemungkinan database sedang tidak tersedia: tetap pakai data lama, coba lagi nanti
+                snap = new Snapshot(snap.ordered, snap.loadedAt, now + EMPTY_RETRY_MILLIS);
+            } else {
+                long expiresAt = now + (products.isEmpty() ? EMPTY_RETRY_MILLIS : ttlMillis);
+                snap = new Snapshot(products, now, expiresAt);
+                searchIndex.rebuild(products);
+                if (!products.isEmpty()) {
+                    staleIds.clear(); // Baru dimuat semua, tanda stale tidak diperlukan lagi
+                }
+            }
+            snapshot = snap;
+            Log.info("🔄 Product catalog cache loaded: " + snap.ordered.size() + " products");
+        }
+
+        if (!staleIds.isEmpty() && now >= staleRetryAt) {
+            Set<String> ids = new HashSet<>(staleIds);
+            List<Product> loaded = productDAO.getProductsByIds(ids);
+            if (loaded == null) {
+                // Query gagal (misal database tidak tersedia): tanda stale dipertahankan, coba lagi nanti
+                staleRetryAt = now + EMPTY_RETRY_MILLIS;
+                return snap;
+            }
+            Map<String, Product> fresh = new HashMap<>();
+            for (Product p : loaded) {
+                fresh.put(p.getProductId(), p);
+            }
+            staleIds.removeAll(ids);
+            List<Product> ordered = new ArrayList<>(snap.ordered.size());
+            for (Product p : snap.ordered) {
+                if (!ids.contains(p.getProductId())) {
+                    ordered.add(p);
+                } else if (fresh.containsKey(p.getProductId())) {
+                    Product updated = fresh.get(p.getProductId());
+                    ordered.add(updated);
+                    searchIndex.index(updated);
+                } else {
+                    // Tidak ada di database: penghapusan produk selalu lewat remove(), jadi
+                    // pakai data lama sampai reload penuh berikutnya
+                    ordered.add(p);
+                }
+            }
+            snap = new Snapshot(ordered, snap.loadedAt, snap.expiresAt);
+            snapshot = snap;
+        }
+        return snap;
+    }
+
+    /**
+     * Isi cache pada satu titik waktu. Semua list dan map tidak bisa diubah.
+     */
+    private static final class Snapshot {
+        final List<Product> ordered;
+        final Map<String, Product> byId;
+        final Map<String, List<Product>> byCategory;
+        final Map<String, List<Product>> byMaterial;
+        final long loadedAt;
+        final long expiresAt;
+
+        Snapshot(List<Product> products, long loadedAt, long expiresAt) {
+            this.loadedAt = loadedAt;
+            this.expiresAt = expiresAt;
+            this.ordered = Collections.unmodifiableList(new ArrayList<>(products));
+
+            Map<String, Product> ids = new HashMap<>();
+            Map<String, List<Product>> categories = new LinkedHashMap<>();
+            Map<String, List<Product>> materials = new LinkedHashMap<>();
+            for (Product p : products) {
+                ids.put(p.getProductId(), p);
+                if (p.getCategory() != null) {
+                    categories.computeIfAbsent(p.getCategory().toLowerCase(), k -> new ArrayList<>()).add(p);
+                }
+                if (p.getMaterial() != null) {
+                    materials.computeIfAbsent(p.getMaterial().toLowerCase(), k -> new ArrayList<>()).add(p);
+                }
+            }
+            // Sama dengan ProductDAO.getProductsByCategory: ORDER BY name
+            Comparator<Product> byName = Comparator.comparing(Product::getName,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            for (Map.Entry<String, List<Product>> e : categories.entrySet()) {
+                e.getValue().sort(byName);
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+            }
+            for (Map.Entry<String, List<Product>> e : materials.entrySet()) {
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byCategory = Collections.unmodifiableMap(categories);
+            this.byMaterial = Collections.unmodifiableMap(materials);
+        }
+    }
+}
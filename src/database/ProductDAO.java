@@ -5,10 +5,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+import model.Money;
 import model.Product;
+import utils.Log;
 
 public class ProductDAO {
     
@@ -16,16 +20,18 @@ public class ProductDAO {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT * FROM products ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return products; // Database tidak tersedia
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    products.add(mapResultSetToProduct(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting products: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting products: " + e.getMessage(), e);
         }
         return products;
     }
@@ -43,12 +49,137 @@ public class ProductDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting product: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting product: " + e.getMessage(), e);
         }
         return null;
     }
     
+    /**
+     * Mengambil beberapa produk sekaligus dengan satu query IN (...).
+     *
+     * @return produk yang masih ada (id yang tidak ada di tabel dilewati), atau null jika
+     *         query gagal atau database tidak tersedia
+     */
+    public List<Product> getProductsByIds(Collection<String> productIds) {
+        List<Product> products = new ArrayList<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return products;
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT * FROM products WHERE product_id IN (");
+        for (int i = 0; i < productIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return null; // Database tidak tersedia
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int idx = 1;
+                for (String productId : productIds) {
+                    pstmt.setString(idx++, productId);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(mapResultSetToProduct(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error getting products by ids: " + e.getMessage(), e);
+            return null;
+        }
+        return products;
+    }
+    
+    /**
+     * Mengambil satu halaman produk sesuai filter dan urutan di query.
+     *
+     * Keyset pagination: after = produk terakhir dari halaman sebelumnya (null untuk
+     * halaman pertama). Query memakai WHERE (kolom sort, product_id) setelah cursor
+     * + LIMIT, sehingga biaya tiap halaman sama walaupun user sudah scroll jauh.
+     */
+    public List<Product> getProductsPage(ProductQuery query, Product after) {
+        List<Product> products = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM products WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        
+        if (query.getCategory() != null) {
+            sql.append(" AND category = ?");
+            params.add(query.getCategory());
+        }
+        if (query.getMaterial() != null) {
+            sql.append(" AND material = ?");
+            params.add(query.getMaterial());
+        }
+        if (query.getHasGemstone() != null) {
+            sql.append(" AND has_gemstone = ?");
+            params.add(query.getHasGemstone());
+        }
+        if (query.getGemstoneType() != null) {
+            sql.append(" AND gemstone_type = ?");
+            params.add(query.getGemstoneType());
+        }
+        if (query.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            params.add(query.getMinPrice().toBigDecimal());
+        }
+        if (query.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            params.add(query.getMaxPrice().toBigDecimal());
+        }
+        
+        // Cursor: baris setelah (nilai sort, product_id) produk terakhir
+        if (after != null) {
+            switch (query.getSort()) {
+                case PRICE_ASC:
+                    sql.append(" AND (price > ? OR (price = ? AND product_id > ?))");
+                    params.add(after.getPrice().toBigDecimal());
+                    params.add(after.getPrice().toBigDecimal());
+                    break;
+                case PRICE_DESC:
+                    sql.append(" AND (price < ? OR (price = ? AND product_id < ?))");
+                    params.add(after.getPrice().toBigDecimal());
+                    params.add(after.getPrice().toBigDecimal());
+                    break;
+                default:
+                    if (after.getCreatedAt() == null) {
+                        Log.error("❌ Cannot page after product without created_at: " + after.getProductId());
+                        return products;
+                    }
+                    sql.append(" AND (created_at < ? OR (created_at = ? AND product_id < ?))");
+                    params.add(new Timestamp(after.getCreatedAt().getTime()));
+                    params.add(new Timestamp(after.getCreatedAt().getTime()));
+                    break;
+            }
+            params.add(after.getProductId());
+        }
+        
+        sql.append(" ORDER BY ").append(query.getSort().getOrderBy()).append(" LIMIT ?");
+        params.add(query.getPageSize());
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return products; // Database tidak tersedia
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(mapResultSetToProduct(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error getting product page: " + e.getMessage(), e);
+        }
+        return products;
+    }
+    
     public List<Product> getProductsByCategory(String category) {
         List<Product> products = new ArrayList<>();
         String sql = "SELECT * FROM products WHERE category = ? ORDER BY name";
@@ -63,8 +194,7 @@ public class ProductDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting products by category: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting products by category: " + e.getMessage(), e);
         }
         return products;
     }
@@ -80,7 +210,7 @@ public class ProductDAO {
             pstmt.setString(2, product.getName());
             pstmt.setString(3, product.getCategory());
             pstmt.setString(4, product.getMaterial());
-            pstmt.setDouble(5, product.getPrice());
+            pstmt.setBigDecimal(5, product.getPrice().toBigDecimal());
             pstmt.setInt(6, product.getStock());
             pstmt.setString(7, product.getDescription());
             pstmt.setString(8, product.getImagePath());
@@ -89,12 +219,11 @@ public class ProductDAO {
             pstmt.setString(11, product.getGemstoneType());
             
             int result = pstmt.executeUpdate();
-            System.out.println("✅ Product added to database: " + product.getProductId());
+            Log.info("✅ Product added to database: " + product.getProductId());
             return result > 0;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error adding product: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error adding product: " + e.getMessage(), e);
             return false;
         }
     }
@@ -109,7 +238,7 @@ public class ProductDAO {
             pstmt.setString(1, product.getName());
             pstmt.setString(2, product.getCategory());
             pstmt.setString(3, product.getMaterial());
-            pstmt.setDouble(4, product.getPrice());
+            pstmt.setBigDecimal(4, product.getPrice().toBigDecimal());
             pstmt.setInt(5, product.getStock());
             pstmt.setString(6, product.getDescription());
             pstmt.setString(7, product.getImagePath());
@@ -119,12 +248,11 @@ public class ProductDAO {
             pstmt.setString(11, product.getProductId());
             
             int result = pstmt.executeUpdate();
-            System.out.println("✅ Product updated in database: " + product.getProductId());
+            Log.info("✅ Product updated in database: " + product.getProductId());
             return result > 0;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error updating product: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error updating product: " + e.getMessage(), e);
             return false;
         }
     }
@@ -137,12 +265,11 @@ public class ProductDAO {
             
             pstmt.setString(1, productId);
             int result = pstmt.executeUpdate();
-            System.out.println("🗑️ Product deleted from database: " + productId);
+            Log.info("🗑️ Product deleted from database: " + productId);
             return result > 0;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error deleting product: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error deleting product: " + e.getMessage(), e);
             return false;
         }
     }
@@ -160,32 +287,18 @@ public class ProductDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error checking product existence: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error checking product existence: " + e.getMessage(), e);
         }
         return false;
     }
     
+    /**
+     * ID produk berikutnya untuk kategori (R001, N002, ...).
+     * Diambil dari sequence yang dialokasikan per blok, bukan COUNT(*) + 1,
+     * sehingga tidak bentrok antar admin dan tidak memakai ulang ID yang sudah dihapus.
+     */
     public String generateProductId(String category) {
-        String prefix = getCategoryPrefix(category);
-        String sql = "SELECT COUNT(*) FROM products WHERE product_id LIKE ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, prefix + "%");
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int count = rs.getInt(1) + 1;
-                    return prefix + String.format("%03d", count);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error generating product ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return prefix + "001";
+        return IdGenerators.nextProductId(getCategoryPrefix(category));
     }
     
     public boolean updateStock(String productId, int newStock) {
@@ -198,12 +311,11 @@ public class ProductDAO {
             pstmt.setString(2, productId);
             
             int result = pstmt.executeUpdate();
-            System.out.println("📦 Stock updated for product " + productId + ": " + newStock);
+            Log.info("📦 Stock updated for product " + productId + ": " + newStock);
             return result > 0;
             
         } catch (SQLException e) {
-            System.err.println("❌ Error updating stock: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error updating stock: " + e.getMessage(), e);
             return false;
         }
     }
@@ -226,8 +338,7 @@ public class ProductDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error searching products: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error searching products: " + e.getMessage(), e);
         }
         return products;
     }
@@ -246,8 +357,7 @@ public class ProductDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting low stock products: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error getting low stock products: " + e.getMessage(), e);
         }
         return products;
     }
@@ -264,14 +374,15 @@ public class ProductDAO {
         }
     }
     
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
+    // Package-private supaya bisa diukur HotPathBenchmark tanpa database
+    Product mapResultSetToProduct(ResultSet rs) throws SQLException {
         try {
             // ✅ AMBIL SEMUA 11 PARAMETERS YANG DIBUTUHKAN
             String productId = rs.getString("product_id");
             String name = rs.getString("name");
             String category = rs.getString("category");
             String material = rs.getString("material");
-            double price = rs.getDouble("price");
+            Money price = Money.of(rs.getBigDecimal("price"));
             int stock = rs.getInt("stock");
             String description = rs.getString("description");
             String imagePath = rs.getString("image_path");
@@ -279,10 +390,10 @@ public class ProductDAO {
             boolean hasGemstone = rs.getBoolean("has_gemstone");
             String gemstoneType = rs.getString("gemstone_type");
             
-            System.out.println("✅ Creating product: " + name + " | Image: " + imagePath);
+            Log.debug(() -> "✅ Creating product: " + name + " | Image: " + imagePath);
             
             // ✅ GUNAKAN CONSTRUCTOR 11 PARAMETERS
-            return new Product(
+            Product product = new Product(
                 productId,
                 name,
                 category, 
@@ -295,11 +406,13 @@ public class ProductDAO {
                 hasGemstone,
                 gemstoneType != null ? gemstoneType : ""
             );
+            product.setCreatedAt(rs.getTimestamp("created_at"));
+            return product;
             
         } catch (Exception e) {
-            System.err.println("❌ CRITICAL ERROR mapping product: " + e.getMessage());
+            Log.error("❌ CRITICAL ERROR mapping product: " + e.getMessage());
             throw new SQLException("Failed to map product: " + e.getMessage());
         }
     }
 
-} 
\ No newline at end of file
+} 
\ No newline at end of file
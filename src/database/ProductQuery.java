@@ -0,0 +1,99 @@
+package database;
+
+import java.util.Comparator;
+import java.util.Date;
+
+import model.Money;
+import model.Product;
+
+/**
+ * Filter, urutan, dan ukuran halaman untuk ProductDAO.getProductsPage.
+ *
+ * Field yang null berarti tidak difilter. Halaman berikutnya diambil dengan
+ * keyset pagination: produk terakhir dari halaman sebelumnya dipakai sebagai
+ * cursor (nilai kolom sort + product_id), bukan OFFSET.
+ */
+public class ProductQuery {
+    public static final int DEFAULT_PAGE_SIZE = 48;
+
+    public enum Sort {
+        PRICE_ASC("price ASC, product_id ASC"),
+        PRICE_DESC("price DESC, product_id DESC"),
+        NEWEST("created_at DESC, product_id DESC");
+
+        private final String orderBy;
+
+        Sort(String orderBy) {
+            this.orderBy = orderBy;
+        }
+
+        String getOrderBy() {
+            return orderBy;
+        }
+
+        /**
+         * Urutan yang sama di memori (misal untuk hasil pencarian dari search index).
+         */
+        public Comparator<Product> comparator() {
+            Comparator<Product> byId = Comparator.comparing(Product::getProductId);
+            switch (this) {
+                case PRICE_ASC:
+                    return Comparator.comparing(Product::getPrice).thenComparing(byId);
+                case PRICE_DESC:
+                    return Comparator.comparing(Product::getPrice).thenComparing(byId).reversed();
+                default:
+                    return Comparator.comparing(Product::getCreatedAt,
+                            Comparator.nullsLast(Comparator.<Date>naturalOrder()))
+                            .thenComparing(byId).reversed();
+            }
+        }
+    }
+
+    private String category;
+    private String material;
+    private Boolean hasGemstone;
+    private String gemstoneType;
+    private Money minPrice;
+    private Money maxPrice;
+    private Sort sort = Sort.NEWEST;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    public ProductQuery() {
+    }
+
+    public ProductQuery(String category, Sort sort) {
+        this.category = category;
+        this.sort = sort;
+    }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getMaterial() { return material; }
+    public void setMaterial(String material) { this.material = material; }
+
+    public Boolean getHasGemstone() { return hasGemstone; }
+    public void setHasGemstone(Boolean hasGemstone) { this.hasGemstone = hasGemstone; }
+
+    public String getGemstoneType() { return gemstoneType; }
+    public void setGemstoneType(String gemstoneType) { this.gemstoneType = gemstoneType; }
+
+    public Money getMinPrice() { return minPrice; }
+    public void setMinPrice(Money minPrice) { this.minPrice = minPrice; }
+
+    public Money getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(Money maxPrice) { this.maxPrice = maxPrice; }
+
+    public Sort getSort() { return sort; }
+    public void setSort(Sort sort) { this.sort = sort != null ? sort : Sort.NEWEST; }
+
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = Math.max(1, pageSize); }
+
+    @Override
+    public String toString() {
+        return "ProductQuery{category=" + category + ", material=" + material +
+               ", hasGemstone=" + hasGemstone + ", gemstoneType=" + gemstoneType +
+               ", price=" + minPrice + ".." + maxPrice + ", sort=" + sort + ", pageSize=" + pageSize + "}";
+    }
+}
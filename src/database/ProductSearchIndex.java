@@ -0,0 +1,213 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.Product;
+
+/**
+ * Inverted index untuk pencarian produk di memori.
+ *
+ * Setiap field produk dipecah menjadi token (huruf kecil, dipisah karakter
+ * non-alfanumerik). Token disimpan di TreeMap sehingga prefix matching cukup
+ * dengan subMap, tanpa memindai semua produk.
+ *
+ * Skor: bobot field (nama paling tinggi, deskripsi paling rendah), token yang
+ * sama persis bernilai penuh, token yang hanya cocok di prefix bernilai setengah.
+ * Semua kata di query harus cocok (AND).
+ */
+class ProductSearchIndex {
+    private static final int WEIGHT_NAME = 10;
+    private static final int WEIGHT_GEMSTONE = 6;
+    private static final int WEIGHT_CATEGORY = 6;
+    private static final int WEIGHT_MATERIAL = 6;
+    private static final int WEIGHT_DESCRIPTION = 2;
+
+    /** token -> (productId -> bobot) */
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    /** productId -> token yang dimiliki produk, dipakai saat menghapus/re-index */
+    private final Map<String, Map<String, Integer>> documentTerms = new HashMap<>();
+    private final Map<String, Product> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Membangun ulang seluruh index dari katalog lengkap.
+     */
+    void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documents.clear();
+            for (Product product : products) {
+                addLocked(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menambah atau mengganti satu produk (incremental, tanpa rebuild).
+     */
+    void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getProductId());
+            addLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mencari produk yang mengandung semua kata di query (prefix match per kata),
+     * diurutkan berdasarkan relevansi lalu nama.
+     */
+    List<Product> search(String query) {
+        List<String> queryTokens = new ArrayList<>(tokenize(query).keySet());
+        List<Product> results = new ArrayList<>();
+        if (queryTokens.isEmpty()) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<String, Integer> tokenScores = scoreToken(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // AND: hanya produk yang cocok dengan semua kata
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<String, Integer> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + tokenScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return results;
+                }
+            }
+
+            final Map<String, Integer> finalScores = scores;
+            for (String productId : finalScores.keySet()) {
+                results.add(documents.get(productId));
+            }
+            results.sort(Comparator
+                    .comparing((Product p) -> finalScores.get(p.getProductId()), Comparator.reverseOrder())
+                    .thenComparing(Product::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private Map<String, Integer> scoreToken(String queryToken) {
+        Map<String, Integer> scores = new HashMap<>();
+        NavigableMap<String, Map<String, Integer>> matches =
+                postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<String, Integer>> term : matches.entrySet()) {
+            boolean exact = term.getKey().length() == queryToken.length();
+            for (Map.Entry<String, Integer> posting : term.getValue().entrySet()) {
+                int score = exact ? posting.getValue() : Math.max(1, posting.getValue() / 2);
+                // Satu produk bisa cocok dengan beberapa term ber-prefix sama, ambil yang terbaik
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addLocked(Product product) {
+        Map<String, Integer> terms = new HashMap<>();
+        addField(terms, product.getName(), WEIGHT_NAME);
+        addField(terms, product.getCategory(), WEIGHT_CATEGORY);
+        addField(terms, product.getMaterial(), WEIGHT_MATERIAL);
+        if (product.hasGemstone()) {
+            addField(terms, product.getGemstoneType(), WEIGHT_GEMSTONE);
+        }
+        addField(terms, product.getDescription(), WEIGHT_DESCRIPTION);
+
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>())
+                    .put(product.getProductId(), term.getValue());
+        }
+        documentTerms.put(product.getProductId(), terms);
+        documents.put(product.getProductId(), product);
+    }
+
+    private void removeLocked(String productId) {
+        Map<String, Integer> terms = documentTerms.remove(productId);
+        documents.remove(productId);
+        if (terms == null) return;
+        for (String token : terms.keySet()) {
+            Map<String, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> terms, String value, int weight) {
+        for (String token : tokenize(value).keySet()) {
+            // Token yang muncul di beberapa field memakai bobot tertinggi
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    /**
+     * Memecah teks menjadi token huruf kecil. LinkedHashMap menjaga urutan dan membuang duplikat.
+     */
+    private static Map<String, Boolean> tokenize(String text) {
+        Map<String, Boolean> tokens = new LinkedHashMap<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.put(current.toString(), Boolean.TRUE);
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.put(current.toString(), Boolean.TRUE);
+        }
+        return tokens;
+    }
+}
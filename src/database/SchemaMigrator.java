@@ -0,0 +1,229 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import utils.Log;
+
+/**
+ * Menjalankan migration schema berversi saat aplikasi mulai.
+ *
+ * File migration ada di database/migrations dengan nama V<versi>__<deskripsi>.sql
+ * (bisa diubah lewat -Darlene.db.migrationsDir). Migration yang sudah dijalankan
+ * dicatat di tabel schema_migrations beserta checksum-nya, sehingga setiap file
+ * hanya dijalankan sekali. Lock MySQL (GET_LOCK) mencegah dua instance aplikasi
+ * menjalankan migration yang sama bersamaan.
+ *
+ * DDL di MySQL auto-commit, jadi migration yang gagal di tengah tidak di-rollback:
+ * versi tersebut tidak dicatat dan akan dicoba lagi di startup berikutnya.
+ * Error "index sudah ada" diabaikan supaya statement yang sudah berhasil tidak
+ * membuat percobaan ulang gagal.
+ */
+class SchemaMigrator {
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final String LOCK_NAME = "arlene_schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+    // ER_DUP_KEYNAME: index dengan nama yang sama sudah ada
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    private final File directory;
+
+    SchemaMigrator(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Jalankan semua migration yang belum tercatat. Return true jika schema sudah up-to-date.
+     */
+    boolean migrate() {
+        List<Migration> migrations = loadMigrations();
+        if (migrations.isEmpty()) {
+            Log.info("ℹ️ No schema migrations found in " + directory.getAbsolutePath());
+            return true;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                Log.error("❌ Schema migration skipped: no database connection");
+                return false;
+            }
+            if (!acquireLock(conn)) {
+                Log.error("❌ Schema migration skipped: could not acquire migration lock");
+                return false;
+            }
+            try {
+                ensureHistoryTable(conn);
+                Map<Integer, Long> applied = loadAppliedVersions(conn);
+
+                for (Migration migration : migrations) {
+                    Long checksum = applied.get(migration.version);
+                    if (checksum != null) {
+                        if (checksum != migration.checksum) {
+                            Log.warn("⚠️ Migration V" + migration.version + " changed after it was applied (checksum mismatch)");
+                        }
+                        continue;
+                    }
+                    apply(conn, migration);
+                }
+                Log.info("✅ Database schema up to date (" + migrations.size() + " migrations)");
+                return true;
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Schema migration failed: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        Log.info("🔧 Applying migration V" + migration.version + ": " + migration.description);
+        long start = System.currentTimeMillis();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() == ER_DUP_KEYNAME) {
+                        Log.info("   ℹ️ Index already exists, skipping: " + firstLine(sql));
+                        continue;
+                    }
+                    throw new SQLException("Migration V" + migration.version + " failed at: " + firstLine(sql)
+                            + " - " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                }
+            }
+        }
+
+        String sql = "INSERT INTO schema_migrations (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setLong(3, migration.checksum);
+            pstmt.executeUpdate();
+        }
+        Log.info("✅ Migration V" + migration.version + " applied in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void ensureHistoryTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                     "version INT PRIMARY KEY, " +
+                     "description VARCHAR(200) NOT NULL, " +
+                     "checksum BIGINT NOT NULL, " +
+                     "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            Log.warn("⚠️ Failed to release migration lock: " + e.getMessage());
+        }
+    }
+
+    // ==================== LOADING FILES ====================
+
+    private List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        File[] files = directory.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+        if (files == null) {
+            return migrations;
+        }
+        for (File file : files) {
+            Matcher m = FILE_NAME.matcher(file.getName());
+            m.matches();
+            try {
+                String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                migrations.add(new Migration(Integer.parseInt(m.group(1)), m.group(2).replace('_', ' '), content));
+            } catch (IOException e) {
+                Log.error("❌ Cannot read migration " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        migrations.sort((a, b) -> Integer.compare(a.version, b.version));
+        return migrations;
+    }
+
+    /**
+     * Pisahkan isi file menjadi statement: baris komentar "--" dibuang, statement diakhiri ';'.
+     */
+    static List<String> splitStatements(String content) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : content.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String firstLine(String sql) {
+        int newline = sql.indexOf('\n');
+        return newline < 0 ? sql : sql.substring(0, newline) + " ...";
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final long checksum;
+        final List<String> statements;
+
+        Migration(int version, String description, String content) {
+            this.version = version;
+            this.description = description;
+            CRC32 crc = new CRC32();
+            crc.update(content.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+            this.statements = splitStatements(content);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import utils.Log;
+
+/**
+ * Reservasi stok untuk keranjang belanja.
+ *
+ * Stok tidak lagi dibaca lalu ditulis ulang sebagai nilai absolut. Setiap
+ * perubahan memakai delta bersyarat (stock = stock - ? WHERE stock >= ?) di
+ * transaksi yang sama dengan penulisan cart_items, sehingga dua customer yang
+ * membeli produk yang sama secara bersamaan tidak bisa membuat stok minus.
+ */
+public class StockReservationDAO {
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock = stock - ? WHERE product_id = ? AND stock >= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock = stock + ? WHERE product_id = ?";
+
+    /**
+     * 🛒 RESERVASI STOK + TAMBAH KE KERANJANG
+     * Mengurangi stok dan menambah/insert cart_items (satu upsert) dalam satu transaksi.
+     * Return false jika stok tidak cukup atau produk tidak ada.
+     */
+    public boolean reserveAndAdd(String cartId, String productId, int quantity) {
+        if (quantity <= 0) {
+            return false;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (!reserve(conn, productId, quantity)) {
+                    conn.rollback();
+                    Log.error("❌ Insufficient stock for product: " + productId + " (requested " + quantity + ")");
+                    return false;
+                }
+
+                // Insert-or-increment dalam satu statement; 0 baris berarti cart tidak ada
+                if (!CartDAO.upsertCartItem(conn, cartId, productId, quantity)) {
+                    conn.rollback();
+                    Log.error("❌ Cart not found for reservation: " + cartId);
+                    return false;
+                }
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error reserving stock: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 📦 RESERVASI + TAMBAH BANYAK PRODUK KE KERANJANG (productId -> quantity)
+     * Reservasi stok dan upsert cart_items masing-masing dikirim sebagai satu
+     * JDBC batch dalam satu transaksi. Jika satu produk gagal, semuanya dibatalkan.
+     */
+    public boolean reserveAndAddAll(String cartId, Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return true;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (!reserveBatch(conn, quantities) || !CartDAO.upsertCartItems(conn, cartId, quantities)) {
+                    conn.rollback();
+                    Log.error("❌ Batch reservation rejected for cart: " + cartId);
+                    return false;
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error reserving stock batch: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * ✏️ UBAH QUANTITY ITEM KERANJANG
+     * Selisih quantity lama dan baru direservasi atau dikembalikan ke stok.
+     * Quantity <= 0 berarti item dihapus dan seluruh stoknya dikembalikan.
+     * Item harus milik cartId, supaya cart_item_id dari cart user lain tidak bisa diubah.
+     */
+    public boolean changeQuantity(String cartId, int cartItemId, int newQuantity) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                String productId;
+                int oldQuantity;
+                String lockSql = "SELECT product_id, quantity FROM cart_items WHERE cart_item_id = ? AND cart_id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(lockSql)) {
+                    pstmt.setInt(1, cartItemId);
+                    pstmt.setString(2, cartId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
+                        productId = rs.getString("product_id");
+                        oldQuantity = rs.getInt("quantity");
+                    }
+                }
+
+                int target = Math.max(0, newQuantity);
+                int delta = target - oldQuantity;
+                if (delta > 0 && !reserve(conn, productId, delta)) {
+                    conn.rollback();
+                    Log.error("❌ Insufficient stock for update: " + productId);
+                    return false;
+                }
+                if (delta < 0) {
+                    release(conn, productId, -delta);
+                }
+
+                String sql = target > 0
+                        ? "UPDATE cart_items SET quantity = ? WHERE cart_item_id = ?"
+                        : "DELETE FROM cart_items WHERE cart_item_id = ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    if (target > 0) {
+                        pstmt.setInt(1, target);
+                        pstmt.setInt(2, cartItemId);
+                    } else {
+                        pstmt.setInt(1, cartItemId);
+                    }
+                    pstmt.executeUpdate();
+                }
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error changing reserved quantity: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 🗑️ HAPUS ITEM DAN KEMBALIKAN STOKNYA
+     */
+    public boolean releaseItem(String cartId, int cartItemId) {
+        return changeQuantity(cartId, cartItemId, 0);
+    }
+
+    /**
+     * 🧹 KOSONGKAN KERANJANG DAN KEMBALIKAN SEMUA STOK
+     * Semua produk dikembalikan dengan satu UPDATE ... JOIN (bukan satu query per item),
+     * lalu cart_items dihapus, keduanya dalam transaksi yang sama.
+     */
+    public boolean releaseCart(String cartId) {
+        String restoreSql = "UPDATE products p " +
+                "JOIN (SELECT product_id, SUM(quantity) AS qty FROM cart_items WHERE cart_id = ? GROUP BY product_id) r " +
+                "ON p.product_id = r.product_id " +
+                "SET p.stock = p.stock + r.qty";
+        String deleteSql = "DELETE FROM cart_items WHERE cart_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement restore = conn.prepareStatement(restoreSql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                restore.setString(1, cartId);
+                restore.executeUpdate();
+                delete.setString(1, cartId);
+                int removed = delete.executeUpdate();
+                conn.commit();
+                Log.info("✅ Released " + removed + " cart items for cart: " + cartId);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error releasing cart stock: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 📦 RESERVASI BANYAK PRODUK SEKALIGUS
+     * Semua delta dikirim sebagai satu JDBC batch. Jika ada satu produk yang
+     * stoknya tidak cukup, seluruh reservasi dibatalkan (all-or-nothing).
+     */
+    public boolean reserveAll(Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return true;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (!reserveBatch(conn, quantities)) {
+                    conn.rollback();
+                    return false;
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            Log.error("❌ Error reserving stock batch: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private boolean reserve(Connection conn, String productId, int quantity) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RESERVE_SQL)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setString(2, productId);
+            pstmt.setInt(3, quantity);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    private boolean reserveBatch(Connection conn, Map<String, Integer> quantities) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RESERVE_SQL)) {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                if (entry.getValue() == null || entry.getValue() <= 0) {
+                    return false;
+                }
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.setInt(3, entry.getValue());
+                pstmt.addBatch();
+            }
+            for (int count : pstmt.executeBatch()) {
+                if (count == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void release(Connection conn, String productId, int quantity) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RELEASE_SQL)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setString(2, productId);
+            pstmt.executeUpdate();
+        }
+    }
+}
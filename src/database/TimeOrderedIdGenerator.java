@@ -0,0 +1,109 @@
+package database;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+import utils.Log;
+
+/**
+ * ID 64-bit berurutan waktu ala Snowflake, tanpa query ke database.
+ *
+ * Layout: 41 bit milidetik sejak EPOCH | 10 bit node | 12 bit sequence.
+ * Nilainya ditulis sebagai 13 karakter Crockford base32 dengan lebar tetap,
+ * sehingga urutan string sama dengan urutan waktu pembuatan.
+ *
+ * Sequence per milidetik di-generate lock-free dengan CAS: state menyimpan
+ * (timestamp << 12 | sequence) terakhir dan nilai berikutnya adalah
+ * max(state + 1, sekarang << 12). Jika sequence habis dalam satu milidetik
+ * atau jam sistem mundur, timestamp "meminjam" milidetik berikutnya sehingga
+ * ID tetap unik dan tetap naik.
+ *
+ * Node ID (0-1023) diambil dari -Darlene.id.node; jika tidak diset, diturunkan
+ * dari hostname + PID supaya dua instance di mesin berbeda tidak bentrok.
+ */
+class TimeOrderedIdGenerator implements IdGenerator {
+    // 2024-01-01T00:00:00Z, 41 bit cukup sampai sekitar tahun 2093
+    static final long EPOCH = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13; // ceil(64 / 5)
+
+    private static final long DEFAULT_NODE = resolveNodeId();
+
+    private final String prefix;
+    private final long node;
+    private final AtomicLong state = new AtomicLong();
+
+    TimeOrderedIdGenerator(String prefix) {
+        this(prefix, DEFAULT_NODE);
+    }
+
+    TimeOrderedIdGenerator(String prefix, long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.prefix = prefix != null ? prefix : "";
+        this.node = node;
+    }
+
+    @Override
+    public String nextId() {
+        return prefix + encode(nextValue());
+    }
+
+    /**
+     * Nilai 64-bit berikutnya (selalu naik untuk generator ini).
+     */
+    long nextValue() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            next = Math.max(prev + 1, now);
+        } while (!state.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Waktu pembuatan (epoch millis) dari nilai yang dibuat generator ini.
+     */
+    static long timestampOf(long value) {
+        return (value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    static String encode(long value) {
+        char[] out = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            out[i] = CROCKFORD[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+
+    private static long resolveNodeId() {
+        Integer configured = Integer.getInteger("arlene.id.node");
+        if (configured != null) {
+            return configured & MAX_NODE;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        // RuntimeMXBean name berformat "pid@hostname"
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        long node = identity.hashCode() & MAX_NODE;
+        Log.info("🆔 ID generator node: " + node + " (set -Darlene.id.node to pin it)");
+        return node;
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import model.Admin;
 import model.Customer;
 import model.User;
+import utils.Log;
 
 public class UserDAO {
     
@@ -30,7 +31,7 @@ public class UserDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Login error: " + e.getMessage());
+            Log.error("Login error: " + e.getMessage());
         }
         return null;
     }
@@ -54,7 +55,7 @@ public class UserDAO {
             return affectedRows > 0;
             
         } catch (SQLException e) {
-            System.err.println("Registration error: " + e.getMessage());
+            Log.error("Registration error: " + e.getMessage());
             return false;
         }
     }
@@ -73,7 +74,7 @@ public class UserDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Username check error: " + e.getMessage());
+            Log.error("Username check error: " + e.getMessage());
         }
         return false;
     }
@@ -92,7 +93,7 @@ public class UserDAO {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Email check error: " + e.getMessage());
+            Log.error("Email check error: " + e.getMessage());
         }
         return false;
     }
@@ -109,7 +110,7 @@ public class UserDAO {
                 users.add(mapResultSetToUser(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error getting all users: " + e.getMessage());
+            Log.error("Error getting all users: " + e.getMessage());
         }
         return users;
     }
@@ -132,24 +133,11 @@ public class UserDAO {
         }
     }
 
+    /**
+     * ID user berikutnya (ADM001, CUST004, ...) dari sequence per prefix role.
+     */
     public String generateUserId(String role) {
         String prefix = "ADMIN".equals(role) ? "ADM" : "CUST";
-        String sql = "SELECT COUNT(*) FROM users WHERE user_id LIKE ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, prefix + "%");
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int count = rs.getInt(1) + 1;
-                    return prefix + String.format("%03d", count);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error generating user ID: " + e.getMessage());
-        }
-        return prefix + "001";
+        return IdGenerators.nextUserId(prefix);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
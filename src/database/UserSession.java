@@ -0,0 +1,38 @@
+package database;
+
+import model.ShoppingCart;
+import model.User;
+
+/**
+ * State milik satu sesi login: user yang sedang login, cart-nya, dan error terakhir.
+ *
+ * User tidak pernah berubah selama sesi berjalan; login baru selalu membuat
+ * UserSession baru. Method di DatabaseManager mengambil sesi sekali di awal,
+ * sehingga logout dari thread lain tidak membuat operasi yang sedang berjalan
+ * tiba-tiba melihat user null atau user yang berbeda.
+ *
+ * Cart dimuat sekali per sesi dan menjadi satu-satunya instance yang diubah
+ * DatabaseManager (termasuk write-behind), sehingga UI cukup mendengarkan
+ * CartListener pada objek yang sama.
+ */
+public class UserSession {
+    private final User user;
+    private final long createdAt;
+    private volatile String lastError;
+    private volatile ShoppingCart cart;
+
+    public UserSession(User user) {
+        this.user = user;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public User getUser() { return user; }
+    public long getCreatedAt() { return createdAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public void clearLastError() { this.lastError = null; }
+
+    public ShoppingCart getCart() { return cart; }
+    public void setCart(ShoppingCart cart) { this.cart = cart; }
+}
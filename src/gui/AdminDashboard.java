@@ -13,7 +13,10 @@ import java.awt.Insets;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -29,6 +32,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
@@ -39,25 +43,41 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 
+import database.AsyncDatabaseService;
 import database.DatabaseManager;
+import database.ProductQuery;
 import model.Admin;
 import model.Customer;
+import model.Money;
 import model.Order;
 import model.OrderItem;
 import model.Product;
 import model.User;
 import utils.CurrencyUtils;
+import utils.ImageUtils;
+import utils.Log;
 
 public class AdminDashboard extends JFrame {
     private Admin admin;
     private DatabaseManager db;
+    private AsyncDatabaseService asyncDb;
     private JTabbedPane tabbedPane;
     private JTable productsTable;
     private DefaultTableModel productsTableModel;
+    private AsyncLoader productsLoader;
+    private JScrollPane productsScrollPane;
+    // Tabel produk dimuat per halaman (terbaru dulu), halaman berikutnya saat scroll mendekati bawah
+    private static final int PRODUCT_PAGE_SIZE = 100;
+    private final ProductQuery productsQuery = new ProductQuery();
+    private Product lastLoadedProduct;
+    private boolean moreProducts;
     // Transactions UI
     private DefaultTableModel transactionsTableModel;
     private JTable transactionsTable;
     private JTextArea orderDetailsArea;
+    private AsyncLoader transactionsLoader;
+    // Order terakhir yang dimuat ke tabel transaksi, dipakai untuk detail order tanpa query ulang
+    private List<Order> loadedOrders = Collections.emptyList();
     
     // Warna theme admin (biru professional)
     private final Color ADMIN_PRIMARY = new Color(70, 130, 180);    // Steel Blue
@@ -70,6 +90,9 @@ public class AdminDashboard extends JFrame {
     public AdminDashboard(Admin admin) {
         this.admin = admin;
         this.db = DatabaseManager.getInstance();
+        this.asyncDb = AsyncDatabaseService.getInstance();
+        productsQuery.setSort(ProductQuery.Sort.NEWEST);
+        productsQuery.setPageSize(PRODUCT_PAGE_SIZE);
         
         initializeFrame();
         setupUI();
@@ -94,7 +117,7 @@ public class AdminDashboard extends JFrame {
         JPanel headerPanel = createHeaderPanel();
         mainPanel.add(headerPanel, BorderLayout.NORTH);
         
-        // Tabbed content - Hanya 3 tab
+        // Tabbed content
         tabbedPane = new JTabbedPane();
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForeground(ADMIN_DARK);
@@ -102,6 +125,7 @@ public class AdminDashboard extends JFrame {
         tabbedPane.addTab("📦 Manage Products", createProductsPanel());
         tabbedPane.addTab("📊 View Transactions", createTransactionsPanel());
         tabbedPane.addTab("👥 User Management", createUsersPanel());
+        tabbedPane.addTab("🩺 Diagnostics", new DiagnosticsPanel(ADMIN_PRIMARY, ADMIN_DARK));
         
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
         setContentPane(mainPanel);
@@ -180,7 +204,10 @@ public class AdminDashboard extends JFrame {
         addButton.addActionListener(e -> showAddProductDialog());
         editButton.addActionListener(e -> editSelectedProduct());
         deleteButton.addActionListener(e -> deleteSelectedProduct());
-        refreshButton.addActionListener(e -> loadProductsData());
+        refreshButton.addActionListener(e -> {
+            db.refreshProductsCache();
+            loadProductsData();
+        });
 
         toolbar.add(addButton);
         toolbar.add(editButton);
@@ -198,6 +225,7 @@ public class AdminDashboard extends JFrame {
 
         productsTable = new JTable(productsTableModel);
         productsTable.setRowHeight(35);
+        productsLoader = new AsyncLoader(productsTable);
         productsTable.getTableHeader().setBackground(ADMIN_PRIMARY);
         productsTable.getTableHeader().setForeground(Color.WHITE);
         productsTable.getTableHeader().setFont(new Font("SansSerif", Font.BOLD, 12));
@@ -208,11 +236,18 @@ public class AdminDashboard extends JFrame {
         productsTable.getColumnModel().getColumn(7).setCellRenderer(new CenterAlignedRenderer()); // Weight
         productsTable.getColumnModel().getColumn(8).setCellRenderer(new CenterAlignedRenderer()); // Image
 
-        JScrollPane scrollPane = new JScrollPane(productsTable);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        productsScrollPane = new JScrollPane(productsTable);
+        productsScrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        productsScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = productsScrollPane.getVerticalScrollBar();
+            // Muat halaman berikutnya jika sisa baris di bawah kurang dari 20
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - productsTable.getRowHeight() * 20) {
+                loadMoreProducts();
+            }
+        });
 
         panel.add(toolbar, BorderLayout.NORTH);
-        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(productsScrollPane, BorderLayout.CENTER);
 
         // Context menu (right-click) for change/remove image
         JPopupMenu productsPopup = new JPopupMenu();
@@ -284,6 +319,7 @@ public class AdminDashboard extends JFrame {
         
         transactionsTable = new JTable(transactionsTableModel);
         transactionsTable.setRowHeight(34);
+        transactionsLoader = new AsyncLoader(transactionsTable);
         
         // Set custom editor untuk kolom Status
         JComboBox<String> statusComboBox = new JComboBox<>(new String[]{
@@ -328,9 +364,7 @@ public class AdminDashboard extends JFrame {
                 int r = transactionsTable.getSelectedRow();
                 if (r >= 0) {
                     String orderId = (String) transactionsTableModel.getValueAt(r, 0);
-                    // find order from db
-                    List<Order> orders = db.getUserOrders();
-                    Order found = orders.stream().filter(o -> o.getOrderId().equals(orderId)).findFirst().orElse(null);
+                    Order found = findLoadedOrder(orderId);
                     if (found != null) {
                         StringBuilder sb = new StringBuilder();
                         sb.append("Order ID: ").append(found.getOrderId()).append('\n');
@@ -359,8 +393,7 @@ public class AdminDashboard extends JFrame {
                     int r = transactionsTable.getSelectedRow();
                     if (r >= 0) {
                         String orderId = (String) transactionsTableModel.getValueAt(r, 0);
-                        List<Order> orders = db.getUserOrders();
-                        Order found = orders.stream().filter(o -> o.getOrderId().equals(orderId)).findFirst().orElse(null);
+                        Order found = findLoadedOrder(orderId);
                         if (found != null) {
                             StringBuilder sb = new StringBuilder();
                             sb.append("=== ORDER DETAILS ===\n\n");
@@ -375,7 +408,7 @@ public class AdminDashboard extends JFrame {
                                 sb.append("\n - ").append(it.getProduct().getName()).append("\n");
                                 sb.append("   Quantity: ").append(it.getQuantity()).append("\n");
                                 sb.append("   Price: ").append(CurrencyUtils.format(it.getPrice())).append("\n");
-                                sb.append("   Subtotal: ").append(CurrencyUtils.format(it.getPrice() * it.getQuantity())).append("\n");
+                                sb.append("   Subtotal: ").append(CurrencyUtils.format(it.getSubtotal())).append("\n");
                             }
                             JOptionPane.showMessageDialog(AdminDashboard.this, sb.toString(), "Order Details - " + found.getOrderId(), JOptionPane.INFORMATION_MESSAGE);
                         }
@@ -453,7 +486,7 @@ public class AdminDashboard extends JFrame {
                     "Loaded " + users.size() + " users", 
                     "Refresh Complete", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
-                System.err.println("Error loading users: " + ex.getMessage());
+                Log.error("Error loading users: " + ex.getMessage());
                 JOptionPane.showMessageDialog(AdminDashboard.this, 
                     "Error loading users: " + ex.getMessage(), 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -524,38 +557,56 @@ public class AdminDashboard extends JFrame {
     }
     
     private void loadProductsData() {
-        try {
-            List<Product> products = db.getAllProducts();
+        productsLoader.load(asyncDb.getProductsPage(productsQuery, null), null, products -> {
             productsTableModel.setRowCount(0); // Clear existing data
-            
-            // Add products to table
-            for (Product product : products) {
-                // Tampilkan info gambar di table
-                String imageInfo = product.getImagePath() != null ? 
-                    "📷 " + new File(product.getImagePath()).getName() : "🖼️ No Image";
-                
-                productsTableModel.addRow(new Object[]{
-                    product.getProductId(),
-                    product.getName(),
-                    product.getCategory(),
-                    product.getMaterial(),
-                    product.getFormattedPrice(),
-                    product.getStock(),
-                    product.hasGemstone() ? product.getGemstoneType() : "None",
-                    product.getWeight() + "g",
-                    imageInfo
-                });
-            }
-            
-            System.out.println("✅ Loaded " + products.size() + " products from database");
-            
-        } catch (Exception e) {
-            System.err.println("❌ Error loading products: " + e.getMessage());
-            e.printStackTrace();
+            appendProductRows(products);
+            Log.info("✅ Loaded " + products.size() + " products from database");
+        }, error -> {
+            Log.error("❌ Error loading products: " + error.getMessage(), error);
             JOptionPane.showMessageDialog(this, 
-                "Error loading products: " + e.getMessage(), 
+                "Error loading products: " + error.getMessage(), 
                 "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Muat halaman produk berikutnya (dipanggil saat tabel di-scroll mendekati bawah)
+     */
+    private void loadMoreProducts() {
+        if (!moreProducts || productsLoader.isLoading()) return;
+        productsLoader.load(asyncDb.getProductsPage(productsQuery, lastLoadedProduct), null, products -> {
+            appendProductRows(products);
+            Log.info("📄 Loaded " + products.size() + " more products");
+        }, error -> {
+            Log.error("❌ Error loading more products: " + error.getMessage());
+            moreProducts = false;
+        });
+    }
+
+    private void appendProductRows(List<Product> products) {
+        // Add products to table
+        for (Product product : products) {
+            // Tampilkan info gambar di table
+            String imageInfo = product.getImagePath() != null ? 
+                "📷 " + new File(product.getImagePath()).getName() : "🖼️ No Image";
+            
+            productsTableModel.addRow(new Object[]{
+                product.getProductId(),
+                product.getName(),
+                product.getCategory(),
+                product.getMaterial(),
+                product.getFormattedPrice(),
+                product.getStock(),
+                product.hasGemstone() ? product.getGemstoneType() : "None",
+                product.getWeight() + "g",
+                imageInfo
+            });
+        }
+        
+        if (!products.isEmpty()) {
+            lastLoadedProduct = products.get(products.size() - 1);
         }
+        moreProducts = products.size() >= productsQuery.getPageSize();
     }
 
     /**
@@ -563,9 +614,9 @@ public class AdminDashboard extends JFrame {
      */
     private void loadTransactionsData() {
         if (transactionsTableModel == null) return;
-        try {
+        transactionsLoader.load(asyncDb.getUserOrders(), null, orders -> {
+            loadedOrders = orders;
             transactionsTableModel.setRowCount(0);
-            List<Order> orders = db.getUserOrders();
             for (Order o : orders) {
                 transactionsTableModel.addRow(new Object[]{
                     o.getOrderId(), 
@@ -575,13 +626,17 @@ public class AdminDashboard extends JFrame {
                     CurrencyUtils.format(o.getTotalAmount())
                 });
             }
-            System.out.println("✅ Loaded " + orders.size() + " transactions from database");
-        } catch (Exception e) {
-            System.err.println("❌ Error loading transactions: " + e.getMessage());
+            Log.info("✅ Loaded " + orders.size() + " transactions from database");
+        }, error -> {
+            Log.error("❌ Error loading transactions: " + error.getMessage());
             JOptionPane.showMessageDialog(this, 
-                "Error loading transactions: " + e.getMessage(), 
+                "Error loading transactions: " + error.getMessage(), 
                 "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
+    }
+
+    private Order findLoadedOrder(String orderId) {
+        return loadedOrders.stream().filter(o -> o.getOrderId().equals(orderId)).findFirst().orElse(null);
     }
 
     /**
@@ -614,46 +669,59 @@ public class AdminDashboard extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             String newStatus = (String) statusCombo.getSelectedItem();
             
-            // Update status di database
-            boolean success = db.updateOrderStatus(orderId, newStatus);
+            // Update status di database (di background)
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.updateOrderStatus(orderId, newStatus), success -> {
+                setCursor(Cursor.getDefaultCursor());
+                handleOrderStatusUpdated(orderId, newStatus, selectedRow, success);
+            }, error -> {
+                setCursor(Cursor.getDefaultCursor());
+                Log.error("❌ Error updating order status: " + error.getMessage());
+                handleOrderStatusUpdated(orderId, newStatus, selectedRow, false);
+            });
+        }
+    }
+
+    private void handleOrderStatusUpdated(String orderId, String newStatus, int selectedRow, boolean success) {
+        if (success) {
+            Order updatedOrder = findLoadedOrder(orderId);
+            if (updatedOrder != null) {
+                updatedOrder.setStatus(newStatus);
+            }
             
-            if (success) {
-                // Update table
+            // Update table (baris bisa bergeser jika tabel sempat dimuat ulang)
+            if (selectedRow < transactionsTableModel.getRowCount()
+                    && orderId.equals(transactionsTableModel.getValueAt(selectedRow, 0))) {
                 transactionsTableModel.setValueAt(newStatus, selectedRow, 2);
-                
-                // Update order details area jika order yang sama masih dipilih
-                if (transactionsTable.getSelectedRow() == selectedRow) {
-                    List<Order> orders = db.getUserOrders();
-                    Order updatedOrder = orders.stream()
-                        .filter(o -> o.getOrderId().equals(orderId))
-                        .findFirst().orElse(null);
-                        
-                    if (updatedOrder != null) {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("Order ID: ").append(updatedOrder.getOrderId()).append('\n');
-                        sb.append("Status: ").append(updatedOrder.getStatus()).append('\n');
-                        sb.append("Payment: ").append(updatedOrder.getPaymentMethod()).append('\n');
-                        sb.append("Total: ").append(CurrencyUtils.format(updatedOrder.getTotalAmount())).append('\n');
-                        sb.append("Date: ").append(updatedOrder.getOrderDate()).append('\n');
-                        sb.append("Notes: ").append(updatedOrder.getNotes() != null ? updatedOrder.getNotes() : "No notes").append('\n');
-                        sb.append("Items:\n");
-                        for (OrderItem it : updatedOrder.getItems()) {
-                            sb.append(" - ").append(it.getProduct().getName()).append(" x").append(it.getQuantity()).append(" (").append(CurrencyUtils.format(it.getPrice())).append(")\n");
-                        }
-                        orderDetailsArea.setText(sb.toString());
+            }
+            
+            // Update order details area jika order yang sama masih dipilih
+            if (transactionsTable.getSelectedRow() == selectedRow) {
+                if (updatedOrder != null) {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("Order ID: ").append(updatedOrder.getOrderId()).append('\n');
+                    sb.append("Status: ").append(updatedOrder.getStatus()).append('\n');
+                    sb.append("Payment: ").append(updatedOrder.getPaymentMethod()).append('\n');
+                    sb.append("Total: ").append(CurrencyUtils.format(updatedOrder.getTotalAmount())).append('\n');
+                    sb.append("Date: ").append(updatedOrder.getOrderDate()).append('\n');
+                    sb.append("Notes: ").append(updatedOrder.getNotes() != null ? updatedOrder.getNotes() : "No notes").append('\n');
+                    sb.append("Items:\n");
+                    for (OrderItem it : updatedOrder.getItems()) {
+                        sb.append(" - ").append(it.getProduct().getName()).append(" x").append(it.getQuantity()).append(" (").append(CurrencyUtils.format(it.getPrice())).append(")\n");
                     }
+                    orderDetailsArea.setText(sb.toString());
                 }
-                
-                JOptionPane.showMessageDialog(this,
-                    "Order status updated successfully!\n" +
-                    "Order: " + orderId + "\n" +
-                    "New Status: " + newStatus,
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "Failed to update order status",
-                    "Error", JOptionPane.ERROR_MESSAGE);
             }
+            
+            JOptionPane.showMessageDialog(this,
+                "Order status updated successfully!\n" +
+                "Order: " + orderId + "\n" +
+                "New Status: " + newStatus,
+                "Success", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this,
+                "Failed to update order status",
+                "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -665,7 +733,7 @@ public class AdminDashboard extends JFrame {
             try (FileWriter fw = new FileWriter(out)) {
                 fw.write("ProductID,Name,Category,Material,Price,Stock,Weight,Gemstone,ImagePath\n");
                 for (Product p : db.getAllProducts()) {
-                    String line = String.format("%s,%s,%s,%s,%.2f,%d,%.2f,%s,%s\n",
+                    String line = String.format("%s,%s,%s,%s,%s,%d,%.2f,%s,%s\n",
                         p.getProductId(), 
                         p.getName().replaceAll(",", " "), 
                         p.getCategory(),
@@ -874,11 +942,14 @@ public class AdminDashboard extends JFrame {
         gbc.gridy = 0;
 
         // Product ID (auto-generated)
+        // ID yang sudah dipesan per kategori disimpan, supaya bolak-balik ganti kategori
+        // tidak menghabiskan nomor sequence
+        Map<String, String> reservedIds = new HashMap<>();
         contentPanel.add(new JLabel("Product ID:"), gbc);
         gbc.gridx = 1;
         JTextField idField = new JTextField(20);
         idField.setEditable(false);
-        idField.setText(db.generateProductId("Ring"));
+        idField.setText(reservedIds.computeIfAbsent("Ring", db::generateProductId));
         contentPanel.add(idField, gbc);
 
         gbc.gridx = 0;
@@ -898,7 +969,7 @@ public class AdminDashboard extends JFrame {
         gbc.gridx = 1;
         JComboBox<String> categoryCombo = new JComboBox<>(new String[]{"Ring", "Necklace", "Bracelet", "Earrings"});
         categoryCombo.addActionListener(e -> {
-            String newId = db.generateProductId((String) categoryCombo.getSelectedItem());
+            String newId = reservedIds.computeIfAbsent((String) categoryCombo.getSelectedItem(), db::generateProductId);
             idField.setText(newId);
         });
         contentPanel.add(categoryCombo, gbc);
@@ -1102,11 +1173,11 @@ public class AdminDashboard extends JFrame {
         }
 
         try {
-            double price = Double.parseDouble(priceStr);
+            Money price = Money.parse(priceStr);
             int stock = Integer.parseInt(stockStr);
             double weight = weightStr.isEmpty() ? 0.0 : Double.parseDouble(weightStr);
 
-            if (price <= 0 || stock < 0) {
+            if (!price.isPositive() || stock < 0) {
                 JOptionPane.showMessageDialog(this, "Price must be positive and stock cannot be negative", "Validation Error", JOptionPane.ERROR_MESSAGE);
                 return false;
             }
@@ -1116,11 +1187,11 @@ public class AdminDashboard extends JFrame {
             if (imageFile != null && imageFile.exists()) {
                 // Jika user pilih gambar, copy ke folder products
                 imagePath = copyImageToProducts(imageFile, productId);
-                System.out.println("✅ Image saved: " + imagePath);
+                Log.info("✅ Image saved: " + imagePath);
             } else {
                 // Jika tidak pilih gambar, gunakan default path
                 imagePath = "assets/images/products/" + productId + ".png";
-                System.out.println("ℹ️ Using default image path: " + imagePath);
+                Log.info("ℹ️ Using default image path: " + imagePath);
             }
 
             // GUNAKAN CONSTRUCTOR 11 PARAMETERS DENGAN IMAGE PATH
@@ -1188,11 +1259,13 @@ public class AdminDashboard extends JFrame {
                 destFile.toPath(), 
                 java.nio.file.StandardCopyOption.REPLACE_EXISTING
             );
+            ImageUtils.notifyImageChanged(destFile);
+            ImageUtils.generateThumbnails(destFile);
             
             return "assets/images/products/" + newFileName;
             
         } catch (Exception e) {
-            System.err.println("❌ Error copying image: " + e.getMessage());
+            Log.error("❌ Error copying image: " + e.getMessage());
             // Fallback ke default path
             return "assets/images/products/" + productId + ".png";
         }
@@ -1230,7 +1303,7 @@ public class AdminDashboard extends JFrame {
         // copy file
         String newPath = copyImageToProducts(selected, productId);
         // Provide feedback for debugging
-        System.out.println("📁 Copied image to: " + newPath + " (source: " + selected.getAbsolutePath() + ")");
+        Log.info("📁 Copied image to: " + newPath + " (source: " + selected.getAbsolutePath() + ")");
 
         p.setImagePath(newPath);
         boolean ok = db.updateProduct(p);
@@ -1454,7 +1527,7 @@ public class AdminDashboard extends JFrame {
             }
 
             try {
-                double price = Double.parseDouble(priceField.getText());
+                Money price = Money.parse(priceField.getText());
                 int stock = Integer.parseInt(stockField.getText());
                 double weight = weightField.getText().isEmpty() ? 0.0 : Double.parseDouble(weightField.getText());
 
@@ -1538,11 +1611,19 @@ public class AdminDashboard extends JFrame {
             JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            db.logout();
-            this.dispose();
-            new WelcomeFrame().setVisible(true);
+            // Flush cart ke database di background; window ditutup setelah selesai
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.logout(), done -> showWelcome(), error -> {
+                Log.error("❌ Error during logout: " + error.getMessage());
+                showWelcome();
+            });
         }
     }
+
+    private void showWelcome() {
+        this.dispose();
+        new WelcomeFrame().setVisible(true);
+    }
     
     // Custom cell renderer untuk center alignment
     private class CenterAlignedRenderer extends DefaultTableCellRenderer {
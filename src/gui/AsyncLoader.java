@@ -0,0 +1,89 @@
+package gui;
+
+import java.awt.Cursor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import utils.Log;
+
+/**
+ * Menjalankan request async untuk satu panel dan mengembalikan hasilnya ke EDT.
+ *
+ * - Setiap panel punya satu AsyncLoader. Request baru membatalkan request
+ *   sebelumnya, dan hasil request lama yang terlambat selesai diabaikan
+ *   (misal user klik tab kategori berturut-turut).
+ * - Selama request berjalan, panel memakai wait cursor dan callback
+ *   onLoading dipanggil supaya panel bisa menampilkan status "Loading...".
+ *
+ * Semua method harus dipanggil dari EDT.
+ */
+class AsyncLoader {
+    private final JComponent panel;
+    private CompletableFuture<?> current;
+    private int generation;
+
+    AsyncLoader(JComponent panel) {
+        this.panel = panel;
+    }
+
+    <T> void load(CompletableFuture<T> request, Runnable onLoading, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (current != null && !current.isDone()) {
+            current.cancel(false);
+        }
+        final int requestGeneration = ++generation;
+        current = request;
+
+        panel.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        if (onLoading != null) {
+            onLoading.run();
+        }
+
+        request.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (requestGeneration != generation) {
+                return; // Sudah ada request yang lebih baru
+            }
+            panel.setCursor(Cursor.getDefaultCursor());
+            if (error == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            if (onError != null) {
+                onError.accept(cause);
+            } else {
+                Log.error("❌ Async request failed: " + cause.getMessage());
+            }
+        }));
+    }
+
+    <T> void load(CompletableFuture<T> request, Consumer<T> onSuccess) {
+        load(request, null, onSuccess, null);
+    }
+
+    /**
+     * Untuk request sekali jalan yang tidak boleh dibatalkan (misal add to cart):
+     * callback dijalankan di EDT tanpa pengecekan request yang lebih baru.
+     */
+    static <T> void onEdt(CompletableFuture<T> request, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        request.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                onError.accept(cause);
+            }
+        }));
+    }
+
+    boolean isLoading() {
+        return current != null && !current.isDone();
+    }
+}
@@ -1,14 +1,19 @@
 package gui;
 
+import database.AsyncDatabaseService;
 import database.DatabaseManager;
+import database.ProductQuery;
 import model.User;
 import model.Customer;
 import model.OrderItem;
+import model.Money;
 import model.Product;
 import model.ShoppingCart;
 import model.CartItem;
+import model.CartListener;
 import utils.CurrencyUtils;
 import utils.ImageUtils;
+import utils.Log;
 
 import javax.swing.*;
 import java.awt.*;
@@ -24,9 +29,18 @@ import model.Order;
 public class CustomerDashboard extends JFrame {
     private User user;
     private DatabaseManager db;
+    private AsyncDatabaseService asyncDb;
     private JTabbedPane tabbedPane;
-    private JPanel productsPanel;
+    private VirtualProductGrid productsGrid;
+    private AsyncLoader productsLoader;
     private String currentCategory = "All";
+    // null = "Relevance": hasil search mengikuti urutan index, katalog memakai DEFAULT_CATALOG_SORT
+    private ProductQuery.Sort currentSort;
+    // Katalog tanpa keyword tidak punya relevance, jadi "Relevance" di katalog = harga termurah dulu
+    private static final ProductQuery.Sort DEFAULT_CATALOG_SORT = ProductQuery.Sort.PRICE_ASC;
+    
+    // Ongkos kirim flat 10.00 (= Rp 10.000) jika ada item yang dibeli
+    private static final Money SHIPPING_FEE = Money.ofMinor(1_000);
     
     // Cart related variables
     private JPanel cartItemsPanel;
@@ -41,9 +55,64 @@ public class CustomerDashboard extends JFrame {
     private Map<Integer, Boolean> selectedCartItems = new HashMap<>();
     private JLabel selectedItemsLabel;
     
+    // Keranjang yang sedang ditampilkan, instance yang sama dengan cart sesi di DatabaseManager.
+    // DatabaseManager mengubah model ini, lalu CartListener mem-patch baris yang berubah dan ringkasan saja.
+    private ShoppingCart cart;
+    private final Map<Integer, CartRow> cartRows = new HashMap<>();
+    private final CartListener cartListener = new CartListener() {
+        @Override
+        public void itemAdded(ShoppingCart source, CartItem item) {
+            onEdt(() -> {
+                if (cartRows.isEmpty()) {
+                    rebuildCartRows(); // Ganti pesan "cart kosong" dengan baris item
+                } else {
+                    addCartRow(item);
+                    cartItemsPanel.revalidate();
+                    updateCartSummary();
+                }
+            });
+        }
+
+        @Override
+        public void itemUpdated(ShoppingCart source, CartItem previous, CartItem updated) {
+            onEdt(() -> {
+                CartRow row = cartRows.get(updated.getCartItemId());
+                if (row != null) {
+                    row.bind(updated);
+                }
+                updateCartSummary();
+            });
+        }
+
+        @Override
+        public void itemRemoved(ShoppingCart source, CartItem item) {
+            onEdt(() -> {
+                CartRow row = cartRows.remove(item.getCartItemId());
+                selectedCartItems.remove(item.getCartItemId());
+                if (cartRows.isEmpty()) {
+                    rebuildCartRows(); // Tampilkan pesan "cart kosong"
+                    return;
+                }
+                if (row != null) {
+                    cartItemsPanel.remove(row.panel);
+                    cartItemsPanel.remove(row.spacer);
+                    cartItemsPanel.revalidate();
+                    cartItemsPanel.repaint();
+                }
+                updateCartSummary();
+            });
+        }
+
+        @Override
+        public void cartReset(ShoppingCart source) {
+            onEdt(CustomerDashboard.this::rebuildCartRows);
+        }
+    };
+    
     public CustomerDashboard(User user) {
         this.user = user;
         this.db = DatabaseManager.getInstance();
+        this.asyncDb = AsyncDatabaseService.getInstance();
         
         initializeFrame();
         setupUI();
@@ -239,8 +308,7 @@ public class CustomerDashboard extends JFrame {
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Error loading banner image: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error loading banner image: " + e.getMessage(), e);
             createSimpleBanner(heroPanel);
         }
         
@@ -319,7 +387,7 @@ public class CustomerDashboard extends JFrame {
             for (String ext : imageExtensions) {
                 String testPath = path + ext;
                 if (new File(testPath).exists()) {
-                    System.out.println("✅ Found banner image: " + testPath);
+                    Log.info("✅ Found banner image: " + testPath);
                     return testPath;
                 }
             }
@@ -336,12 +404,12 @@ public class CustomerDashboard extends JFrame {
             );
             
             if (files != null && files.length > 0) {
-                System.out.println("✅ Found banner image: " + files[0].getPath());
+                Log.info("✅ Found banner image: " + files[0].getPath());
                 return files[0].getPath();
             }
         }
         
-        System.out.println("❌ No banner image found, using default banner");
+        Log.error("❌ No banner image found, using default banner");
         return null;
     }
 
@@ -396,23 +464,23 @@ public class CustomerDashboard extends JFrame {
         featuredGrid.setBackground(Color.WHITE);
         featuredGrid.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
         
-        // Load featured products dari database - ambil 8 produk pertama
-        List<Product> allProducts = getProductsFromDatabase();
-        int productCount = Math.min(8, allProducts.size());
-        List<Product> featuredProducts = allProducts.subList(0, productCount);
-        
-        for (Product product : featuredProducts) {
-            JPanel productCard = createProductCard(product, true);
-            featuredGrid.add(productCard);
-        }
-        
-        // Jika produk kurang dari 8, tambahkan panel kosong
-        for (int i = featuredProducts.size(); i < 8; i++) {
+        // Slot kosong dulu, produk featured (8 produk pertama) diisi setelah data selesai dimuat di background
+        for (int i = 0; i < 8; i++) {
             JPanel emptyPanel = new JPanel();
             emptyPanel.setBackground(Color.WHITE);
             featuredGrid.add(emptyPanel);
         }
         
+        AsyncLoader.onEdt(asyncDb.getAllProducts(), allProducts -> {
+            int productCount = Math.min(8, allProducts.size());
+            for (int i = 0; i < productCount; i++) {
+                featuredGrid.remove(i);
+                featuredGrid.add(createProductCard(allProducts.get(i), true), i);
+            }
+            featuredGrid.revalidate();
+            featuredGrid.repaint();
+        }, error -> Log.error("❌ Error loading featured products: " + error.getMessage()));
+        
         featuredPanel.add(featuredLabel);
         featuredPanel.add(featuredGrid);
         
@@ -490,7 +558,16 @@ public class CustomerDashboard extends JFrame {
         JTextField searchField = new JTextField(25);
         searchField.setFont(new Font("SansSerif", Font.PLAIN, 14));
         
-        JComboBox<String> sortCombo = new JComboBox<>(new String[]{"Price: Low to High", "Price: High to Low", "Newest First"});
+        JComboBox<String> sortCombo = new JComboBox<>(new String[]{"Relevance", "Price: Low to High", "Price: High to Low", "Newest First"});
+        sortCombo.addActionListener(e -> {
+            currentSort = toSort((String) sortCombo.getSelectedItem());
+            String searchText = searchField.getText().trim();
+            if (!searchText.isEmpty()) {
+                searchProducts(searchText);
+            } else {
+                loadProductsByCategory(currentCategory);
+            }
+        });
         
         JButton searchButton = createStyledButton("🔍 Search", new Color(139, 69, 19));
         JButton clearButton = createStyledButton("Clear", new Color(100, 100, 100));
@@ -516,13 +593,14 @@ public class CustomerDashboard extends JFrame {
         filterPanel.add(searchButton);
         filterPanel.add(clearButton);
         
-        // Products panel
-        productsPanel = new JPanel(new GridLayout(0, 4, 25, 25));
-        productsPanel.setBackground(Color.WHITE);
-        productsPanel.setBorder(BorderFactory.createEmptyBorder(20, 40, 40, 40));
+        // Products grid (virtualized: hanya kartu yang terlihat yang dibuat)
+        productsGrid = new VirtualProductGrid(this::addToCart);
+        productsGrid.setBackground(Color.WHITE);
+        productsGrid.setBorder(BorderFactory.createEmptyBorder(20, 40, 40, 40));
+        productsLoader = new AsyncLoader(productsGrid);
         
         // Scroll pane
-        JScrollPane scrollPane = new JScrollPane(productsPanel);
+        JScrollPane scrollPane = new JScrollPane(productsGrid);
         scrollPane.setBorder(null);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
@@ -586,7 +664,7 @@ public class CustomerDashboard extends JFrame {
         titleLabel.setForeground(new Color(139, 69, 19));
         
         JButton refreshButton = createStyledButton("🔄 Refresh Cart", new Color(139, 69, 19));
-        refreshButton.addActionListener(e -> loadCartData());
+        refreshButton.addActionListener(e -> loadCartData(true));
         
         headerPanel.add(titleLabel, BorderLayout.WEST);
         headerPanel.add(refreshButton, BorderLayout.EAST);
@@ -641,13 +719,13 @@ public class CustomerDashboard extends JFrame {
         totalItemsLabel = new JLabel("0 items");
         totalItemsLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
         
-        subtotalLabel = new JLabel(CurrencyUtils.format(0));
+        subtotalLabel = new JLabel(CurrencyUtils.format(Money.ZERO));
         subtotalLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
         
-        shippingLabel = new JLabel(CurrencyUtils.format(0));
+        shippingLabel = new JLabel(CurrencyUtils.format(Money.ZERO));
         shippingLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
         
-        totalLabel = new JLabel(CurrencyUtils.format(0));
+        totalLabel = new JLabel(CurrencyUtils.format(Money.ZERO));
         totalLabel.setFont(new Font("SansSerif", Font.BOLD, 18));
         totalLabel.setForeground(new Color(0, 100, 0));
     
@@ -690,25 +768,29 @@ public class CustomerDashboard extends JFrame {
     }
 
     private void toggleSelectAll() {
-        ShoppingCart cart = db.getCurrentUserCart();
         if (cart == null || cart.isEmpty()) return;
         
-        boolean allSelected = cart.getItems().stream()
-                .allMatch(item -> selectedCartItems.getOrDefault(item.getCartItemId(), false));
+        boolean allSelected = cartRows.keySet().stream()
+                .allMatch(id -> selectedCartItems.getOrDefault(id, false));
         
         // Jika semua selected, deselect semua. Jika tidak, select semua.
         boolean newSelection = !allSelected;
         
-        for (CartItem item : cart.getItems()) {
-            selectedCartItems.put(item.getCartItemId(), newSelection);
+        for (Map.Entry<Integer, CartRow> entry : cartRows.entrySet()) {
+            selectedCartItems.put(entry.getKey(), newSelection);
+            entry.getValue().selectCheckbox.setSelected(newSelection);
         }
-        
-        // Refresh cart display
-        loadCartData();
+        updateCartSummary();
     }
 
     private void checkoutSelectedItems() {
-    ShoppingCart cart = db.getCurrentUserCart();
+        AsyncLoader.onEdt(asyncDb.getCurrentUserCart(), this::checkoutSelectedItems, error -> {
+            Log.error("❌ Error loading cart for checkout: " + error.getMessage());
+            checkoutSelectedItems(null);
+        });
+    }
+
+    private void checkoutSelectedItems(ShoppingCart cart) {
     if (cart == null || cart.isEmpty()) {
         JOptionPane.showMessageDialog(this,
             "Your cart is empty. Please add some items first.", 
@@ -729,9 +811,7 @@ public class CustomerDashboard extends JFrame {
     }
     
     // Hitung total untuk selected items saja
-    double selectedTotal = selectedItems.stream()
-            .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-            .sum();
+    Money selectedTotal = Money.ofMinor(ShoppingCart.getTotalMinorUnits(selectedItems));
     
     // Tampilkan dialog checkout
     String[] paymentMethods = {"QRIS", "COD", "Transfer"};
@@ -773,65 +853,69 @@ public class CustomerDashboard extends JFrame {
             JOptionPane.QUESTION_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                // ✅ PANGGIL METHOD DATABASE YANG BENAR
-                System.out.println("🛒 Starting checkout process...");
-                System.out.println("   Selected items: " + selectedItems.size());
-                System.out.println("   Total amount: " + CurrencyUtils.format(selectedTotal));
-                
-                boolean success = db.createOrderFromSelectedItems(selectedItems, selectedMethod, shippingAddress, notes, selectedTotal);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "🎉 ORDER PLACED SUCCESSFULLY!\n\n" +
-                        "Thank you for your purchase!\n" +
-                        "📦 Items Ordered: " + selectedItems.size() + " products\n" +
-                    "💰 Order Total: " + CurrencyUtils.format(selectedTotal) + "\n" +
-                        "💳 Payment Method: " + selectedMethod + "\n" +
-                        "🏠 Shipping to: " + shippingAddress + "\n\n" +
-                        "Selected items have been removed from cart.",
-                        "Order Confirmed", JOptionPane.INFORMATION_MESSAGE);
-                    
-                    // ✅ REFRESH DATA
-                    loadCartData(); // Refresh cart
-                    loadOrderHistory(); // Refresh orders
-                    tabbedPane.setSelectedIndex(3); // Switch to Orders tab
-                    
-            } else {
-                String errorMsg = db.getLastError();
-                String displayMsg = "❌ Failed to process order.\n\n";
-                
-                if (errorMsg != null && !errorMsg.isEmpty()) {
-                    displayMsg += "Error Details:\n" + errorMsg + "\n\n";
-                } else {
-                    displayMsg += "Please check the console for error details.\n\n";
-                }
-                
-                displayMsg += "Make sure:\n" +
-                             "• Database is connected\n" +
-                             "• Products are available\n" +
-                             "• Cart items are valid\n\n" +
-                             "Please try again or contact support.";
-                
-                JOptionPane.showMessageDialog(this,
-                    displayMsg, 
-                    "Checkout Error", JOptionPane.ERROR_MESSAGE);
-                
-                db.clearLastError();
-            }
-            } catch (Exception e) {
-                System.err.println("❌ Exception during checkout: " + e.getMessage());
-                e.printStackTrace();
+            // ✅ PANGGIL METHOD DATABASE YANG BENAR (di background)
+            Log.info("🛒 Starting checkout process...");
+            Log.info("   Selected items: " + selectedItems.size());
+            Log.info("   Total amount: " + CurrencyUtils.format(selectedTotal));
+            
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.createOrderFromSelectedItems(selectedItems, selectedMethod, shippingAddress, notes, selectedTotal), success -> {
+                setCursor(Cursor.getDefaultCursor());
+                handleSelectedCheckoutResult(selectedItems, selectedTotal, selectedMethod, shippingAddress, success);
+            }, e -> {
+                setCursor(Cursor.getDefaultCursor());
+                Log.error("❌ Exception during checkout: " + e.getMessage(), e);
                 JOptionPane.showMessageDialog(this,
                     "❌ Error during checkout:\n\n" +
                     e.getMessage() + "\n\n" +
                     "Please check the console for details.",
                     "Checkout Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 }
 
+    private void handleSelectedCheckoutResult(List<CartItem> selectedItems, Money selectedTotal, String selectedMethod,
+                                              String shippingAddress, boolean success) {
+        if (success) {
+            JOptionPane.showMessageDialog(this,
+                "🎉 ORDER PLACED SUCCESSFULLY!\n\n" +
+                "Thank you for your purchase!\n" +
+                "📦 Items Ordered: " + selectedItems.size() + " products\n" +
+                "💰 Order Total: " + CurrencyUtils.format(selectedTotal) + "\n" +
+                "💳 Payment Method: " + selectedMethod + "\n" +
+                "🏠 Shipping to: " + shippingAddress + "\n\n" +
+                "Selected items have been removed from cart.",
+                "Order Confirmed", JOptionPane.INFORMATION_MESSAGE);
+            
+            // Item yang dibeli sudah dihapus dari cart sesi oleh DatabaseManager
+            loadOrderHistory(); // Refresh orders
+            tabbedPane.setSelectedIndex(3); // Switch to Orders tab
+            
+        } else {
+            String errorMsg = db.getLastError();
+            String displayMsg = "❌ Failed to process order.\n\n";
+        
+            if (errorMsg != null && !errorMsg.isEmpty()) {
+                displayMsg += "Error Details:\n" + errorMsg + "\n\n";
+            } else {
+                displayMsg += "Please check the console for error details.\n\n";
+            }
+        
+            displayMsg += "Make sure:\n" +
+                         "• Database is connected\n" +
+                         "• Products are available\n" +
+                         "• Cart items are valid\n\n" +
+                         "Please try again or contact support.";
+        
+            JOptionPane.showMessageDialog(this,
+                displayMsg, 
+                "Checkout Error", JOptionPane.ERROR_MESSAGE);
+        
+            db.clearLastError();
+        }
+    }
+
     private String getItemsDetails(List<CartItem> items) {
         StringBuilder details = new StringBuilder();
         for (CartItem item : items) {
@@ -847,44 +931,39 @@ public class CustomerDashboard extends JFrame {
     private boolean createOrderForSelectedItems(List<CartItem> selectedItems, String paymentMethod, String shippingAddress, String notes) {
         try {
             // Hitung total untuk selected items
-            double totalAmount = selectedItems.stream()
-                    .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                    .sum();
-            
             // Simulasi create order - hapus selected items dari cart
             for (CartItem item : selectedItems) {
                 db.removeFromCart(item.getCartItemId());
             }
             
-            System.out.println("✅ Created order for " + selectedItems.size() + " selected items");
+            Log.info("✅ Created order for " + selectedItems.size() + " selected items");
             return true;
             
         } catch (Exception e) {
-            System.err.println("❌ Error creating order for selected items: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ Error creating order for selected items: " + e.getMessage(), e);
             return false;
         }
     }
 
     private void loadCartData() {
+        loadCartData(false);
+    }
+
+    /**
+     * @param reload true untuk membaca ulang dari database (tombol Refresh), false cukup
+     *               menampilkan cart sesi yang sudah ada di memori
+     */
+    private void loadCartData(boolean reload) {
         SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            private ShoppingCart cart;
-            private double subtotal;
-            private double shipping;
-            private double total;
-            private int totalItems;
+            private ShoppingCart loaded;
 
             @Override
             protected Void doInBackground() throws Exception {
-                cart = db.getCurrentUserCart();
-                if (cart != null) {
-                    subtotal = cart.getTotalAmount();
-                    shipping = subtotal > 0 ? 10.00 : 0.00;
-                    total = subtotal + shipping;
-                    totalItems = cart.getTotalItems();
-                    System.out.println("🛒 Cart loaded: " + totalItems + " items, Total: " + CurrencyUtils.format(total));
+                loaded = reload ? db.reloadCurrentUserCart() : db.getCurrentUserCart();
+                if (loaded != null) {
+                    Log.info("🛒 Cart loaded: " + loaded.getTotalItems() + " items, Total: " + CurrencyUtils.format(loaded.getTotalAmount()));
                 } else {
-                    System.out.println("🛒 Cart is empty or not found");
+                    Log.info("🛒 Cart is empty or not found");
                 }
                 return null;
             }
@@ -892,48 +971,9 @@ public class CustomerDashboard extends JFrame {
             @Override
             protected void done() {
                 try {
-                    cartItemsPanel.removeAll();
-                    selectedCartItems = new HashMap<>(); // Reset selected items
-                    
-                    if (cart == null || cart.isEmpty()) {
-                        // Show empty cart message
-                        JPanel emptyPanel = new JPanel(new BorderLayout());
-                        emptyPanel.setBackground(Color.WHITE);
-                        emptyPanel.setBorder(BorderFactory.createEmptyBorder(50, 0, 50, 0));
-                        
-                        JLabel emptyLabel = new JLabel("Your shopping cart is empty", JLabel.CENTER);
-                        emptyLabel.setFont(new Font("SansSerif", Font.ITALIC, 18));
-                        emptyLabel.setForeground(Color.GRAY);
-                        
-                        JLabel suggestionLabel = new JLabel("Browse our products and add some items to get started!", JLabel.CENTER);
-                        suggestionLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
-                        suggestionLabel.setForeground(Color.LIGHT_GRAY);
-                        
-                        emptyPanel.add(emptyLabel, BorderLayout.CENTER);
-                        emptyPanel.add(suggestionLabel, BorderLayout.SOUTH);
-                        
-                        cartItemsPanel.add(emptyPanel);
-                    } else {
-                        // Add cart items dengan checkbox
-                        for (CartItem item : cart.getItems()) {
-                            JPanel itemPanel = createCartItemPanel(item);
-                            cartItemsPanel.add(itemPanel);
-                            cartItemsPanel.add(Box.createVerticalStrut(10));
-                        }
-                        
-                        // Initialize semua item sebagai selected
-                        for (CartItem item : cart.getItems()) {
-                            selectedCartItems.put(item.getCartItemId(), true);
-                        }
-                    }
-
-                    updateCartSummary(); // Update summary dengan selected items
-                    cartItemsPanel.revalidate();
-                    cartItemsPanel.repaint();
-
+                    showCart(loaded);
                 } catch (Exception e) {
-                    System.err.println("❌ Error loading cart: " + e.getMessage());
-                    e.printStackTrace();
+                    Log.error("❌ Error loading cart: " + e.getMessage(), e);
                     JOptionPane.showMessageDialog(CustomerDashboard.this,
                         "Error loading cart: " + e.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -943,7 +983,105 @@ public class CustomerDashboard extends JFrame {
         worker.execute();
     }
 
-    private JPanel createCartItemPanel(CartItem item) {
+    /**
+     * Ganti keranjang yang ditampilkan (hasil load penuh dari database) dan bangun ulang semua baris.
+     */
+    private void showCart(ShoppingCart loaded) {
+        if (cart != null) {
+            cart.removeListener(cartListener);
+        }
+        cart = loaded;
+        if (cart != null) {
+            cart.addListener(cartListener);
+        }
+        selectedCartItems = new HashMap<>(); // Reset selected items
+        rebuildCartRows();
+    }
+
+    private void rebuildCartRows() {
+        cartItemsPanel.removeAll();
+        cartRows.clear();
+        
+        if (cart == null || cart.isEmpty()) {
+            // Show empty cart message
+            JPanel emptyPanel = new JPanel(new BorderLayout());
+            emptyPanel.setBackground(Color.WHITE);
+            emptyPanel.setBorder(BorderFactory.createEmptyBorder(50, 0, 50, 0));
+            
+            JLabel emptyLabel = new JLabel("Your shopping cart is empty", JLabel.CENTER);
+            emptyLabel.setFont(new Font("SansSerif", Font.ITALIC, 18));
+            emptyLabel.setForeground(Color.GRAY);
+            
+            JLabel suggestionLabel = new JLabel("Browse our products and add some items to get started!", JLabel.CENTER);
+            suggestionLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+            suggestionLabel.setForeground(Color.LIGHT_GRAY);
+            
+            emptyPanel.add(emptyLabel, BorderLayout.CENTER);
+            emptyPanel.add(suggestionLabel, BorderLayout.SOUTH);
+            
+            cartItemsPanel.add(emptyPanel);
+        } else {
+            // Add cart items dengan checkbox
+            for (CartItem item : cart.getItems()) {
+                addCartRow(item);
+            }
+        }
+
+        updateCartSummary(); // Update summary dengan selected items
+        cartItemsPanel.revalidate();
+        cartItemsPanel.repaint();
+    }
+
+    private void addCartRow(CartItem item) {
+        // Item baru default selected
+        selectedCartItems.putIfAbsent(item.getCartItemId(), true);
+        CartRow row = createCartRow(item);
+        cartRows.put(item.getCartItemId(), row);
+        cartItemsPanel.add(row.panel);
+        cartItemsPanel.add(row.spacer);
+    }
+
+    private static void onEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+
+    /**
+     * Komponen satu baris cart. Gambar dan layout dibuat sekali; perubahan quantity
+     * hanya mengganti teks label lewat bind().
+     */
+    private static final class CartRow {
+        final JPanel panel;
+        final Component spacer = Box.createVerticalStrut(10);
+        final JCheckBox selectCheckbox;
+        final JLabel quantityLabel;
+        final JLabel itemTotalLabel;
+        // Stok produk + quantity di cart saat baris dibuat: batas quantity maksimum item ini
+        final int availableStock;
+        // Quantity dari klik +/- yang belum diterapkan ke model di thread "db-cart" (null = tidak ada).
+        // Klik berikutnya dihitung dari nilai ini, bukan dari model, supaya klik beruntun tidak hilang
+        Integer pendingQuantity;
+        int updatesInFlight;
+
+        CartRow(JPanel panel, JCheckBox selectCheckbox, JLabel quantityLabel, JLabel itemTotalLabel, int availableStock) {
+            this.panel = panel;
+            this.selectCheckbox = selectCheckbox;
+            this.quantityLabel = quantityLabel;
+            this.itemTotalLabel = itemTotalLabel;
+            this.availableStock = availableStock;
+        }
+
+        void bind(CartItem item) {
+            int quantity = pendingQuantity != null ? pendingQuantity : item.getQuantity();
+            quantityLabel.setText(String.valueOf(quantity));
+            itemTotalLabel.setText("Total: " + CurrencyUtils.format(item.getProduct().getPrice().times(quantity)));
+        }
+    }
+
+    private CartRow createCartRow(CartItem item) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createCompoundBorder(
@@ -1018,9 +1156,10 @@ public class CustomerDashboard extends JFrame {
         JButton decreaseBtn = new JButton("-");
         decreaseBtn.setPreferredSize(new Dimension(30, 25));
         decreaseBtn.setFont(new Font("SansSerif", Font.BOLD, 12));
-        decreaseBtn.addActionListener(e -> updateQuantity(item, item.getQuantity() - 1));
+        int cartItemId = item.getCartItemId();
+        decreaseBtn.addActionListener(e -> changeQuantity(cartItemId, -1));
     
-        JLabel quantityLabel = new JLabel(String.valueOf(item.getQuantity()));
+        JLabel quantityLabel = new JLabel();
         quantityLabel.setPreferredSize(new Dimension(40, 25));
         quantityLabel.setHorizontalAlignment(JLabel.CENTER);
         quantityLabel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
@@ -1029,7 +1168,7 @@ public class CustomerDashboard extends JFrame {
         JButton increaseBtn = new JButton("+");
         increaseBtn.setPreferredSize(new Dimension(30, 25));
         increaseBtn.setFont(new Font("SansSerif", Font.BOLD, 12));
-        increaseBtn.addActionListener(e -> updateQuantity(item, item.getQuantity() + 1));
+        increaseBtn.addActionListener(e -> changeQuantity(cartItemId, 1));
     
         quantityPanel.add(decreaseBtn);
         quantityPanel.add(quantityLabel);
@@ -1039,11 +1178,15 @@ public class CustomerDashboard extends JFrame {
         JButton removeBtn = createStyledButton("🗑️ Remove", new Color(220, 20, 60));
         removeBtn.setFont(new Font("SansSerif", Font.PLAIN, 11));
         removeBtn.setPreferredSize(new Dimension(100, 25));
-        removeBtn.addActionListener(e -> removeItem(item));
+        removeBtn.addActionListener(e -> {
+            CartItem current = cart.getItem(cartItemId);
+            if (current != null) {
+                removeItem(current);
+            }
+        });
     
-        // Total price for this item
-        double itemTotal = product.getPrice() * item.getQuantity();
-        JLabel itemTotalLabel = new JLabel("Total: " + CurrencyUtils.format(itemTotal));
+        // Total price for this item (teks diisi CartRow.bind)
+        JLabel itemTotalLabel = new JLabel();
         itemTotalLabel.setFont(new Font("SansSerif", Font.BOLD, 12));
         itemTotalLabel.setForeground(new Color(139, 69, 19));
     
@@ -1056,28 +1199,31 @@ public class CustomerDashboard extends JFrame {
         panel.add(leftPanel, BorderLayout.CENTER);
         panel.add(rightPanel, BorderLayout.EAST);
     
-        return panel;
+        CartRow row = new CartRow(panel, selectCheckbox, quantityLabel, itemTotalLabel,
+                product.getStock() + item.getQuantity());
+        row.bind(item);
+        return row;
     }
 
     private void updateCartSummary() {
-        ShoppingCart cart = db.getCurrentUserCart();
-        if (cart == null || cart.isEmpty()) {
-            return;
-        }
-        
+        // Mulai dari total keranjang (dijaga incremental oleh ShoppingCart), kurangi item yang tidak dipilih
+        long selectedSubtotalMinor = 0;
         int totalSelectedItems = 0;
-        double selectedSubtotal = 0.0;
-        
-        // Hitung hanya items yang dipilih
-        for (CartItem item : cart.getItems()) {
-            if (selectedCartItems.getOrDefault(item.getCartItemId(), true)) {
-                totalSelectedItems += item.getQuantity();
-                selectedSubtotal += item.getProduct().getPrice() * item.getQuantity();
+        if (cart != null) {
+            selectedSubtotalMinor = cart.getTotalAmount().getMinorUnits();
+            totalSelectedItems = cart.getTotalItems();
+            for (Map.Entry<Integer, Boolean> entry : selectedCartItems.entrySet()) {
+                CartItem item = entry.getValue() ? null : cart.getItem(entry.getKey());
+                if (item != null) {
+                    totalSelectedItems -= item.getQuantity();
+                    selectedSubtotalMinor -= item.getProduct().getPrice().getMinorUnits() * item.getQuantity();
+                }
             }
         }
         
-        double shipping = selectedSubtotal > 0 ? 10.00 : 0.00;
-        double total = selectedSubtotal + shipping;
+        Money selectedSubtotal = Money.ofMinor(selectedSubtotalMinor);
+        Money shipping = selectedSubtotal.isPositive() ? SHIPPING_FEE : Money.ZERO;
+        Money total = selectedSubtotal.plus(shipping);
         
         // Update labels
         selectedItemsLabel.setText(totalSelectedItems + " items selected");
@@ -1087,30 +1233,62 @@ public class CustomerDashboard extends JFrame {
         totalLabel.setText(CurrencyUtils.format(total));
     }
 
-    private void updateQuantity(CartItem item, int newQuantity) {
+    private void changeQuantity(int cartItemId, int delta) {
+        CartItem current = cart != null ? cart.getItem(cartItemId) : null;
+        CartRow row = cartRows.get(cartItemId);
+        if (current == null || row == null) {
+            return;
+        }
+        int base = row.pendingQuantity != null ? row.pendingQuantity : current.getQuantity();
+        updateQuantity(current, row, base + delta);
+    }
+
+    private void updateQuantity(CartItem item, CartRow row, int newQuantity) {
         if (newQuantity <= 0) {
             removeItem(item);
             return;
         }
 
         // Check stock availability
-        int availableStock = item.getProduct().getStock() + item.getQuantity();
-        if (newQuantity > availableStock) {
+        if (newQuantity > row.availableStock) {
             JOptionPane.showMessageDialog(this,
-                "Only " + availableStock + " items available in stock",
+                "Only " + row.availableStock + " items available in stock",
                 "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        boolean success = db.updateCartItem(item.getCartItemId(), newQuantity);
-        if (success) {
-            JOptionPane.showMessageDialog(this,
-                "Quantity updated successfully!", "Success", 
-                JOptionPane.INFORMATION_MESSAGE);
-            loadCartData(); // Refresh cart display
-        } else {
+        // Label langsung menampilkan quantity baru; model di-patch lewat CartListener setelah
+        // update dijalankan berurutan di thread "db-cart". Tanpa dialog sukses supaya
+        // klik +/- beruntun bisa digabung write-behind jadi satu update database
+        row.pendingQuantity = newQuantity;
+        row.updatesInFlight++;
+        row.bind(item);
+        AsyncLoader.onEdt(asyncDb.updateCartItem(item.getCartItemId(), newQuantity), success -> {
+            finishQuantityUpdate(item.getCartItemId(), row);
+            if (!success) {
+                JOptionPane.showMessageDialog(this,
+                    "Failed to update quantity", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            finishQuantityUpdate(item.getCartItemId(), row);
+            Log.error("❌ Error updating cart item: " + error.getMessage());
             JOptionPane.showMessageDialog(this,
                 "Failed to update quantity", "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Setelah update terakhir yang tertunda selesai, baris kembali mengikuti model
+     * (termasuk jika update gagal dan quantity di model tidak berubah).
+     */
+    private void finishQuantityUpdate(int cartItemId, CartRow row) {
+        if (--row.updatesInFlight > 0) {
+            return;
+        }
+        row.pendingQuantity = null;
+        CartItem current = cart != null ? cart.getItem(cartItemId) : null;
+        if (current != null) {
+            row.bind(current);
         }
     }
 
@@ -1121,21 +1299,27 @@ public class CustomerDashboard extends JFrame {
             JOptionPane.QUESTION_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = db.removeFromCart(item.getCartItemId());
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                    "Item removed from cart", "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                loadCartData();
-            } else {
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.removeFromCart(item.getCartItemId()), success -> {
+                setCursor(Cursor.getDefaultCursor());
+                if (success) {
+                    JOptionPane.showMessageDialog(this,
+                        "Item removed from cart", "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Failed to remove item", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                setCursor(Cursor.getDefaultCursor());
+                Log.error("❌ Error removing cart item: " + error.getMessage());
                 JOptionPane.showMessageDialog(this,
                     "Failed to remove item", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
     private void clearCart() {
-        ShoppingCart cart = db.getCurrentUserCart();
         if (cart == null || cart.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Cart is already empty", "Info", JOptionPane.INFORMATION_MESSAGE);
@@ -1148,24 +1332,31 @@ public class CustomerDashboard extends JFrame {
             JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = db.clearCart();
-            if (success) {
-                JOptionPane.showMessageDialog(this,
-                    "Cart cleared successfully", "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                loadCartData();
-            } else {
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.clearCart(), success -> {
+                setCursor(Cursor.getDefaultCursor());
+                if (success) {
+                    JOptionPane.showMessageDialog(this,
+                        "Cart cleared successfully", "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Failed to clear cart", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> {
+                setCursor(Cursor.getDefaultCursor());
+                Log.error("❌ Error clearing cart: " + error.getMessage());
                 JOptionPane.showMessageDialog(this,
                     "Failed to clear cart", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
     private void loadOrderHistory() {
-        System.out.println("🔄 START loadOrderHistory()");
+        Log.info("🔄 START loadOrderHistory()");
         
         if (ordersPanel == null) {
-            System.err.println("❌ ordersPanel is NULL!");
+            Log.error("❌ ordersPanel is NULL!");
             return;
         }
 
@@ -1173,19 +1364,18 @@ public class CustomerDashboard extends JFrame {
             @Override
             protected List<Order> doInBackground() throws Exception {
                 try {
-                    System.out.println("📊 Fetching orders from database...");
+                    Log.info("📊 Fetching orders from database...");
                     List<Order> orders = db.getUserOrders();
-                    System.out.println("✅ Database returned: " + (orders != null ? orders.size() : "NULL") + " orders");
+                    Log.info("✅ Database returned: " + (orders != null ? orders.size() : "NULL") + " orders");
                     
                     if (orders == null) {
-                        System.out.println("⚠️ Orders is null, returning empty list");
+                        Log.warn("⚠️ Orders is null, returning empty list");
                         return new ArrayList<>();
                     }
                     return orders;
                     
                 } catch (Exception e) {
-                    System.err.println("❌ Error in doInBackground: " + e.getMessage());
-                    e.printStackTrace();
+                    Log.error("❌ Error in doInBackground: " + e.getMessage(), e);
                     return new ArrayList<>();
                 }
             }
@@ -1194,17 +1384,17 @@ public class CustomerDashboard extends JFrame {
             protected void done() {
                 try {
                     List<Order> orders = get();
-                    System.out.println("🎯 Processing " + orders.size() + " orders in UI");
+                    Log.info("🎯 Processing " + orders.size() + " orders in UI");
                     
                     // Clear existing content
                     ordersPanel.removeAll();
                     
                     if (orders.isEmpty()) {
-                        System.out.println("📭 No orders found, showing empty state");
+                        Log.info("📭 No orders found, showing empty state");
                         JPanel emptyPanel = createEmptyOrdersPanel();
                         ordersPanel.add(emptyPanel);
                     } else {
-                        System.out.println("🎨 Creating order cards...");
+                        Log.info("🎨 Creating order cards...");
                         
                         for (Order order : orders) {
                             JPanel orderCard = createOrderCard(order);
@@ -1212,17 +1402,16 @@ public class CustomerDashboard extends JFrame {
                             ordersPanel.add(Box.createVerticalStrut(15));
                         }
                         
-                        System.out.println("✅ Created " + orders.size() + " order cards");
+                        Log.info("✅ Created " + orders.size() + " order cards");
                     }
 
                     // Refresh UI
                     ordersPanel.revalidate();
                     ordersPanel.repaint();
-                    System.out.println("✅ Order history UI updated successfully");
+                    Log.info("✅ Order history UI updated successfully");
 
                 } catch (Exception e) {
-                    System.err.println("❌ Error in done(): " + e.getMessage());
-                    e.printStackTrace();
+                    Log.error("❌ Error in done(): " + e.getMessage(), e);
                     
                     // Show error in UI
                     ordersPanel.removeAll();
@@ -1241,7 +1430,7 @@ public class CustomerDashboard extends JFrame {
         };
         
         worker.execute();
-        System.out.println("🔄 END loadOrderHistory() - worker started");
+        Log.info("🔄 END loadOrderHistory() - worker started");
     }
 
     private JPanel createEmptyOrdersPanel() {
@@ -1282,7 +1471,7 @@ public class CustomerDashboard extends JFrame {
         String status = (order.getStatus() != null) ? order.getStatus() : "UNKNOWN";
         String paymentMethod = (order.getPaymentMethod() != null) ? order.getPaymentMethod() : "N/A";
         String date = (order.getFormattedDate() != null) ? order.getFormattedDate() : "N/A";
-        String total = (order.getFormattedTotal() != null) ? order.getFormattedTotal() : CurrencyUtils.format(0);
+        String total = (order.getFormattedTotal() != null) ? order.getFormattedTotal() : CurrencyUtils.format(Money.ZERO);
         int itemCount = (order.getItems() != null) ? order.getItems().size() : 0;
 
         JLabel orderIdLabel = new JLabel("Order #" + orderId);
@@ -1377,7 +1566,7 @@ public class CustomerDashboard extends JFrame {
         } else {
             details.append("• No items found\n");
             // Debug info
-            System.out.println("⚠️ Order " + order.getOrderId() + " has no items (items is " + 
+            Log.warn("⚠️ Order " + order.getOrderId() + " has no items (items is " + 
                              (order.getItems() == null ? "null" : "empty") + ")");
         }
         
@@ -1399,7 +1588,13 @@ public class CustomerDashboard extends JFrame {
     }
 
     private void checkout() {
-        ShoppingCart cart = db.getCurrentUserCart();
+        AsyncLoader.onEdt(asyncDb.getCurrentUserCart(), this::checkout, error -> {
+            Log.error("❌ Error loading cart for checkout: " + error.getMessage());
+            checkout(null);
+        });
+    }
+
+    private void checkout(ShoppingCart cart) {
         if (cart == null || cart.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Your cart is empty. Please add some items first.", 
@@ -1447,32 +1642,47 @@ public class CustomerDashboard extends JFrame {
                 JOptionPane.QUESTION_MESSAGE);
             
             if (confirm == JOptionPane.YES_OPTION) {
-                boolean success = db.createOrderFromCart(cart, selectedMethod, shippingAddress, notes);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(this,
-                        "🎉 ORDER PLACED SUCCESSFULLY!\n\n" +
-                        "Thank you for your purchase!\n" +
-                        "📦 Order Total: " + CurrencyUtils.format(cart.getTotalAmount()) + "\n" +
-                        "💳 Payment Method: " + selectedMethod + "\n" +
-                        "🏠 Shipping to: " + shippingAddress + "\n\n" +
-                        "You can view your order history in the Orders tab.",
-                        "Order Confirmed", JOptionPane.INFORMATION_MESSAGE);
-                    
-                    loadCartData(); // Refresh to show empty cart
-                    
-                    // Auto-switch to Orders tab
-                    tabbedPane.setSelectedIndex(3);
-                    loadOrderHistory(); // Refresh order history
-                    
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                        "Failed to process order. Please try again.", 
-                        "Checkout Error", JOptionPane.ERROR_MESSAGE);
-                }
+                Money orderTotal = cart.getTotalAmount(); // Cart dikosongkan oleh createOrderFromCart
+                setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                AsyncLoader.onEdt(asyncDb.createOrderFromCart(cart, selectedMethod, shippingAddress, notes), success -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    handleCheckoutResult(cart, orderTotal, selectedMethod, shippingAddress, success);
+                }, error -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    Log.error("❌ Exception during checkout: " + error.getMessage(), error);
+                    handleCheckoutResult(cart, orderTotal, selectedMethod, shippingAddress, false);
+                });
             }
         }
     }
+
+    private void handleCheckoutResult(ShoppingCart cart, Money orderTotal, String selectedMethod,
+                                      String shippingAddress, boolean success) {
+        if (success) {
+            JOptionPane.showMessageDialog(this,
+                "🎉 ORDER PLACED SUCCESSFULLY!\n\n" +
+                "Thank you for your purchase!\n" +
+                "📦 Order Total: " + CurrencyUtils.format(orderTotal) + "\n" +
+                "💳 Payment Method: " + selectedMethod + "\n" +
+                "🏠 Shipping to: " + shippingAddress + "\n\n" +
+                "You can view your order history in the Orders tab.",
+                "Order Confirmed", JOptionPane.INFORMATION_MESSAGE);
+            
+            // Seluruh cart sudah di-checkout dan dikosongkan; tampilkan jika belum terpasang
+            if (this.cart != cart) {
+                loadCartData();
+            }
+            
+            // Auto-switch to Orders tab
+            tabbedPane.setSelectedIndex(3);
+            loadOrderHistory(); // Refresh order history
+            
+        } else {
+            JOptionPane.showMessageDialog(this,
+                "Failed to process order. Please try again.", 
+                "Checkout Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
     
     private JPanel createHistoryPanel() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -1490,7 +1700,7 @@ public class CustomerDashboard extends JFrame {
         
         JButton refreshButton = createStyledButton("🔄 Refresh", new Color(139, 69, 19));
         refreshButton.addActionListener(e -> {
-            System.out.println("🔄 Manual refresh triggered");
+            Log.info("🔄 Manual refresh triggered");
             loadOrderHistory();
         });
     
@@ -1512,7 +1722,7 @@ public class CustomerDashboard extends JFrame {
         panel.add(scrollPane, BorderLayout.CENTER);
     
         // Load initial order data
-        System.out.println("🚀 Initializing orders tab...");
+        Log.info("🚀 Initializing orders tab...");
         loadOrderHistory();
     
         return panel;
@@ -1547,17 +1757,22 @@ public class CustomerDashboard extends JFrame {
         addProfileField(panel, gbc, "Address:", user.getAddress(), 5);
         addProfileField(panel, gbc, "Member Since:", "2024", 6);
         
-        // Load statistics from database
-        int totalOrders = db.getUserTotalOrders();
-        int totalItemsPurchased = db.getUserTotalItemsPurchased();
-        
-        addProfileField(panel, gbc, "Total Orders:", String.valueOf(totalOrders), 7);
-        addProfileField(panel, gbc, "Total Items Purchased:", String.valueOf(totalItemsPurchased), 8);
+        // Statistik dibaca dari database di background; field diisi setelah hasilnya ada
+        JTextField totalOrdersField = addProfileField(panel, gbc, "Total Orders:", "...", 7);
+        JTextField totalItemsField = addProfileField(panel, gbc, "Total Items Purchased:", "...", 8);
+        AsyncLoader.onEdt(asyncDb.getUserStats(), stats -> {
+            totalOrdersField.setText(String.valueOf(stats[0]));
+            totalItemsField.setText(String.valueOf(stats[1]));
+        }, error -> {
+            Log.error("❌ Error loading profile statistics: " + error.getMessage());
+            totalOrdersField.setText("-");
+            totalItemsField.setText("-");
+        });
         
         return panel;
     }
     
-    private void addProfileField(JPanel panel, GridBagConstraints gbc, String label, String value, int row) {
+    private JTextField addProfileField(JPanel panel, GridBagConstraints gbc, String label, String value, int row) {
         gbc.gridx = 0;
         gbc.gridy = row;
         JLabel fieldLabel = new JLabel(label);
@@ -1575,76 +1790,87 @@ public class CustomerDashboard extends JFrame {
         ));
         valueField.setEditable(false);
         panel.add(valueField, gbc);
+        return valueField;
     }
     
-    // METHOD YANG PALING PENTING: LOAD PRODUCTS DARI DATABASE
-    private List<Product> getProductsFromDatabase() {
-        System.out.println("📦 Loading products from database...");
-        List<Product> products = db.getAllProducts();
-        System.out.println("✅ Loaded " + products.size() + " products from database");
-        
-        // Debug: print semua produk dan kategorinya
-        for (Product product : products) {
-            System.out.println("   - " + product.getProductId() + ": " + product.getName() + 
-                             " | Category: " + product.getCategory() + 
-                             " | Stock: " + product.getStock());
+    // PERBAIKI METHOD LOAD PRODUCTS BY CATEGORY
+    // Data diambil di background thread, kartu produk dibangun di EDT setelah data siap
+    private void loadProductsByCategory(String category) {
+        Log.info("🛍️ Loading products for category: " + category);
+        
+        // Halaman pertama saja; halaman berikutnya dimuat grid saat user scroll
+        ProductQuery query = new ProductQuery(null, currentSort != null ? currentSort : DEFAULT_CATALOG_SORT);
+        if (!"All".equals(category)) {
+            // Convert display category to database category
+            String dbCategory = convertToDbCategory(category);
+            Log.info("🔍 Filtering by database category: " + dbCategory);
+            query.setCategory(dbCategory);
         }
         
-        return products;
+        productsLoader.load(asyncDb.getProductsPage(query, null), this::showProductsLoading, firstPage -> {
+            Log.info("✅ Loaded first page: " + firstPage.size() + " products for category: " + category);
+            
+            // JIKA TIDAK ADA PRODUK
+            JPanel emptyPanel = new JPanel(new BorderLayout());
+            emptyPanel.setBackground(Color.WHITE);
+            emptyPanel.setBorder(BorderFactory.createEmptyBorder(50, 0, 50, 0));
+            
+            JLabel noProducts = new JLabel(
+                "<html><div style='text-align: center; color: gray;'>" +
+                "No products found in " + category + " category<br>" +
+                "<small>Please check back later</small>" +
+                "</div></html>", 
+                JLabel.CENTER
+            );
+            noProducts.setFont(new Font("SansSerif", Font.ITALIC, 16));
+            emptyPanel.add(noProducts, BorderLayout.CENTER);
+            
+            // Halaman tidak penuh berarti tidak ada halaman berikutnya
+            VirtualProductGrid.PageLoader nextPages = firstPage.size() < query.getPageSize()
+                ? null : after -> asyncDb.getProductsPage(query, after);
+            productsGrid.setProducts(firstPage, nextPages, emptyPanel);
+            Log.info("🎉 Products display updated for category: " + category);
+        }, this::showProductsError);
     }
     
-    // PERBAIKI METHOD LOAD PRODUCTS BY CATEGORY
-private void loadProductsByCategory(String category) {
-    System.out.println("🛍️ Loading products for category: " + category);
-    
-    // BERSIHKAN PRODUCTS PANEL
-    productsPanel.removeAll();
-    
-    List<Product> filteredProducts;
-    
-    if ("All".equals(category)) {
-        filteredProducts = getProductsFromDatabase();
-    } else {
-        // Convert display category to database category
-        String dbCategory = convertToDbCategory(category);
-        System.out.println("🔍 Filtering by database category: " + dbCategory);
-        filteredProducts = getProductsFromDatabase().stream()
-            .filter(p -> p.getCategory().equalsIgnoreCase(dbCategory))
-            .collect(Collectors.toList());
-    } // ✅ FIX: TUTUP ELSE DI SINI
-    
-    System.out.println("✅ Found " + filteredProducts.size() + " products for category: " + category);
-    
-    // TAMBAHKAN PRODUCT CARDS
-    for (Product product : filteredProducts) {
-        JPanel productCard = createProductCard(product, false);
-        productsPanel.add(productCard);
+    /**
+     * Mengganti isi grid produk dengan products (diurutkan sesuai pilihan "Sort by",
+     * atau urutan aslinya jika "Relevance"), atau emptyState jika list kosong.
+     */
+    private void showProducts(List<Product> products, JComponent emptyState) {
+        if (currentSort == null) {
+            productsGrid.setProducts(products, null, emptyState);
+            return;
+        }
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(currentSort.comparator());
+        productsGrid.setProducts(sorted, null, emptyState);
     }
     
-    // JIKA TIDAK ADA PRODUK
-    if (filteredProducts.isEmpty()) {
-        JPanel emptyPanel = new JPanel(new BorderLayout());
-        emptyPanel.setBackground(Color.WHITE);
-        emptyPanel.setBorder(BorderFactory.createEmptyBorder(50, 0, 50, 0));
-        
-        JLabel noProducts = new JLabel(
-            "<html><div style='text-align: center; color: gray;'>" +
-            "No products found in " + category + " category<br>" +
-            "<small>Please check back later</small>" +
-            "</div></html>", 
-            JLabel.CENTER
-        );
-        noProducts.setFont(new Font("SansSerif", Font.ITALIC, 16));
-        emptyPanel.add(noProducts, BorderLayout.CENTER);
-        productsPanel.add(emptyPanel);
+    /**
+     * @return null untuk "Relevance"
+     */
+    private static ProductQuery.Sort toSort(String option) {
+        if ("Price: Low to High".equals(option)) return ProductQuery.Sort.PRICE_ASC;
+        if ("Price: High to Low".equals(option)) return ProductQuery.Sort.PRICE_DESC;
+        if ("Newest First".equals(option)) return ProductQuery.Sort.NEWEST;
+        return null;
     }
     
-    // REVALIDATE DAN REPAINT
-    productsPanel.revalidate();
-    productsPanel.repaint();
+    private void showProductsLoading() {
+        JLabel loadingLabel = new JLabel("⏳ Loading products...", JLabel.CENTER);
+        loadingLabel.setFont(new Font("SansSerif", Font.ITALIC, 16));
+        loadingLabel.setForeground(Color.GRAY);
+        productsGrid.showMessage(loadingLabel);
+    }
     
-    System.out.println("🎉 Products display updated for category: " + category);
-}
+    private void showProductsError(Throwable error) {
+        Log.error("❌ Error loading products: " + error.getMessage());
+        JLabel errorLabel = new JLabel("Failed to load products: " + error.getMessage(), JLabel.CENTER);
+        errorLabel.setFont(new Font("SansSerif", Font.ITALIC, 16));
+        errorLabel.setForeground(Color.RED);
+        productsGrid.showMessage(errorLabel);
+    }
     
     // METHOD KONVERSI CATEGORY
     private String convertToDbCategory(String displayCategory) {
@@ -1665,159 +1891,67 @@ private void loadProductsByCategory(String category) {
 }
     
     private void searchProducts(String searchText) {
-        System.out.println("🔍 Searching for: " + searchText);
-        
-        productsPanel.removeAll();
-        
-        List<Product> allProducts = getProductsFromDatabase();
-        List<Product> searchResults = allProducts.stream()
-            .filter(p -> p.getName().toLowerCase().contains(searchText.toLowerCase()) ||
-                        p.getCategory().toLowerCase().contains(searchText.toLowerCase()) ||
-                        p.getMaterial().toLowerCase().contains(searchText.toLowerCase()) ||
-                        (p.getDescription() != null && p.getDescription().toLowerCase().contains(searchText.toLowerCase())))
-            .collect(Collectors.toList());
-        
-        System.out.println("✅ Found " + searchResults.size() + " search results");
+        Log.info("🔍 Searching for: " + searchText);
         
-        for (Product product : searchResults) {
-            JPanel productCard = createProductCard(product, false);
-            productsPanel.add(productCard);
-        }
-        
-        if (searchResults.isEmpty()) {
+        productsLoader.load(asyncDb.searchProducts(searchText), this::showProductsLoading, searchResults -> {
+            Log.info("✅ Found " + searchResults.size() + " search results");
+            
             JLabel noResults = new JLabel("No products found for: '" + searchText + "'", JLabel.CENTER);
             noResults.setFont(new Font("SansSerif", Font.ITALIC, 16));
             noResults.setForeground(Color.GRAY);
-            productsPanel.add(noResults);
-        }
-        
-        productsPanel.revalidate();
-        productsPanel.repaint();
+            showProducts(searchResults, noResults);
+        }, this::showProductsError);
     }
     
     private JPanel createProductCard(Product product, boolean isFeatured) {
-        int width = isFeatured ? 280 : 300;
-        int height = isFeatured ? 380 : 420;
-        
-        JPanel card = new JPanel(new BorderLayout());
-        card.setPreferredSize(new Dimension(width, height));
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(220, 220, 220), 1),
-            BorderFactory.createEmptyBorder(15, 15, 15, 15)
-        ));
-        
-        // Debug info
-        System.out.println("🛍️ Creating card for: " + product.getName() + " | Category: " + product.getCategory());
-        
-        // Product image
-        JLabel imageLabel = new JLabel();
-        imageLabel.setHorizontalAlignment(JLabel.CENTER);
-        imageLabel.setPreferredSize(new Dimension(width - 30, isFeatured ? 180 : 220));
-        
-        ImageIcon productImage = ImageUtils.getProductImage(product.getImagePath(), width - 30, isFeatured ? 180 : 220);
-        imageLabel.setIcon(productImage);
-        
-        // Product info - GUNAKAN BOX LAYOUT UNTUK FLEXIBILITAS LEBIH BAIK
-        JPanel infoPanel = new JPanel();
-        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-        infoPanel.setBackground(Color.WHITE);
-        
-        JLabel nameLabel = new JLabel("<html><div style='width:" + (width - 40) + "px'>" + product.getName() + "</div></html>");
-        nameLabel.setFont(new Font("SansSerif", Font.BOLD, isFeatured ? 14 : 15));
-        nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel materialLabel = new JLabel("💎 " + product.getMaterial() + " • " + product.getCategory());
-        materialLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-        materialLabel.setForeground(Color.GRAY);
-        materialLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel priceLabel = new JLabel(product.getFormattedPrice());
-        priceLabel.setFont(new Font("SansSerif", Font.BOLD, isFeatured ? 16 : 18));
-        priceLabel.setForeground(new Color(0, 100, 0));
-        priceLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel stockLabel = new JLabel("📦 Stock: " + product.getStock() + " available");
-        stockLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
-        stockLabel.setForeground(product.getStock() > 0 ? new Color(0, 100, 0) : Color.RED);
-        stockLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        infoPanel.add(nameLabel);
-        infoPanel.add(Box.createVerticalStrut(5));
-        infoPanel.add(materialLabel);
-        infoPanel.add(Box.createVerticalStrut(5));
-        infoPanel.add(priceLabel);
-        infoPanel.add(Box.createVerticalStrut(5));
-        infoPanel.add(stockLabel);
-        
-        if (!isFeatured && product.hasGemstone()) {
-            JLabel gemstoneLabel = new JLabel("✨ " + product.getGemstoneType() + " Gemstone");
-            gemstoneLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
-            gemstoneLabel.setForeground(new Color(139, 69, 19));
-            gemstoneLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-            infoPanel.add(Box.createVerticalStrut(5));
-            infoPanel.add(gemstoneLabel);
-        }
-        
-        // Add to cart button
-        JButton addToCartButton = new JButton(isFeatured ? "🛒 Add to Cart" : "Add to Cart");
-        addToCartButton.setBackground(new Color(139, 69, 19));
-        addToCartButton.setForeground(Color.WHITE);
-        addToCartButton.setFocusPainted(false);
-        addToCartButton.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
-        addToCartButton.setFont(new Font("SansSerif", Font.BOLD, isFeatured ? 12 : 13));
-        addToCartButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        
-        addToCartButton.addActionListener(e -> addToCart(product));
-        
-        card.add(imageLabel, BorderLayout.NORTH);
-        card.add(infoPanel, BorderLayout.CENTER);
-        card.add(addToCartButton, BorderLayout.SOUTH);
-        
+        ProductCardView card = new ProductCardView(isFeatured, this::addToCart);
+        card.bind(product);
         return card;
     }
     
     // PERBAIKI ADD TO CART METHOD
     private void addToCart(Product product) {
-        System.out.println("=== 🎯 CUSTOMER DASHBOARD ADD TO CART CALLED ===");
-        System.out.println("📦 Product: " + product.getProductId() + " - " + product.getName());
-        System.out.println("👤 Current user: " + (user != null ? user.getUsername() : "NULL"));
-        
-        System.out.println("=== 🛒 DEBUG ADD TO CART START ===");
-        System.out.println("👤 Current user: " + (user != null ? user.getUsername() : "NULL"));
-        System.out.println("📦 Product: " + product.getProductId() + " - " + product.getName());
-        System.out.println("💰 Price: " + product.getPrice());
-        System.out.println("📊 Stock: " + product.getStock());
+        Log.debug(() -> "=== 🛒 ADD TO CART START === user: " + (user != null ? user.getUsername() : "NULL")
+                + ", product: " + product.getProductId() + " - " + product.getName()
+                + ", price: " + product.getPrice() + ", stock: " + product.getStock());
         
         // Cek apakah user sudah login di DatabaseManager
         if (db.getCurrentUser() == null) {
-            System.err.println("❌ ERROR: No user logged in DatabaseManager!");
+            Log.error("❌ ERROR: No user logged in DatabaseManager!");
             JOptionPane.showMessageDialog(this, 
                 "Session error. Please logout and login again.", 
                 "Session Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        System.out.println("✅ User is logged in DatabaseManager: " + db.getCurrentUser().getUserId());
-        
-        // Refresh product data dari database untuk mendapatkan stock terbaru
-        System.out.println("🔄 Getting fresh product data from database...");
-        Product currentProduct = db.getProductById(product.getProductId());
+        // Refresh product data dari database untuk mendapatkan stock terbaru (di background)
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        AsyncLoader.onEdt(asyncDb.getProductById(product.getProductId()), currentProduct -> {
+            setCursor(Cursor.getDefaultCursor());
+            promptAddToCart(currentProduct);
+        }, error -> {
+            setCursor(Cursor.getDefaultCursor());
+            Log.error("❌ ERROR: Failed to load product: " + error.getMessage());
+            JOptionPane.showMessageDialog(this, 
+                "Failed to load product data. Please try again.", 
+                "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    private void promptAddToCart(Product currentProduct) {
         if (currentProduct == null) {
-            System.err.println("❌ ERROR: Product not found in database!");
+            Log.error("❌ ERROR: Product not found in database!");
             JOptionPane.showMessageDialog(this, 
                 "Product not found in database!", 
                 "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        System.out.println("✅ Product found in database:");
-        System.out.println("   Name: " + currentProduct.getName());
-        System.out.println("   Price: " + currentProduct.getPrice());
-        System.out.println("   Stock: " + currentProduct.getStock());
+        Log.debug(() -> "✅ Fresh product: " + currentProduct.getName()
+                + ", price: " + currentProduct.getPrice() + ", stock: " + currentProduct.getStock());
         
         if (currentProduct.getStock() <= 0) {
-            System.err.println("❌ ERROR: Product out of stock!");
+            Log.error("❌ ERROR: Product out of stock!");
             JOptionPane.showMessageDialog(this, 
                 "Sorry, this product is out of stock!", 
                 "Out of Stock", JOptionPane.WARNING_MESSAGE);
@@ -1849,58 +1983,63 @@ private void loadProductsByCategory(String category) {
                     return;
                 }
                 
-                System.out.println("🛒 Attempting to add to cart:");
-                System.out.println("   Product: " + currentProduct.getName() + " x" + quantity);
-                System.out.println("   User ID: " + db.getCurrentUser().getUserId());
-                
-                // PANGGIL METHOD ADD TO CART DARI DATABASE MANAGER
-                boolean success = db.addToCart(currentProduct, quantity);
-                
-                System.out.println("✅ Add to cart result: " + success);
+                Log.debug(() -> "🛒 Attempting to add to cart: " + currentProduct.getName() + " x" + quantity);
                 
-                if (success) {
-                    System.out.println("🎉 SUCCESS: Item added to cart!");
-                    
-                    // TAMPILKAN DIALOG KONFIRMASI DENGAN OPSI
-                    Object[] options = {"Continue Shopping", "View Cart"};
-                    int choice = JOptionPane.showOptionDialog(this,
-                        "✅ Successfully added to cart!\n\n" +
-                        currentProduct.getName() + " x" + quantity + "\n" +
-                        "Total: " + CurrencyUtils.format(currentProduct.getPrice() * quantity) + "\n\n" +
-                        "What would you like to do next?",
-                        "Added to Cart",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.INFORMATION_MESSAGE,
-                        null,
-                        options,
-                        options[1]);
-                    
-                    // Refresh products to update stock display
-                    loadProductsByCategory(currentCategory);
-                    
-                    // Jika user pilih "View Cart" atau close dialog, arahkan ke cart
-                    if (choice == 1 || choice == JOptionPane.CLOSED_OPTION) {
-                        tabbedPane.setSelectedIndex(2); // Switch to cart tab
-                        loadCartData(); // Refresh cart data
-                    }
-                    
-                } else {
-                    System.err.println("❌ ERROR: Failed to add item to cart");
-                    JOptionPane.showMessageDialog(this, 
-                        "Failed to add item to cart. Please try again.", 
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                // PANGGIL METHOD ADD TO CART DARI DATABASE MANAGER (di background)
+                setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                AsyncLoader.onEdt(asyncDb.addToCart(currentProduct, quantity), success -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    handleAddToCartResult(currentProduct, quantity, success);
+                }, error -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    Log.error("❌ ERROR: Add to cart failed: " + error.getMessage());
+                    handleAddToCartResult(currentProduct, quantity, false);
+                });
                 
             } catch (NumberFormatException ex) {
-                System.err.println("❌ ERROR: Invalid quantity input");
+                Log.error("❌ ERROR: Invalid quantity input");
                 JOptionPane.showMessageDialog(this, 
                     "Please enter a valid number", 
                     "Invalid Input", JOptionPane.ERROR_MESSAGE);
             }
         } else {
-            System.out.println("ℹ️ User cancelled quantity input");
+            Log.debug("ℹ️ User cancelled quantity input");
+        }
+    }
+    
+    private void handleAddToCartResult(Product currentProduct, int quantity, boolean success) {
+        if (success) {
+            Log.info("🎉 Added to cart: " + currentProduct.getProductId() + " x" + quantity);
+            
+            // TAMPILKAN DIALOG KONFIRMASI DENGAN OPSI
+            Object[] options = {"Continue Shopping", "View Cart"};
+            int choice = JOptionPane.showOptionDialog(this,
+                "✅ Successfully added to cart!\n\n" +
+                currentProduct.getName() + " x" + quantity + "\n" +
+                "Total: " + CurrencyUtils.format(currentProduct.getPrice().times(quantity)) + "\n\n" +
+                "What would you like to do next?",
+                "Added to Cart",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.INFORMATION_MESSAGE,
+                null,
+                options,
+                options[1]);
+            
+            // Refresh products to update stock display
+            loadProductsByCategory(currentCategory);
+            
+            // Jika user pilih "View Cart" atau close dialog, arahkan ke cart
+            if (choice == 1 || choice == JOptionPane.CLOSED_OPTION) {
+                tabbedPane.setSelectedIndex(2); // Switch to cart tab
+                loadCartData(); // Refresh cart data
+            }
+            
+        } else {
+            Log.error("❌ ERROR: Failed to add item to cart");
+            JOptionPane.showMessageDialog(this, 
+                "Failed to add item to cart. Please try again.", 
+                "Error", JOptionPane.ERROR_MESSAGE);
         }
-        System.out.println("=== 🛒 DEBUG ADD TO CART END ===");
     }
     
     private JButton createStyledButton(String text, Color color) {
@@ -1920,9 +2059,17 @@ private void loadProductsByCategory(String category) {
             JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            db.logout();
-            this.dispose();
-            new WelcomeFrame().setVisible(true);
+            // Flush cart ke database di background; window ditutup setelah selesai
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            AsyncLoader.onEdt(asyncDb.logout(), done -> showWelcome(), error -> {
+                Log.error("❌ Error during logout: " + error.getMessage());
+                showWelcome();
+            });
         }
     }
+
+    private void showWelcome() {
+        this.dispose();
+        new WelcomeFrame().setVisible(true);
+    }
 }
@@ -0,0 +1,145 @@
+package gui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.File;
+import java.util.Locale;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+
+import database.DatabaseConnection;
+import utils.Log;
+import utils.Metrics;
+
+/**
+ * Tab Diagnostics di AdminDashboard: jumlah pemanggilan, error, dan latency
+ * (mean/p50/p90/p99/max) setiap method DAO dan DatabaseManager dari Metrics,
+ * ditambah status connection pool. Diperbarui setiap 2 detik selama tab terlihat;
+ * timer hanya berjalan selama panel terpasang di window (berhenti saat dashboard di-dispose).
+ */
+class DiagnosticsPanel extends JPanel {
+    private static final int REFRESH_MILLIS = 2000;
+    private static final String[] COLUMNS = {
+        "Method", "Calls", "Errors", "Mean (ms)", "p50 (ms)", "p90 (ms)", "p99 (ms)", "Max (ms)"
+    };
+
+    private final DefaultTableModel model;
+    private final JLabel statusLabel = new JLabel();
+    private final Timer refreshTimer;
+
+    DiagnosticsPanel(Color primary, Color dark) {
+        super(new BorderLayout());
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JPanel top = new JPanel(new BorderLayout());
+        top.setBackground(Color.WHITE);
+        JLabel titleLabel = new JLabel("🩺 Diagnostics");
+        titleLabel.setFont(new Font("Serif", Font.BOLD, 24));
+        titleLabel.setForeground(dark);
+        top.add(titleLabel, BorderLayout.WEST);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.setOpaque(false);
+        JButton resetBtn = createButton("🔄 Reset", primary);
+        JButton dumpBtn = createButton("💾 Dump JSON", primary);
+        buttons.add(resetBtn);
+        buttons.add(dumpBtn);
+        top.add(buttons, BorderLayout.EAST);
+        add(top, BorderLayout.NORTH);
+
+        model = new DefaultTableModel(COLUMNS, 0) {
+            @Override public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(model);
+        table.setRowHeight(28);
+        table.getTableHeader().setBackground(primary);
+        table.getTableHeader().setForeground(Color.WHITE);
+        table.getTableHeader().setFont(new Font("SansSerif", Font.BOLD, 12));
+        table.getColumnModel().getColumn(0).setPreferredWidth(320);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        statusLabel.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+        add(statusLabel, BorderLayout.SOUTH);
+
+        resetBtn.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+        dumpBtn.addActionListener(e -> {
+            File target = Metrics.getDumpFile();
+            if (Metrics.dumpJson(target)) {
+                JOptionPane.showMessageDialog(this, "Metrics saved to " + target.getAbsolutePath(),
+                    "Dump JSON", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to write " + target.getAbsolutePath(),
+                    "Dump JSON", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        // Snapshot hanya membaca counter in-memory, aman dijalankan di EDT
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> {
+            if (isShowing()) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        model.setRowCount(0);
+        for (Metrics.Snapshot s : Metrics.snapshot()) {
+            model.addRow(new Object[] {
+                s.getName(), s.getCalls(), s.getErrors(),
+                ms(s.getMeanMillis()), ms(s.getP50Millis()), ms(s.getP90Millis()),
+                ms(s.getP99Millis()), ms(s.getMaxMillis())
+            });
+        }
+        statusLabel.setText("Pool: " + DatabaseConnection.getPoolStatus()
+            + "   |   Dropped log messages: " + Log.getDroppedCount());
+    }
+
+    private static String ms(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    private static JButton createButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(color.darker(), 1),
+            BorderFactory.createEmptyBorder(10, 15, 10, 15)
+        ));
+        button.setFont(new Font("SansSerif", Font.BOLD, 12));
+        button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+}
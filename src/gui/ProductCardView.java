@@ -0,0 +1,173 @@
+package gui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import model.Product;
+import utils.ImageUtils;
+
+/**
+ * Kartu produk yang bisa dipakai ulang untuk produk lain lewat bind().
+ *
+ * Komponen dibuat sekali; bind() hanya mengganti teks label. Gambar ditampilkan
+ * dari cache jika ada, jika tidak placeholder dulu lalu gambar asli di-load di
+ * background. Hasil load untuk produk yang sudah tidak terikat ke kartu ini
+ * (kartu sudah di-recycle saat scroll) diabaikan.
+ */
+class ProductCardView extends JPanel {
+    static final int CATALOG_WIDTH = 300;
+    static final int CATALOG_HEIGHT = 420;
+    static final int FEATURED_WIDTH = 280;
+    static final int FEATURED_HEIGHT = 380;
+
+    private final boolean featured;
+    private final int imageWidth;
+    private final int imageHeight;
+
+    private final JLabel imageLabel = new JLabel();
+    private final JLabel nameLabel = new JLabel();
+    private final JLabel materialLabel = new JLabel();
+    private final JLabel priceLabel = new JLabel();
+    private final JLabel stockLabel = new JLabel();
+    private final JLabel gemstoneLabel = new JLabel();
+    private final Component gemstoneGap = Box.createVerticalStrut(5);
+
+    private Product product;
+    private CompletableFuture<ImageIcon> pendingImage;
+
+    ProductCardView(boolean featured, Consumer<Product> onAddToCart) {
+        super(new BorderLayout());
+        this.featured = featured;
+        int width = featured ? FEATURED_WIDTH : CATALOG_WIDTH;
+        int height = featured ? FEATURED_HEIGHT : CATALOG_HEIGHT;
+        this.imageWidth = width - 30;
+        this.imageHeight = featured ? 180 : 220;
+
+        setPreferredSize(new Dimension(width, height));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(220, 220, 220), 1),
+            BorderFactory.createEmptyBorder(15, 15, 15, 15)
+        ));
+
+        // Product image
+        imageLabel.setHorizontalAlignment(JLabel.CENTER);
+        imageLabel.setPreferredSize(new Dimension(imageWidth, imageHeight));
+
+        // Product info - GUNAKAN BOX LAYOUT UNTUK FLEXIBILITAS LEBIH BAIK
+        JPanel infoPanel = new JPanel();
+        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+        infoPanel.setBackground(Color.WHITE);
+
+        nameLabel.setFont(new Font("SansSerif", Font.BOLD, featured ? 14 : 15));
+        nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        materialLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        materialLabel.setForeground(Color.GRAY);
+        materialLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        priceLabel.setFont(new Font("SansSerif", Font.BOLD, featured ? 16 : 18));
+        priceLabel.setForeground(new Color(0, 100, 0));
+        priceLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        stockLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        stockLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        gemstoneLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        gemstoneLabel.setForeground(new Color(139, 69, 19));
+        gemstoneLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        infoPanel.add(nameLabel);
+        infoPanel.add(Box.createVerticalStrut(5));
+        infoPanel.add(materialLabel);
+        infoPanel.add(Box.createVerticalStrut(5));
+        infoPanel.add(priceLabel);
+        infoPanel.add(Box.createVerticalStrut(5));
+        infoPanel.add(stockLabel);
+        infoPanel.add(gemstoneGap);
+        infoPanel.add(gemstoneLabel);
+
+        // Add to cart button
+        JButton addToCartButton = new JButton(featured ? "🛒 Add to Cart" : "Add to Cart");
+        addToCartButton.setBackground(new Color(139, 69, 19));
+        addToCartButton.setForeground(Color.WHITE);
+        addToCartButton.setFocusPainted(false);
+        addToCartButton.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+        addToCartButton.setFont(new Font("SansSerif", Font.BOLD, featured ? 12 : 13));
+        addToCartButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        addToCartButton.addActionListener(e -> {
+            if (product != null) {
+                onAddToCart.accept(product);
+            }
+        });
+
+        add(imageLabel, BorderLayout.NORTH);
+        add(infoPanel, BorderLayout.CENTER);
+        add(addToCartButton, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Tampilkan produk di kartu ini. Harus dipanggil dari EDT.
+     */
+    void bind(Product product) {
+        if (this.product == product) {
+            return; // Sudah menampilkan produk yang sama
+        }
+        this.product = product;
+        int width = featured ? FEATURED_WIDTH : CATALOG_WIDTH;
+
+        nameLabel.setText("<html><div style='width:" + (width - 40) + "px'>" + product.getName() + "</div></html>");
+        materialLabel.setText("💎 " + product.getMaterial() + " • " + product.getCategory());
+        priceLabel.setText(product.getFormattedPrice());
+        stockLabel.setText("📦 Stock: " + product.getStock() + " available");
+        stockLabel.setForeground(product.getStock() > 0 ? new Color(0, 100, 0) : Color.RED);
+
+        boolean showGemstone = !featured && product.hasGemstone();
+        gemstoneLabel.setText(showGemstone ? "✨ " + product.getGemstoneType() + " Gemstone" : "");
+        gemstoneLabel.setVisible(showGemstone);
+        gemstoneGap.setVisible(showGemstone);
+
+        loadImage(product);
+    }
+
+    Product getProduct() {
+        return product;
+    }
+
+    private void loadImage(Product bound) {
+        if (pendingImage != null) {
+            pendingImage.cancel(false);
+            pendingImage = null;
+        }
+        ImageIcon cached = ImageUtils.getCachedProductImage(bound.getImagePath(), imageWidth, imageHeight);
+        if (cached != null) {
+            imageLabel.setIcon(cached);
+            return;
+        }
+
+        imageLabel.setIcon(ImageUtils.getDefaultProductIcon(imageWidth, imageHeight));
+        CompletableFuture<ImageIcon> request = ImageUtils.getProductImageAsync(bound.getImagePath(), imageWidth, imageHeight);
+        pendingImage = request;
+        request.thenAccept(icon -> SwingUtilities.invokeLater(() -> {
+            if (product == bound) {
+                imageLabel.setIcon(icon);
+                pendingImage = null;
+            }
+        }));
+    }
+}
@@ -0,0 +1,291 @@
+package gui;
+
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+
+import model.Product;
+import utils.Log;
+
+/**
+ * Grid produk 4 kolom yang hanya membuat kartu untuk baris yang terlihat.
+ *
+ * - Kartu (ProductCardView) di-recycle saat scroll, sehingga jumlah komponen
+ *   tetap kecil berapa pun jumlah produk.
+ * - Data dimuat per halaman: saat user scroll mendekati akhir data, halaman
+ *   berikutnya diminta lewat PageLoader dengan produk terakhir sebagai cursor.
+ * - Loading/error/empty state ditampilkan lewat showMessage().
+ *
+ * Semua method harus dipanggil dari EDT.
+ */
+class VirtualProductGrid extends JPanel implements Scrollable {
+    private static final int COLUMNS = 4;
+    private static final int GAP = 25;
+    private static final int CELL_WIDTH = ProductCardView.CATALOG_WIDTH;
+    private static final int CELL_HEIGHT = ProductCardView.CATALOG_HEIGHT;
+    // Baris ekstra di atas/bawah area terlihat supaya scroll tidak memperlihatkan cell kosong
+    private static final int BUFFER_ROWS = 1;
+    // Halaman berikutnya diminta jika sisa data kurang dari sekian baris
+    private static final int PREFETCH_ROWS = 2;
+    private static final int MESSAGE_HEIGHT = 150;
+
+    /**
+     * Sumber halaman berikutnya. after = produk terakhir yang sudah dimuat.
+     * Halaman kosong berarti data sudah habis.
+     */
+    interface PageLoader {
+        CompletableFuture<List<Product>> nextPage(Product after);
+    }
+
+    private final Consumer<Product> onAddToCart;
+    private final List<Product> products = new ArrayList<>();
+    private final Map<Integer, ProductCardView> visibleCards = new HashMap<>();
+    private final Deque<ProductCardView> recycled = new ArrayDeque<>();
+    private final ChangeListener viewportListener = e -> updateVisibleCards();
+
+    private PageLoader pageLoader;
+    private boolean hasMore;
+    private CompletableFuture<List<Product>> pendingPage;
+    private int generation;
+    private JComponent message;
+    private JViewport viewport;
+
+    VirtualProductGrid(Consumer<Product> onAddToCart) {
+        super(null);
+        this.onAddToCart = onAddToCart;
+    }
+
+    /**
+     * Tampilkan halaman pertama; halaman berikutnya dimuat lewat nextPages saat scroll.
+     * emptyState ditampilkan jika halaman pertama kosong.
+     */
+    void setProducts(List<Product> firstPage, PageLoader nextPages, JComponent emptyState) {
+        resetData();
+        products.addAll(firstPage);
+        pageLoader = nextPages;
+        hasMore = nextPages != null && !firstPage.isEmpty();
+        if (firstPage.isEmpty()) {
+            setMessage(emptyState);
+        }
+        refresh();
+    }
+
+    /**
+     * Ganti seluruh isi grid dengan satu komponen (loading, error, dsb).
+     */
+    void showMessage(JComponent component) {
+        resetData();
+        setMessage(component);
+        refresh();
+    }
+
+    private void resetData() {
+        generation++;
+        if (pendingPage != null) {
+            pendingPage.cancel(false);
+            pendingPage = null;
+        }
+        products.clear();
+        pageLoader = null;
+        hasMore = false;
+        for (ProductCardView card : visibleCards.values()) {
+            card.setVisible(false);
+            recycled.push(card);
+        }
+        visibleCards.clear();
+        setMessage(null);
+        if (viewport != null) {
+            viewport.setViewPosition(new Point(0, 0));
+        }
+    }
+
+    private void setMessage(JComponent component) {
+        if (message != null) {
+            remove(message);
+        }
+        message = component;
+        if (component != null) {
+            add(component);
+        }
+    }
+
+    private void refresh() {
+        revalidate();
+        updateVisibleCards();
+        repaint();
+    }
+
+    // ==================== VIRTUALIZATION ====================
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        Container parent = getParent();
+        if (parent instanceof JViewport) {
+            viewport = (JViewport) parent;
+            viewport.addChangeListener(viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(viewportListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
+    @Override
+    public void doLayout() {
+        if (message != null) {
+            Insets in = getInsets();
+            message.setBounds(in.left, in.top, Math.max(0, getWidth() - in.left - in.right), MESSAGE_HEIGHT);
+        }
+        // Ukuran berubah (resize window/ganti tab): hitung ulang kartu yang terlihat
+        updateVisibleCards();
+    }
+
+    /**
+     * Bind kartu hanya untuk index yang terlihat (plus buffer), kartu lain dikembalikan ke pool.
+     */
+    private void updateVisibleCards() {
+        Rectangle visible = getVisibleRect();
+        if (products.isEmpty() || visible.height <= 0) {
+            return;
+        }
+        int top = getInsets().top;
+        int rowHeight = CELL_HEIGHT + GAP;
+        int firstRow = Math.max(0, (visible.y - top) / rowHeight - BUFFER_ROWS);
+        int lastRow = Math.max(0, (visible.y + visible.height - top) / rowHeight + BUFFER_ROWS);
+        int first = firstRow * COLUMNS;
+        int last = Math.min(products.size() - 1, (lastRow + 1) * COLUMNS - 1);
+
+        Iterator<Map.Entry<Integer, ProductCardView>> it = visibleCards.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, ProductCardView> e = it.next();
+            if (e.getKey() < first || e.getKey() > last) {
+                e.getValue().setVisible(false);
+                recycled.push(e.getValue());
+                it.remove();
+            }
+        }
+
+        for (int i = first; i <= last; i++) {
+            ProductCardView card = visibleCards.get(i);
+            if (card == null) {
+                card = recycled.poll();
+                if (card == null) {
+                    card = new ProductCardView(false, onAddToCart);
+                    add(card);
+                }
+                visibleCards.put(i, card);
+            }
+            card.bind(products.get(i));
+            card.setBounds(cellBounds(i));
+            card.setVisible(true);
+        }
+
+        if (hasMore && pendingPage == null && last >= products.size() - PREFETCH_ROWS * COLUMNS) {
+            requestNextPage();
+        }
+    }
+
+    private void requestNextPage() {
+        final int requestGeneration = generation;
+        Product after = products.get(products.size() - 1);
+        CompletableFuture<List<Product>> request = pageLoader.nextPage(after);
+        pendingPage = request;
+        request.whenComplete((page, error) -> SwingUtilities.invokeLater(() -> {
+            if (requestGeneration != generation) {
+                return; // Data sudah diganti (kategori/pencarian lain)
+            }
+            pendingPage = null;
+            if (error != null) {
+                Log.error("❌ Error loading next product page: " + error.getMessage());
+                hasMore = false;
+                return;
+            }
+            List<Product> loaded = page != null ? page : Collections.<Product>emptyList();
+            Log.info("📄 Loaded next product page: " + loaded.size() + " products");
+            products.addAll(loaded);
+            hasMore = !loaded.isEmpty();
+            refresh();
+        }));
+    }
+
+    private Rectangle cellBounds(int index) {
+        Insets in = getInsets();
+        int row = index / COLUMNS;
+        int column = index % COLUMNS;
+        int gridWidth = COLUMNS * CELL_WIDTH + (COLUMNS - 1) * GAP;
+        int available = getWidth() - in.left - in.right;
+        int offsetX = in.left + Math.max(0, (available - gridWidth) / 2);
+        return new Rectangle(
+            offsetX + column * (CELL_WIDTH + GAP),
+            in.top + row * (CELL_HEIGHT + GAP),
+            CELL_WIDTH,
+            CELL_HEIGHT);
+    }
+
+    // ==================== SIZE / SCROLLABLE ====================
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets in = getInsets();
+        int width = in.left + in.right + COLUMNS * CELL_WIDTH + (COLUMNS - 1) * GAP;
+        int height;
+        if (products.isEmpty()) {
+            height = message != null ? MESSAGE_HEIGHT : 0;
+        } else {
+            int rows = (products.size() + COLUMNS - 1) / COLUMNS;
+            height = rows * CELL_HEIGHT + (rows - 1) * GAP;
+        }
+        return new Dimension(width, in.top + in.bottom + height);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? CELL_HEIGHT + GAP : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
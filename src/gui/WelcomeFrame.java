@@ -6,6 +6,7 @@ import database.DatabaseManager;
 import model.Admin;
 import model.Customer;
 import model.User;
+import utils.Log;
 
 import java.awt.*;
 import java.awt.event.MouseAdapter;
@@ -150,7 +151,7 @@ public class WelcomeFrame extends JFrame {
             try {
                 backgroundImage = new ImageIcon("assets/images/bck.jpg").getImage();
             } catch (Exception e) {
-                System.err.println("❌ Error loading background image: " + e.getMessage());
+                Log.error("❌ Error loading background image: " + e.getMessage());
             }
         }
         
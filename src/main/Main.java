@@ -3,14 +3,23 @@ package main;
 import database.DatabaseConnection;
 import gui.WelcomeFrame;
 import javax.swing.*;
+import utils.ImageUtils;
+import utils.Log;
+import utils.Metrics;
 
 public class Main {
     public static void main(String[] args) {
-        System.out.println("🚀 Starting Arlene Jewelry Shop...");
+        Log.info("🚀 Starting Arlene Jewelry Shop...");
         
         // Initialize database connection
         DatabaseConnection.initializeDatabase();
         
+        // Index gambar produk (scan sekali + WatchService) sebelum GUI mulai menampilkan produk
+        ImageUtils.initializeImageIndex();
+        
+        // Dump metrics DAO (calls, error, latency) ke JSON secara periodik; interval 0 = nonaktif
+        Metrics.startPeriodicDump(Metrics.getDumpFile(), Long.getLong("arlene.metrics.dumpIntervalMs", 60_000L));
+        
         // Start GUI menggunakan SwingUtilities untuk thread safety
         SwingUtilities.invokeLater(new Runnable() {
             @Override
@@ -22,10 +31,9 @@ public class Main {
                     WelcomeFrame welcomeFrame = new WelcomeFrame();
                     welcomeFrame.setVisible(true);
                     
-                    System.out.println("✅ GUI started successfully!");
+                    Log.info("✅ GUI started successfully!");
                 } catch (Exception e) {
-                    System.err.println("❌ Error starting GUI: " + e.getMessage());
-                    e.printStackTrace();
+                    Log.error("❌ Error starting GUI: " + e.getMessage(), e);
                     
                     // Fallback: show error message
                     JOptionPane.showMessageDialog(null, 
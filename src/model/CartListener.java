@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Listener perubahan isi ShoppingCart, supaya UI cukup memperbarui baris yang berubah
+ * dan ringkasan total, tanpa memuat ulang seluruh keranjang dari database.
+ *
+ * Dipanggil di thread yang mengubah keranjang, setelah perubahan (dan total) selesai
+ * diterapkan. Listener Swing harus memindahkan update komponen ke EDT sendiri.
+ */
+public interface CartListener {
+
+    default void itemAdded(ShoppingCart cart, CartItem item) {
+    }
+
+    /**
+     * @param previous item sebelum diubah (CartItem immutable, jadi item diganti objek baru)
+     */
+    default void itemUpdated(ShoppingCart cart, CartItem previous, CartItem updated) {
+    }
+
+    default void itemRemoved(ShoppingCart cart, CartItem item) {
+    }
+
+    /**
+     * Seluruh isi keranjang diganti (setItems) atau dikosongkan (clear).
+     */
+    default void cartReset(ShoppingCart cart) {
+    }
+}
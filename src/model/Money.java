@@ -0,0 +1,95 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Nilai uang eksak dalam satuan terkecil (minor unit) bertipe long.
+ *
+ * Satuan harga di database adalah DECIMAL(10,2) dalam ribuan Rupiah
+ * (price 300.00 = Rp 300.000), jadi 1 minor unit = 0,01 ribu = Rp 10.
+ * Penjumlahan dan perkalian dilakukan pada long sehingga tidak ada
+ * pembulatan seperti pada double; overflow melempar ArithmeticException.
+ *
+ * Immutable dan thread-safe. Untuk total banyak item, jumlahkan
+ * getMinorUnits() di long lalu bungkus sekali dengan ofMinor().
+ */
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Dari nilai DECIMAL database (rs.getBigDecimal). Null dianggap nol.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return ZERO;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Dari input teks (form admin), misal "300" atau "1250.50".
+     *
+     * @throws NumberFormatException jika bukan angka
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * Untuk PreparedStatement.setBigDecimal ke kolom DECIMAL(10,2).
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Nilai dalam satuan database, misal "300.00" (bukan format Rupiah, lihat CurrencyUtils).
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
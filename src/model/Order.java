@@ -1,8 +1,8 @@
 package model;
 
 import utils.CurrencyUtils;
+import utils.DateFormatUtils;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
@@ -11,7 +11,7 @@ public class Order {
     private String status;
     private String paymentMethod;
     private String shippingAddress;
-    private double totalAmount;
+    private Money totalAmount = Money.ZERO;
     private Date orderDate;
     private String notes;
     private List<OrderItem> items;
@@ -22,19 +22,15 @@ public class Order {
         this.status = "PENDING";
     }
 
-    public Order(String orderId, String userId, String orderDate, double totalAmount, 
+    public Order(String orderId, String userId, String orderDate, Money totalAmount, 
              String status, String paymentMethod, String notes) {
     this.orderId = orderId;
     this.status = status;
     this.paymentMethod = paymentMethod;
     this.totalAmount = totalAmount;
     this.notes = notes;
-    try {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        this.orderDate = sdf.parse(orderDate);
-    } catch (Exception e) {
-        this.orderDate = new Date();
-    }
+    Date parsed = DateFormatUtils.parseDatabaseTimestamp(orderDate);
+    this.orderDate = parsed != null ? parsed : new Date();
 }
 
     // Getters and Setters
@@ -50,8 +46,8 @@ public class Order {
     public String getShippingAddress() { return shippingAddress; }
     public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
 
-    public double getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(double totalAmount) { this.totalAmount = totalAmount; }
+    public Money getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Money totalAmount) { this.totalAmount = totalAmount; }
 
     public Date getOrderDate() { return orderDate; }
     public void setOrderDate(Date orderDate) { this.orderDate = orderDate; }
@@ -65,7 +61,7 @@ public class Order {
     // Utility methods
     public String getFormattedDate() {
         if (orderDate == null) return "N/A";
-        return new SimpleDateFormat("dd MMM yyyy HH:mm").format(orderDate);
+        return DateFormatUtils.formatDisplay(orderDate);
     }
 
     public String getFormattedTotal() {
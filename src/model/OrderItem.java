@@ -5,12 +5,12 @@ import utils.CurrencyUtils;
 public class OrderItem {
     private Product product;
     private int quantity;
-    private double price;
+    private Money price = Money.ZERO;
 
     // Constructor
     public OrderItem() {}
 
-    public OrderItem(Product product, int quantity, double price) {
+    public OrderItem(Product product, int quantity, Money price) {
         this.product = product;
         this.quantity = quantity;
         this.price = price;
@@ -23,12 +23,12 @@ public class OrderItem {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public Money getPrice() { return price; }
+    public void setPrice(Money price) { this.price = price; }
 
     // Utility methods
-    public double getSubtotal() {
-        return price * quantity;
+    public Money getSubtotal() {
+        return price.times(quantity);
     }
 
     public String getFormattedSubtotal() {
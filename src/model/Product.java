@@ -1,5 +1,7 @@
 package model;
 
+import java.util.Date;
+
 import utils.CurrencyUtils;
 
 public class Product {
@@ -7,17 +9,18 @@ public class Product {
     private String name;
     private String category;
     private String material;
-    private double price;
+    private Money price;
     private int stock;
     private String description;
     private String imagePath; // ✅ TAMBAHKAN FIELD INI
     private double weight;
     private boolean hasGemstone;
     private String gemstoneType;
+    private Date createdAt; // Diisi saat dibaca dari database, dipakai untuk sort "Newest First"
     
     // ✅ CONSTRUCTOR DENGAN IMAGE PATH (11 parameters)
     public Product(String productId, String name, String category, String material, 
-                  double price, int stock, String description, String imagePath,
+                  Money price, int stock, String description, String imagePath,
                   double weight, boolean hasGemstone, String gemstoneType) {
         this.productId = productId;
         this.name = name;
@@ -34,7 +37,7 @@ public class Product {
     
     // ✅ CONSTRUCTOR TANPA IMAGE PATH (10 parameters - auto generate)
     public Product(String productId, String name, String category, String material, 
-                  double price, int stock, String description, double weight, 
+                  Money price, int stock, String description, double weight, 
                   boolean hasGemstone, String gemstoneType) {
         this(productId, name, category, material, price, stock, description,
              "assets/images/products/" + productId + ".png", // Auto generate path
@@ -46,7 +49,7 @@ public class Product {
     public String getName() { return name; }
     public String getCategory() { return category; }
     public String getMaterial() { return material; }
-    public double getPrice() { return price; }
+    public Money getPrice() { return price; }
     public int getStock() { return stock; }
     public String getDescription() { return description; }
     public String getImagePath() { return imagePath; } // ✅ GETTER IMAGE
@@ -59,6 +62,9 @@ public class Product {
         this.imagePath = imagePath;
     }
     
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+    
     public String getFormattedPrice() {
         return CurrencyUtils.format(price);
     }
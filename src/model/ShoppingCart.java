@@ -1,12 +1,25 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Keranjang belanja dengan total yang dijaga secara incremental.
+ *
+ * Setiap perubahan (addItem, updateQuantity, removeItem, setItems, clear)
+ * memperbarui total harga (minor unit) dan total quantity saat itu juga, lalu
+ * mengirim event ke CartListener. getTotalAmount() dan getTotalItems() tidak
+ * menghitung ulang dari seluruh item.
+ */
 public class ShoppingCart {
-    private String cartId;
+    private volatile String cartId;
     private String userId;
     private List<CartItem> items;
+    private long totalMinorUnits;
+    private int totalItems;
+    private final List<CartListener> listeners = new CopyOnWriteArrayList<>();
     
     public ShoppingCart(String cartId, String userId) {
         this.cartId = cartId;
@@ -16,29 +29,166 @@ public class ShoppingCart {
     
     public String getCartId() { return cartId; }
     public String getUserId() { return userId; }
-    public List<CartItem> getItems() { return items; }
     
-    public void setItems(List<CartItem> items) {
-        this.items = items;
+    /**
+     * Salinan isi keranjang (read-only). Ubah isi keranjang lewat addItem/updateQuantity/removeItem.
+     */
+    public synchronized List<CartItem> getItems() {
+        return Collections.unmodifiableList(new ArrayList<>(items));
     }
     
-    public double getTotalAmount() {
-        return items.stream()
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
+    public synchronized CartItem getItem(int cartItemId) {
+        int index = indexOf(cartItemId);
+        return index >= 0 ? items.get(index) : null;
     }
     
-    public int getTotalItems() {
-        return items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+    public synchronized CartItem findByProductId(String productId) {
+        for (CartItem item : items) {
+            if (item.getProduct().getProductId().equals(productId)) {
+                return item;
+            }
+        }
+        return null;
+    }
+    
+    public void setItems(List<CartItem> newItems) {
+        synchronized (this) {
+            items = new ArrayList<>(newItems);
+            totalMinorUnits = getTotalMinorUnits(items);
+            totalItems = 0;
+            for (CartItem item : items) {
+                totalItems += item.getQuantity();
+            }
+        }
+        for (CartListener listener : listeners) {
+            listener.cartReset(this);
+        }
+    }
+    
+    /**
+     * Pindahkan keranjang ke cart_id lain dan ganti isinya, misal local cart yang sudah
+     * disinkronkan ke database. Objeknya tetap sama, jadi listener (UI) cukup menerima
+     * cartReset seperti setItems.
+     */
+    public void rebind(String newCartId, List<CartItem> newItems) {
+        synchronized (this) {
+            cartId = newCartId;
+        }
+        setItems(newItems);
+    }
+    
+    public void addItem(CartItem item) {
+        synchronized (this) {
+            items.add(item);
+            applyDelta(null, item);
+        }
+        for (CartListener listener : listeners) {
+            listener.itemAdded(this, item);
+        }
+    }
+    
+    /**
+     * Ganti quantity item. Quantity <= 0 sama dengan removeItem.
+     *
+     * @return false jika item tidak ada di keranjang
+     */
+    public boolean updateQuantity(int cartItemId, int quantity) {
+        if (quantity <= 0) {
+            return removeItem(cartItemId);
+        }
+        CartItem previous;
+        CartItem updated;
+        synchronized (this) {
+            int index = indexOf(cartItemId);
+            if (index < 0) {
+                return false;
+            }
+            previous = items.get(index);
+            updated = new CartItem(previous.getCartItemId(), previous.getCartId(), previous.getProduct(), quantity);
+            items.set(index, updated);
+            applyDelta(previous, updated);
+        }
+        for (CartListener listener : listeners) {
+            listener.itemUpdated(this, previous, updated);
+        }
+        return true;
+    }
+    
+    public boolean removeItem(int cartItemId) {
+        CartItem removed;
+        synchronized (this) {
+            int index = indexOf(cartItemId);
+            if (index < 0) {
+                return false;
+            }
+            removed = items.remove(index);
+            applyDelta(removed, null);
+        }
+        for (CartListener listener : listeners) {
+            listener.itemRemoved(this, removed);
+        }
+        return true;
+    }
+    
+    /**
+     * Total harga semua item dalam minor unit (lihat Money), dijaga incremental.
+     */
+    public synchronized Money getTotalAmount() {
+        return Money.ofMinor(totalMinorUnits);
+    }
+    
+    /**
+     * Jumlah harga x quantity dalam minor unit, tanpa alokasi objek per item.
+     */
+    public static long getTotalMinorUnits(List<CartItem> items) {
+        long total = 0;
+        for (CartItem item : items) {
+            total = Math.addExact(total, lineTotal(item));
+        }
+        return total;
+    }
+    
+    public synchronized int getTotalItems() {
+        return totalItems;
     }
     
     public void clear() {
-        items.clear();
+        setItems(Collections.<CartItem>emptyList());
     }
     
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return items.isEmpty();
     }
+    
+    public void addListener(CartListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(CartListener listener) {
+        listeners.remove(listener);
+    }
+    
+    private int indexOf(int cartItemId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getCartItemId() == cartItemId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void applyDelta(CartItem removed, CartItem added) {
+        if (removed != null) {
+            totalMinorUnits = Math.subtractExact(totalMinorUnits, lineTotal(removed));
+            totalItems -= removed.getQuantity();
+        }
+        if (added != null) {
+            totalMinorUnits = Math.addExact(totalMinorUnits, lineTotal(added));
+            totalItems += added.getQuantity();
+        }
+    }
+    
+    private static long lineTotal(CartItem item) {
+        return Math.multiplyExact(item.getProduct().getPrice().getMinorUnits(), item.getQuantity());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package utils;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Menulis pesan log ke console dari satu thread background.
+ *
+ * Pesan disimpan di ring buffer berukuran tetap (ArrayBlockingQueue, array
+ * melingkar). Jika buffer penuh, pesan DEBUG/INFO dibuang tanpa memblok dan
+ * dihitung (jumlahnya dilaporkan oleh writer); WARN/ERROR menunggu sebentar. Writer mengambil pesan
+ * per batch dan menulis satu string per stream, sehingga console I/O tidak
+ * lagi satu syscall per baris.
+ *
+ * Format: "HH:mm:ss.SSS LEVEL [thread] pesan".
+ */
+class AsyncLogAppender {
+    private static final int BATCH_SIZE = 512;
+    private static final long FLUSH_TIMEOUT_MS = 2000;
+    private static final long ERROR_WAIT_MS = 100;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final ArrayBlockingQueue<Entry> buffer;
+    private final boolean async;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object writtenLock = new Object();
+    private long written;
+    private long reportedDropped;
+
+    AsyncLogAppender(int capacity, boolean async) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(16, capacity));
+        this.async = async;
+        if (async) {
+            Thread writer = new Thread(this::runWriter, "log-writer");
+            writer.setDaemon(true);
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "log-flush"));
+        }
+    }
+
+    void append(Log.Level level, String message, Throwable error) {
+        Entry entry = new Entry(level, System.currentTimeMillis(), Thread.currentThread().getName(), message, error);
+        if (!async) {
+            synchronized (this) {
+                write(Collections.singletonList(entry));
+            }
+            return;
+        }
+        if (offer(entry)) {
+            appended.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * DEBUG/INFO langsung dibuang jika buffer penuh; WARN/ERROR menunggu sebentar
+     * supaya pesan error tidak hilang saat ada ledakan log.
+     */
+    private boolean offer(Entry entry) {
+        if (entry.level.ordinal() < Log.Level.WARN.ordinal()) {
+            return buffer.offer(entry);
+        }
+        try {
+            return buffer.offer(entry, ERROR_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Blok sampai semua pesan yang sudah di-append saat method ini dipanggil tertulis
+     * (maksimal FLUSH_TIMEOUT_MS, supaya shutdown tidak pernah menggantung).
+     */
+    void flush() {
+        if (!async) {
+            return;
+        }
+        long target = appended.get();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        synchronized (writtenLock) {
+            while (written < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    writtenLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                Entry first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, BATCH_SIZE - 1);
+                }
+                int taken = batch.size();
+                reportDropped(batch);
+                if (!batch.isEmpty()) {
+                    try {
+                        write(batch);
+                    } catch (RuntimeException e) {
+                        // Writer tidak boleh mati karena satu pesan yang gagal diformat
+                    }
+                    batch.clear();
+                }
+                if (taken > 0) {
+                    synchronized (writtenLock) {
+                        written += taken;
+                        writtenLock.notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void reportDropped(List<Entry> batch) {
+        long total = dropped.get();
+        if (total > reportedDropped) {
+            String message = "⚠️ " + (total - reportedDropped) + " log messages dropped (buffer full)";
+            reportedDropped = total;
+            batch.add(new Entry(Log.Level.WARN, System.currentTimeMillis(), "log-writer", message, null));
+        }
+    }
+
+    /**
+     * Tulis batch berurutan; baris yang berurutan ke stream yang sama digabung jadi satu print.
+     */
+    private static void write(List<Entry> batch) {
+        StringBuilder text = new StringBuilder();
+        PrintStream current = null;
+        for (Entry entry : batch) {
+            PrintStream target = entry.level.ordinal() >= Log.Level.WARN.ordinal() ? System.err : System.out;
+            if (current != null && target != current) {
+                current.print(text);
+                current.flush();
+                text.setLength(0);
+            }
+            current = target;
+            format(entry, text);
+        }
+        if (current != null) {
+            current.print(text);
+            current.flush();
+        }
+    }
+
+    private static void format(Entry entry, StringBuilder out) {
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(entry.timestamp), out);
+        out.append(' ').append(entry.level.name());
+        for (int i = entry.level.name().length(); i < 5; i++) {
+            out.append(' ');
+        }
+        out.append(" [").append(entry.thread).append("] ").append(entry.message).append(System.lineSeparator());
+        if (entry.error != null) {
+            StringWriter trace = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(trace));
+            out.append(trace);
+        }
+    }
+
+    private static final class Entry {
+        final Log.Level level;
+        final long timestamp;
+        final String thread;
+        final String message;
+        final Throwable error;
+
+        Entry(Log.Level level, long timestamp, String thread, String message, Throwable error) {
+            this.level = level;
+            this.timestamp = timestamp;
+            this.thread = thread;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
@@ -1,27 +1,73 @@
 package utils;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import model.Money;
 
+/**
+ * Format Rupiah ("Rp 1.250.000") untuk label produk, baris keranjang, tabel admin, dan log.
+ *
+ * Dipanggil untuk setiap kartu produk dan baris tabel, jadi tidak memakai
+ * DecimalFormat (mahal dibuat dan tidak thread-safe): digit dan titik ribuan
+ * ditulis langsung ke char[] lokal. Hasil untuk harga yang sering muncul
+ * disimpan di cache direct-mapped kecil, sehingga harga yang sama tidak
+ * diformat ulang. Aman dipanggil dari thread mana pun.
+ */
 public final class CurrencyUtils {
-    private static final DecimalFormatSymbols ID_SYMBOLS = new DecimalFormatSymbols(new Locale("id", "ID"));
-    
-    static {
-        ID_SYMBOLS.setGroupingSeparator('.');
-        ID_SYMBOLS.setDecimalSeparator(',');
-    }
+    private static final String PREFIX = "Rp ";
+    private static final int CACHE_SIZE = 1024; // Harus pangkat dua
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
 
     private CurrencyUtils() {}
 
-    public static String format(double amount) {
-        // Konversi nilai ke Rupiah (misal 300 -> 300.000)
-        double convertedAmount = amount * 1000;
-        
-        DecimalFormat formatter = new DecimalFormat("#,##0", ID_SYMBOLS);
-        formatter.setGroupingUsed(true);
-        formatter.setMaximumFractionDigits(0);
-        
-        return "Rp " + formatter.format(convertedAmount);
+    public static String format(Money amount) {
+        long minorUnits = amount.getMinorUnits();
+        int slot = (int) (minorUnits ^ (minorUnits >>> 32)) * 0x9E3779B9 >>> 22; // 10 bit teratas
+        Entry cached = CACHE[slot];
+        if (cached != null && cached.minorUnits == minorUnits) {
+            return cached.text;
+        }
+        String text = formatRupiah(minorUnits);
+        // Entry immutable (field final), jadi race antar thread paling buruk hanya menimpa slot
+        CACHE[slot] = new Entry(minorUnits, text);
+        return text;
+    }
+
+    /**
+     * Ditulis dari digit terakhir ke depan: digit, titik setiap 3 digit, tanda minus, lalu "Rp ".
+     * 1 minor unit = Rp 10 (harga di database dalam ribuan Rupiah, misal 300.00 -> 300.000).
+     */
+    private static String formatRupiah(long minorUnits) {
+        long rupiah = Math.multiplyExact(minorUnits, 10L);
+        // Kelipatan 10 tidak mungkin Long.MIN_VALUE, jadi Math.abs aman
+        boolean negative = rupiah < 0;
+        long value = Math.abs(rupiah);
+
+        char[] buffer = new char[29]; // "Rp " + tanda minus + 19 digit + 6 titik
+        int pos = buffer.length;
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                buffer[--pos] = '.';
+            }
+            buffer[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+            digits++;
+        } while (value != 0);
+        if (negative) {
+            buffer[--pos] = '-';
+        }
+        for (int i = PREFIX.length() - 1; i >= 0; i--) {
+            buffer[--pos] = PREFIX.charAt(i);
+        }
+        return new String(buffer, pos, buffer.length - pos);
+    }
+
+    private static final class Entry {
+        final long minorUnits;
+        final String text;
+
+        Entry(long minorUnits, String text) {
+            this.minorUnits = minorUnits;
+            this.text = text;
+        }
     }
 }
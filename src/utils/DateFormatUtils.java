@@ -0,0 +1,47 @@
+package utils;
+
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * Format dan parse tanggal order, pengganti new SimpleDateFormat() per pemanggilan.
+ *
+ * DateTimeFormatter immutable dan thread-safe, jadi cukup dibuat sekali dan
+ * dipakai bersama dari EDT maupun thread background. Zona waktu dan locale
+ * mengikuti default sistem, sama seperti SimpleDateFormat sebelumnya.
+ */
+public final class DateFormatUtils {
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+    private static final DateTimeFormatter DATABASE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private DateFormatUtils() {}
+
+    /**
+     * Format tampilan, misal "05 Mar 2025 14:30".
+     */
+    public static String formatDisplay(Date date) {
+        return DISPLAY_FORMAT.format(date.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Parse timestamp database "yyyy-MM-dd HH:mm:ss". Sisa teks setelahnya diabaikan
+     * (misal ".0" dari Timestamp.toString()), sama seperti SimpleDateFormat.parse().
+     *
+     * @return null jika teks tidak bisa di-parse
+     */
+    public static Date parseDatabaseTimestamp(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.from(DATABASE_FORMAT.parse(text, new ParsePosition(0)));
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
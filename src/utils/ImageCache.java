@@ -0,0 +1,126 @@
+package utils;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Cache LRU untuk gambar produk yang sudah di-decode dan di-scale.
+ *
+ * Key terdiri dari path file yang sudah di-resolve, ukuran target, dan waktu
+ * modifikasi file, sehingga gambar yang diganti admin otomatis dianggap baru.
+ * Total ukuran dibatasi berdasarkan jumlah pixel (4 byte per pixel); entry
+ * yang paling lama tidak dipakai dibuang lebih dulu. Nilai disimpan sebagai
+ * SoftReference supaya GC bisa membebaskannya saat heap hampir penuh.
+ */
+class ImageCache {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+
+    ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized ImageIcon get(String path, int width, int height, long lastModified) {
+        Key key = new Key(path, width, height, lastModified);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        ImageIcon icon = entry.icon.get();
+        if (icon == null) {
+            // Sudah dibersihkan GC
+            entries.remove(key);
+            currentBytes -= entry.bytes;
+            misses++;
+            return null;
+        }
+        hits++;
+        return icon;
+    }
+
+    synchronized void put(String path, int width, int height, long lastModified, ImageIcon icon) {
+        long bytes = (long) Math.max(1, icon.getIconWidth()) * Math.max(1, icon.getIconHeight()) * BYTES_PER_PIXEL;
+        if (bytes > maxBytes) {
+            return; // Terlalu besar untuk di-cache
+        }
+        Entry previous = entries.put(new Key(path, width, height, lastModified), new Entry(icon, bytes));
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += bytes;
+        evict();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    synchronized long getHits() { return hits; }
+    synchronized long getMisses() { return misses; }
+    synchronized int size() { return entries.size(); }
+    synchronized long getCurrentBytes() { return currentBytes; }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            // Entry yang sudah dibersihkan GC dibuang dulu, lalu yang paling lama tidak dipakai
+            if (e.getValue().icon.get() == null || currentBytes > maxBytes) {
+                currentBytes -= e.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final SoftReference<ImageIcon> icon;
+        final long bytes;
+
+        Entry(ImageIcon icon, long bytes) {
+            this.icon = new SoftReference<>(icon);
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Key {
+        final String path;
+        final int width;
+        final int height;
+        final long lastModified;
+
+        Key(String path, int width, int height, long lastModified) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return width == k.width && height == k.height && lastModified == k.lastModified && path.equals(k.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Long.hashCode(lastModified);
+            return result;
+        }
+    }
+}
@@ -3,96 +3,190 @@ package utils;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
 import javax.swing.*;
 
 public class ImageUtils {
+    // Batas total pixel gambar yang di-cache (default 64 MB), bisa diubah lewat -Darlene.image.cacheBytes
+    private static final long IMAGE_CACHE_MAX_BYTES = Long.getLong("arlene.image.cacheBytes", 64L * 1024 * 1024);
+    private static final ImageCache SCALED_IMAGES = new ImageCache(IMAGE_CACHE_MAX_BYTES);
+    // Default icon cukup dibuat sekali per ukuran
+    private static final Map<String, ImageIcon> DEFAULT_ICONS = new ConcurrentHashMap<>();
+    // Index file di assets/images/products, diisi oleh initializeImageIndex()
+    private static final ProductImageIndex IMAGE_INDEX = new ProductImageIndex(ProductImageIndex.PRODUCTS_DIR);
+    // Thumbnail per ukuran tampilan, supaya kartu dan cart tidak men-decode gambar resolusi penuh
+    private static final ProductImageIndex THUMB_INDEX = new ProductImageIndex(ThumbnailGenerator.THUMBS_DIR);
+    private static final ThumbnailGenerator THUMBNAILS = new ThumbnailGenerator(THUMB_INDEX);
+    // Thread untuk load gambar di luar EDT (kartu produk menampilkan placeholder dulu)
+    private static final AtomicInteger LOADER_COUNTER = new AtomicInteger();
+    private static final ExecutorService IMAGE_LOADER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "image-loader-" + LOADER_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
     
     /**
      * Get product image dengan debugging yang lebih detail dan multiple fallbacks
      */
     public static ImageIcon getProductImage(String imagePath, int width, int height) {
-        System.out.println("🖼️ Loading image: " + imagePath);
+        Log.debug(() -> "🖼️ Loading image: " + imagePath);
         
         try {
             // Jika path null atau kosong, return default
             if (imagePath == null || imagePath.trim().isEmpty()) {
-                System.out.println("❌ Image path is null or empty");
+                Log.error("❌ Image path is null or empty");
                 return createDefaultProductIcon(width, height);
             }
-        
-            File imageFile = new File(imagePath);
-            System.out.println("📁 Checking file: " + imageFile.getAbsolutePath());
-        
-            // Jika file tidak ada, coba berbagai pattern
-            if (!imageFile.exists()) {
-                System.out.println("🔍 File not found at original path, searching alternatives...");
-                
-                String fileName = getFileNameFromPath(imagePath);
-                String baseName = fileName.replace(".png", "").replace(".jpg", "").replace(".jpeg", "");
-                
-                // Coba berbagai pattern nama file dan extension
-                String[] searchPatterns = {
-                    imagePath, // original path
-                    "assets/images/products/" + fileName,
-                    "assets/images/products/" + baseName + ".jpeg", // Priority: .jpeg
-                    "assets/images/products/" + baseName + ".jpg",
-                    "assets/images/products/" + baseName + ".png",
-                    "assets/images/products/" + baseName.toLowerCase() + ".jpeg",
-                    "assets/images/products/" + baseName.toUpperCase() + ".jpeg",
-                    "assets/images/products/" + baseName + "_product.jpeg",
-                    "assets/images/products/product_" + baseName + ".jpeg",
-                    "assets/images/products/" + baseName.replace("ring", "ring") + ".jpeg",
-                    "assets/images/products/" + baseName.replace("necklace", "necklace") + ".jpeg",
-                    "assets/images/products/" + baseName.replace("bracelet", "bracelet") + ".jpeg",
-                    "assets/images/products/" + baseName.replace("earring", "earring") + ".jpeg"
-                };
             
-                boolean found = false;
-                for (String path : searchPatterns) {
-                    imageFile = new File(path);
-                    System.out.println("   🔍 Trying: " + imageFile.getAbsolutePath());
-                    if (imageFile.exists() && imageFile.length() > 0) {
-                        System.out.println("   ✅ FOUND: " + path + " (" + imageFile.length() + " bytes)");
-                        found = true;
-                        break;
-                    }
-                }
-                
-                if (!found) {
-                    System.out.println("   ❌ No valid image file found in search patterns");
-                }
-            }
-        
-            if (imageFile.exists() && imageFile.length() > 0) {
-                System.out.println("✅ SUCCESS: Loading image from: " + imageFile.getAbsolutePath());
-                try {
-                    // Load dan resize image
-                    ImageIcon originalIcon = new ImageIcon(imageFile.getPath());
-                    if (originalIcon.getIconWidth() <= 0) {
-                        throw new Exception("Invalid image dimensions");
-                    }
-                    Image scaledImage = originalIcon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-                    return new ImageIcon(scaledImage);
-                } catch (Exception e) {
-                    System.err.println("❌ ERROR processing image: " + e.getMessage());
+            // Path di directory products: cukup lookup index, tanpa probing filesystem
+            if (IMAGE_INDEX.covers(imagePath)) {
+                ProductImageIndex.IndexedImage indexed = IMAGE_INDEX.lookup(imagePath);
+                if (indexed == null) {
+                    Log.debug("❌ FAILED: Image not in index, using default icon");
                     return createDefaultProductIcon(width, height);
                 }
+                // Pakai thumbnail jika sudah ada, jika belum gambar asli (thumbnail dibuat di background)
+                ProductImageIndex.IndexedImage thumbnail = THUMBNAILS.find(indexed, width, height);
+                ProductImageIndex.IndexedImage source = thumbnail != null ? thumbnail : indexed;
+                return loadScaledImage(source.file, source.lastModified, width, height);
+            }
+            
+            File imageFile = probeImageFile(imagePath);
+            if (imageFile != null) {
+                return loadScaledImage(imageFile, imageFile.lastModified(), width, height);
             } else {
-                System.out.println("❌ FAILED: Image not found or empty, using default icon");
+                Log.debug("❌ FAILED: Image not found or empty, using default icon");
                 return createDefaultProductIcon(width, height);
             }
         
         } catch (Exception e) {
-            System.err.println("❌ ERROR loading image: " + imagePath + " - " + e.getMessage());
-            e.printStackTrace();
+            Log.error("❌ ERROR loading image: " + imagePath + " - " + e.getMessage(), e);
             return createDefaultProductIcon(width, height);
         }
     }
     
     /**
-     * Buat default product icon yang bagus
+     * Sama dengan getProductImage, tapi decode dan scale dijalankan di background thread.
+     * Future yang di-cancel sebelum mulai (misal kartu sudah di-recycle) tidak diproses.
+     */
+    public static CompletableFuture<ImageIcon> getProductImageAsync(String imagePath, int width, int height) {
+        return CompletableFuture.supplyAsync(() -> getProductImage(imagePath, width, height), IMAGE_LOADER);
+    }
+    
+    /**
+     * Return gambar jika sudah ada di cache (tanpa I/O sama sekali), atau null jika
+     * harus di-load dulu. Path tanpa file return default icon.
+     */
+    public static ImageIcon getCachedProductImage(String imagePath, int width, int height) {
+        if (imagePath == null || imagePath.trim().isEmpty()) {
+            return createDefaultProductIcon(width, height);
+        }
+        if (!IMAGE_INDEX.covers(imagePath)) {
+            return null;
+        }
+        ProductImageIndex.IndexedImage indexed = IMAGE_INDEX.lookup(imagePath);
+        if (indexed == null) {
+            return createDefaultProductIcon(width, height);
+        }
+        ProductImageIndex.IndexedImage thumbnail = THUMBNAILS.find(indexed, width, height);
+        ProductImageIndex.IndexedImage source = thumbnail != null ? thumbnail : indexed;
+        return SCALED_IMAGES.get(source.file.getAbsolutePath(), width, height, source.lastModified);
+    }
+    
+    /**
+     * Placeholder yang ditampilkan selama gambar produk masih di-load
+     */
+    public static ImageIcon getDefaultProductIcon(int width, int height) {
+        return createDefaultProductIcon(width, height);
+    }
+    
+    /**
+     * Decode dan scale gambar, memakai cache jika file yang sama sudah pernah di-scale
+     */
+    private static ImageIcon loadScaledImage(File imageFile, long lastModified, int width, int height) {
+        String resolvedPath = imageFile.getAbsolutePath();
+        ImageIcon cached = SCALED_IMAGES.get(resolvedPath, width, height, lastModified);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Log.debug(() -> "✅ SUCCESS: Loading image from: " + resolvedPath);
+        try {
+            // Decode langsung dari file, bukan lewat ImageIcon(path): cache Toolkit di-key per nama
+            // file dan tidak melihat perubahan isi file (misal gambar produk diganti admin)
+            BufferedImage original = ImageIO.read(imageFile);
+            if (original == null || original.getWidth() <= 0) {
+                throw new Exception("Invalid image dimensions");
+            }
+            Image scaledImage = original.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+            ImageIcon scaledIcon = new ImageIcon(scaledImage);
+            SCALED_IMAGES.put(resolvedPath, width, height, lastModified, scaledIcon);
+            return scaledIcon;
+        } catch (Exception e) {
+            Log.error("❌ ERROR processing image: " + e.getMessage());
+            return createDefaultProductIcon(width, height);
+        }
+    }
+    
+    /**
+     * Pencarian langsung di filesystem, dipakai untuk path di luar directory products
+     * atau jika index belum tersedia. Return null jika tidak ada file yang valid.
+     */
+    private static File probeImageFile(String imagePath) {
+        File original = new File(imagePath);
+        Log.debug(() -> "📁 Checking file: " + original.getAbsolutePath());
+        if (original.exists() && original.length() > 0) {
+            return original;
+        }
+        
+        Log.debug("🔍 File not found at original path, searching alternatives...");
+        String fileName = getFileNameFromPath(imagePath);
+        String baseName = ProductImageIndex.stripExtension(fileName);
+        String dir = ProductImageIndex.PRODUCTS_DIR + "/";
+        
+        // Coba berbagai pattern nama file dan extension
+        String[] searchPatterns = {
+            dir + fileName,
+            dir + baseName + ".jpeg", // Priority: .jpeg
+            dir + baseName + ".jpg",
+            dir + baseName + ".png",
+            dir + baseName.toLowerCase() + ".jpeg",
+            dir + baseName.toUpperCase() + ".jpeg",
+            dir + baseName + "_product.jpeg",
+            dir + "product_" + baseName + ".jpeg"
+        };
+        
+        for (String path : searchPatterns) {
+            File imageFile = new File(path);
+            Log.debug(() -> "   🔍 Trying: " + imageFile.getAbsolutePath());
+            if (imageFile.exists() && imageFile.length() > 0) {
+                Log.debug(() -> "   ✅ FOUND: " + path + " (" + imageFile.length() + " bytes)");
+                return imageFile;
+            }
+        }
+        
+        Log.debug("   ❌ No valid image file found in search patterns");
+        return null;
+    }
+    
+    /**
+     * Default product icon, di-cache per ukuran
      */
     private static ImageIcon createDefaultProductIcon(int width, int height) {
+        return DEFAULT_ICONS.computeIfAbsent(width + "x" + height, k -> renderDefaultProductIcon(width, height));
+    }
+    
+    /**
+     * Buat default product icon yang bagus
+     */
+    private static ImageIcon renderDefaultProductIcon(int width, int height) {
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = image.createGraphics();
         
@@ -209,6 +303,10 @@ public class ImageUtils {
             return false;
         }
         
+        if (IMAGE_INDEX.covers(imagePath)) {
+            return IMAGE_INDEX.lookup(imagePath) != null;
+        }
+        
         File imageFile = new File(imagePath);
         if (imageFile.exists() && imageFile.length() > 0) {
             return true;
@@ -216,11 +314,11 @@ public class ImageUtils {
         
         // Cek di product directory dengan berbagai extension
         String fileName = getFileNameFromPath(imagePath);
-        String baseName = fileName.replace(".png", "").replace(".jpg", "").replace(".jpeg", "");
+        String baseName = ProductImageIndex.stripExtension(fileName);
         
         String[] extensions = {".jpeg", ".jpg", ".png"};
         for (String ext : extensions) {
-            File productFile = new File("assets/images/products/" + baseName + ext);
+            File productFile = new File(ProductImageIndex.PRODUCTS_DIR + "/" + baseName + ext);
             if (productFile.exists() && productFile.length() > 0) {
                 return true;
             }
@@ -337,49 +435,87 @@ public class ImageUtils {
     }
     
     /**
-     * Method untuk scan dan list semua file gambar di products directory
+     * Method untuk scan dan list semua file gambar di products directory.
+     * Hasil scan sekaligus mengisi ulang index gambar produk.
      */
     public static void scanProductsDirectory() {
-        System.out.println("\n🔍 SCANNING PRODUCTS DIRECTORY:");
-        File productsDir = new File("assets/images/products");
+        Log.info("🔍 SCANNING PRODUCTS DIRECTORY:");
+        File productsDir = new File(ProductImageIndex.PRODUCTS_DIR);
         
         if (!productsDir.exists()) {
-            System.out.println("❌ Directory tidak ditemukan: " + productsDir.getAbsolutePath());
+            Log.error("❌ Directory tidak ditemukan: " + productsDir.getAbsolutePath());
             return;
         }
         
         if (!productsDir.isDirectory()) {
-            System.out.println("❌ Path bukan directory: " + productsDir.getAbsolutePath());
+            Log.error("❌ Path bukan directory: " + productsDir.getAbsolutePath());
             return;
         }
         
-        File[] files = productsDir.listFiles((dir, name) -> 
-            name.toLowerCase().endsWith(".jpeg") || 
-            name.toLowerCase().endsWith(".jpg") || 
-            name.toLowerCase().endsWith(".png")
-        );
+        List<ProductImageIndex.IndexedImage> files = IMAGE_INDEX.scan();
         
-        if (files == null || files.length == 0) {
-            System.out.println("❌ Tidak ada file gambar ditemukan di directory");
+        if (files.isEmpty()) {
+            Log.error("❌ Tidak ada file gambar ditemukan di directory");
             return;
         }
         
-        System.out.println("✅ Ditemukan " + files.length + " file gambar:");
-        for (File file : files) {
-            System.out.println("   📄 " + file.getName() + " (" + file.length() + " bytes)");
+        Log.info("✅ Ditemukan " + files.size() + " file gambar:");
+        for (ProductImageIndex.IndexedImage image : files) {
+            Log.debug(() -> "   📄 " + image.file.getName() + " (" + image.length + " bytes)");
         }
     }
     
+    /**
+     * Dipanggil sekali saat startup: scan directory products lalu pantau perubahannya,
+     * supaya getProductImage/imageExists tidak perlu probing filesystem.
+     */
+    public static void initializeImageIndex() {
+        scanProductsDirectory();
+        IMAGE_INDEX.startWatching();
+        
+        if (IMAGE_INDEX.isReady()) {
+            THUMB_INDEX.getDirectory().mkdirs();
+            THUMB_INDEX.scan();
+            THUMBNAILS.backfillAsync(IMAGE_INDEX.all());
+        }
+    }
+    
+    /**
+     * Buat thumbnail untuk semua ukuran tampilan dari gambar yang baru di-upload (di background)
+     */
+    public static void generateThumbnails(File imageFile) {
+        if (imageFile != null && THUMB_INDEX.isReady()) {
+            THUMBNAILS.generateAsync(imageFile);
+        }
+    }
+    
+    /**
+     * Beri tahu index bahwa file gambar baru saja ditulis/dihapus, tanpa menunggu WatchService
+     */
+    public static void notifyImageChanged(File imageFile) {
+        if (imageFile != null && IMAGE_INDEX.isReady()) {
+            IMAGE_INDEX.update(imageFile);
+        }
+    }
+    
+    /**
+     * Kosongkan cache gambar yang sudah di-scale (misal setelah banyak gambar diganti)
+     */
+    public static void clearImageCache() {
+        SCALED_IMAGES.clear();
+        Log.info("🧹 Image cache cleared");
+    }
+    
     /**
      * Method untuk test load specific image
      */
     public static void testImageLoad(String imagePath) {
-        System.out.println("\n🧪 TESTING IMAGE LOAD: " + imagePath);
+        Log.info("🧪 TESTING IMAGE LOAD: " + imagePath);
         ImageIcon icon = getProductImage(imagePath, 200, 200);
         if (icon != null && icon.getIconWidth() > 0) {
-            System.out.println("✅ TEST SUCCESS: Image loaded successfully");
+            Log.info("✅ TEST SUCCESS: Image loaded successfully");
         } else {
-            System.out.println("❌ TEST FAILED: Could not load image");
+            Log.error("❌ TEST FAILED: Could not load image");
         }
     }
 
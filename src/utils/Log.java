@@ -0,0 +1,116 @@
+package utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Facade logging aplikasi, pengganti System.out/System.err.println.
+ *
+ * - Level diatur lewat -Darlene.log.level (DEBUG, INFO, WARN, ERROR, OFF; default INFO).
+ *   Pesan di bawah level aktif langsung dibuang sebelum string-nya dibuat.
+ * - Untuk pesan yang mahal dibuat (concat per baris data), pakai overload Supplier:
+ *   Log.debug(() -> "📦 Row: " + product.getName()) hanya dieksekusi jika DEBUG aktif.
+ * - Penulisan ke console dilakukan thread "log-writer" lewat AsyncLogAppender,
+ *   sehingga thread pemanggil (EDT, thread DB) tidak menunggu I/O console.
+ *   -Darlene.log.async=false menulis langsung (berguna saat debugging crash).
+ *
+ * INFO/DEBUG ditulis ke System.out, WARN/ERROR ke System.err seperti sebelumnya.
+ */
+public final class Log {
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final Level THRESHOLD = parseLevel(System.getProperty("arlene.log.level", "INFO"));
+    private static final AsyncLogAppender APPENDER = new AsyncLogAppender(
+            Integer.getInteger("arlene.log.bufferSize", 8192),
+            !"false".equalsIgnoreCase(System.getProperty("arlene.log.async", "true")));
+
+    // Jumlah error per thread, dipakai Metrics untuk menandai pemanggilan method yang gagal
+    private static final ThreadLocal<int[]> THREAD_ERRORS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private Log() {
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level != Level.OFF && level.ordinal() >= THRESHOLD.ordinal();
+    }
+
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public static void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message.get(), null);
+        }
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    /**
+     * Log error beserta stack trace (pengganti println + e.printStackTrace()).
+     */
+    public static void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * Tunggu sampai semua pesan yang sudah masuk buffer tertulis ke console.
+     */
+    public static void flush() {
+        APPENDER.flush();
+    }
+
+    /**
+     * Jumlah pesan yang dibuang karena buffer penuh sejak aplikasi mulai.
+     */
+    public static long getDroppedCount() {
+        return APPENDER.getDroppedCount();
+    }
+
+    /**
+     * Jumlah Log.error() yang pernah dipanggil dari thread ini (termasuk saat level OFF).
+     */
+    static int getThreadErrorCount() {
+        return THREAD_ERRORS.get()[0];
+    }
+
+    private static void log(Level level, String message, Throwable error) {
+        if (level == Level.ERROR) {
+            THREAD_ERRORS.get()[0]++;
+        }
+        if (isEnabled(level)) {
+            APPENDER.append(level, message, error);
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Unknown log level '" + value + "', using INFO");
+            return Level.INFO;
+        }
+    }
+}
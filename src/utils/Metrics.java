@@ -0,0 +1,221 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Registry metrics per method: jumlah pemanggilan, jumlah error, dan histogram latency.
+ *
+ * Pemakaian: return Metrics.time("ProductDAO.getAllProducts", super::getAllProducts);
+ * Pemanggilan dihitung error jika melempar exception atau memanggil Log.error()
+ * di thread yang sama (DAO menangkap SQLException dan me-log-nya, bukan melempar).
+ *
+ * Hasilnya ditampilkan di tab Diagnostics AdminDashboard dan bisa di-dump ke JSON
+ * secara periodik lewat startPeriodicDump().
+ */
+public final class Metrics {
+    private static final Map<String, MethodStats> STATS = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    public static <T> T time(String name, Supplier<T> call) {
+        MethodStats stats = stats(name);
+        int errorsBefore = Log.getThreadErrorCount();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = Log.getThreadErrorCount() != errorsBefore;
+            return result;
+        } finally {
+            stats.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public static void run(String name, Runnable call) {
+        time(name, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static MethodStats stats(String name) {
+        MethodStats stats = STATS.get(name);
+        return stats != null ? stats : STATS.computeIfAbsent(name, MethodStats::new);
+    }
+
+    /**
+     * Snapshot semua method yang pernah dipanggil, diurutkan dari total waktu terbesar.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>();
+        for (MethodStats stats : STATS.values()) {
+            result.add(stats.snapshot());
+        }
+        result.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return result;
+    }
+
+    public static void reset() {
+        for (MethodStats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    // ==================== JSON DUMP ====================
+
+    public static String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"timestamp\": \"").append(Instant.now()).append("\",\n  \"methods\": [");
+        List<Snapshot> snapshots = snapshot();
+        for (int i = 0; i < snapshots.size(); i++) {
+            Snapshot s = snapshots.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"name\": \"").append(escape(s.getName())).append('"')
+                .append(", \"calls\": ").append(s.getCalls())
+                .append(", \"errors\": ").append(s.getErrors())
+                .append(", \"meanMs\": ").append(format(s.getMeanMillis()))
+                .append(", \"p50Ms\": ").append(format(s.getP50Millis()))
+                .append(", \"p90Ms\": ").append(format(s.getP90Millis()))
+                .append(", \"p99Ms\": ").append(format(s.getP99Millis()))
+                .append(", \"maxMs\": ").append(format(s.getMaxMillis()))
+                .append('}');
+        }
+        json.append(snapshots.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * Tulis toJson() ke file (lewat file sementara + rename, supaya pembaca tidak melihat file setengah jadi).
+     */
+    public static boolean dumpJson(File target) {
+        try {
+            File dir = target.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                Log.error("❌ Cannot create metrics directory: " + dir);
+                return false;
+            }
+            File temp = new File(dir, target.getName() + ".tmp");
+            Files.write(temp.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            Log.error("❌ Error writing metrics dump: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * File dump default: -Darlene.metrics.dumpFile, atau assets/exports/metrics.json.
+     */
+    public static File getDumpFile() {
+        return new File(System.getProperty("arlene.metrics.dumpFile", "assets/exports/metrics.json"));
+    }
+
+    /**
+     * Dump metrics ke file setiap intervalMillis di thread daemon "metrics-dump".
+     * Dipanggil sekali saat startup; interval <= 0 berarti tidak ada dump periodik.
+     */
+    public static synchronized void startPeriodicDump(File target, long intervalMillis) {
+        if (dumper != null || intervalMillis <= 0) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> dumpJson(target), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        Log.info("📈 Metrics dump every " + intervalMillis + " ms to " + target.getAbsolutePath());
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    // ==================== DATA ====================
+
+    private static final class MethodStats {
+        final String name;
+        final LongAdder errors = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        MethodStats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, boolean failed) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            errors.reset();
+            latency.reset();
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(name, latency.getCount(), errors.sum(), latency.getMeanMicros(),
+                    latency.getPercentileMicros(50), latency.getPercentileMicros(90),
+                    latency.getPercentileMicros(99), latency.getMaxMicros());
+        }
+    }
+
+    /**
+     * Nilai metrics satu method pada satu waktu. Semua durasi dalam milidetik.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final double meanMicros;
+        private final long p50Micros;
+        private final long p90Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        Snapshot(String name, long calls, long errors, double meanMicros,
+                 long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getName() { return name; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public double getMeanMillis() { return meanMicros / 1000.0; }
+        public double getP50Millis() { return p50Micros / 1000.0; }
+        public double getP90Millis() { return p90Micros / 1000.0; }
+        public double getP99Millis() { return p99Micros / 1000.0; }
+        public double getMaxMillis() { return maxMicros / 1000.0; }
+        public double getTotalMillis() { return meanMicros * calls / 1000.0; }
+    }
+}
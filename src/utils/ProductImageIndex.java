@@ -0,0 +1,207 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index nama file gambar di satu directory: assets/images/products, dan
+ * subfolder thumbs untuk thumbnail (lihat ThumbnailGenerator).
+ *
+ * Directory di-scan sekali saat startup, lalu dijaga tetap up-to-date oleh
+ * WatchService di background thread. Pencarian gambar produk cukup lookup map
+ * (tanpa File.exists()/length() berulang untuk setiap variasi nama dan extension).
+ *
+ * Key map adalah nama file lowercase, sehingga pencarian tidak peka huruf
+ * besar/kecil seperti pola fallback lama (baseName, lowercase, uppercase).
+ */
+class ProductImageIndex {
+    static final String PRODUCTS_DIR = "assets/images/products";
+    // Urutan prioritas sama dengan pola pencarian lama: .jpeg dulu
+    private static final String[] EXTENSION_PRIORITY = {".jpeg", ".jpg", ".png"};
+
+    private final File directory;
+    private final Map<String, IndexedImage> byFileName = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private WatchService watchService;
+
+    ProductImageIndex(String directory) {
+        this.directory = new File(directory).getAbsoluteFile();
+    }
+
+    /**
+     * Scan ulang seluruh directory. Return daftar file yang ditemukan (untuk logging).
+     */
+    synchronized List<IndexedImage> scan() {
+        File[] files = directory.listFiles((dir, name) -> isImageFile(name));
+        if (files == null) {
+            byFileName.clear();
+            ready = false;
+            return Collections.emptyList();
+        }
+        List<IndexedImage> found = new ArrayList<>(files.length);
+        Map<String, IndexedImage> fresh = new ConcurrentHashMap<>();
+        for (File file : files) {
+            if (file.isFile() && file.length() > 0) {
+                IndexedImage image = new IndexedImage(file, file.lastModified(), file.length());
+                fresh.put(file.getName().toLowerCase(), image);
+                found.add(image);
+            }
+        }
+        byFileName.keySet().retainAll(fresh.keySet());
+        byFileName.putAll(fresh);
+        ready = true;
+        return found;
+    }
+
+    /**
+     * Mulai memantau perubahan directory. Aman dipanggil lebih dari sekali.
+     */
+    synchronized void startWatching() {
+        if (watchService != null || !directory.isDirectory()) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            Log.error("❌ Cannot watch image directory: " + e.getMessage());
+            watchService = null;
+            return;
+        }
+
+        Thread watcher = new Thread(this::watchLoop, "image-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        Log.info("👀 Watching image directory: " + directory);
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    scan();
+                    continue;
+                }
+                Path name = (Path) event.context();
+                if (isImageFile(name.toString())) {
+                    update(new File(directory, name.toString()));
+                }
+            }
+            if (!key.reset()) {
+                // Directory dihapus: kembali ke pencarian langsung di filesystem
+                ready = false;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Perbarui satu entry (dipanggil oleh watcher, atau langsung setelah file disalin).
+     */
+    void update(File file) {
+        String key = file.getName().toLowerCase();
+        if (file.isFile() && file.length() > 0) {
+            byFileName.put(key, new IndexedImage(file.getAbsoluteFile(), file.lastModified(), file.length()));
+        } else {
+            byFileName.remove(key);
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * True jika imagePath menunjuk ke directory products, sehingga index bisa
+     * dipakai sebagai satu-satunya sumber kebenaran untuk path tersebut.
+     */
+    boolean covers(String imagePath) {
+        if (!ready || imagePath == null) return false;
+        File parent = new File(imagePath).getAbsoluteFile().getParentFile();
+        return directory.equals(parent);
+    }
+
+    /**
+     * Cari file gambar untuk path dari database: nama persis, lalu nama dasar dengan
+     * extension .jpeg/.jpg/.png, lalu variasi _product / product_.
+     */
+    IndexedImage lookup(String imagePath) {
+        String fileName = new File(imagePath).getName().toLowerCase();
+        IndexedImage image = byFileName.get(fileName);
+        if (image != null) return image;
+
+        String baseName = stripExtension(fileName);
+        for (String ext : EXTENSION_PRIORITY) {
+            image = byFileName.get(baseName + ext);
+            if (image != null) return image;
+        }
+        image = byFileName.get(baseName + "_product.jpeg");
+        if (image != null) return image;
+        return byFileName.get("product_" + baseName + ".jpeg");
+    }
+
+    /**
+     * Lookup nama file persis (tanpa fallback extension), misal untuk thumbnail.
+     */
+    IndexedImage get(String fileName) {
+        return byFileName.get(fileName.toLowerCase());
+    }
+
+    List<IndexedImage> all() {
+        return new ArrayList<>(byFileName.values());
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    int size() {
+        return byFileName.size();
+    }
+
+    static String stripExtension(String fileName) {
+        return fileName.replace(".png", "").replace(".jpg", "").replace(".jpeg", "");
+    }
+
+    private static boolean isImageFile(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".jpeg") || lower.endsWith(".jpg") || lower.endsWith(".png");
+    }
+
+    /**
+     * File gambar yang sudah di-index beserta metadata-nya.
+     */
+    static final class IndexedImage {
+        final File file;
+        final long lastModified;
+        final long length;
+
+        IndexedImage(File file, long lastModified, long length) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package utils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Membuat versi kecil (thumbnail) dari gambar produk untuk setiap ukuran tampilan.
+ *
+ * Thumbnail disimpan di assets/images/products/thumbs dengan nama
+ * "<nama file asli>.<lebar>x<tinggi>.jpg" dan dibuat sekali: saat admin upload
+ * gambar, saat backfill di startup, atau saat gambar asli ternyata lebih baru
+ * dari thumbnail-nya. Tampilan kartu dan cart cukup men-decode file kecil ini.
+ *
+ * Thumbnail mempertahankan aspect ratio dan minimal sebesar ukuran tampilan,
+ * sehingga scale akhir ke ukuran label selalu mengecil (tidak blur).
+ */
+class ThumbnailGenerator {
+    static final String THUMBS_DIR = ProductImageIndex.PRODUCTS_DIR + "/thumbs";
+
+    // Ukuran tampilan di aplikasi: thumbnail cart, kartu featured, kartu katalog
+    static final int[][] DISPLAY_SIZES = {
+        {80, 80},
+        {250, 180},
+        {270, 220}
+    };
+
+    private static final float JPEG_QUALITY = 0.9f;
+
+    private final ProductImageIndex thumbIndex;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "thumbnail-generator");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    ThumbnailGenerator(ProductImageIndex thumbIndex) {
+        this.thumbIndex = thumbIndex;
+    }
+
+    /**
+     * Cari thumbnail terkecil yang masih cukup besar untuk width x height dan tidak
+     * lebih lama dari gambar aslinya. Jika tidak ada, pembuatan thumbnail dijadwalkan
+     * di background dan method ini return null (pemanggil memakai gambar asli).
+     */
+    ProductImageIndex.IndexedImage find(ProductImageIndex.IndexedImage original, int width, int height) {
+        if (!thumbIndex.isReady()) return null;
+        for (int[] size : DISPLAY_SIZES) {
+            if (size[0] < width || size[1] < height) continue;
+            ProductImageIndex.IndexedImage thumb = thumbIndex.get(thumbnailName(original.file, size[0], size[1]));
+            if (thumb != null && thumb.lastModified >= original.lastModified) {
+                return thumb;
+            }
+            generateAsync(original.file);
+            return null;
+        }
+        return null; // Lebih besar dari semua ukuran thumbnail
+    }
+
+    /**
+     * Jadwalkan pembuatan semua ukuran thumbnail untuk satu gambar (tidak dobel jika sudah antre).
+     */
+    void generateAsync(File original) {
+        String key = original.getAbsolutePath();
+        if (pending.add(key)) {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Backfill thumbnail untuk semua gambar yang belum punya thumbnail atau thumbnail-nya kadaluarsa.
+     */
+    void backfillAsync(Collection<ProductImageIndex.IndexedImage> originals) {
+        int scheduled = 0;
+        for (ProductImageIndex.IndexedImage original : originals) {
+            if (isStale(original)) {
+                generateAsync(original.file);
+                scheduled++;
+            }
+        }
+        if (scheduled > 0) {
+            Log.info("🖼️ Scheduled thumbnail backfill for " + scheduled + " images");
+        }
+    }
+
+    private boolean isStale(ProductImageIndex.IndexedImage original) {
+        for (int[] size : DISPLAY_SIZES) {
+            ProductImageIndex.IndexedImage thumb = thumbIndex.get(thumbnailName(original.file, size[0], size[1]));
+            if (thumb == null || thumb.lastModified < original.lastModified) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decode gambar asli sekali lalu tulis semua ukuran thumbnail.
+     */
+    void generate(File original) {
+        try {
+            BufferedImage source = ImageIO.read(original);
+            if (source == null) {
+                Log.error("❌ Unsupported image format for thumbnail: " + original.getName());
+                return;
+            }
+            File dir = thumbIndex.getDirectory();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                Log.error("❌ Cannot create thumbnail directory: " + dir);
+                return;
+            }
+            BufferedImage rgb = toRgb(source);
+            for (int[] size : DISPLAY_SIZES) {
+                // Cover: minimal sebesar kotak tampilan, aspect ratio dipertahankan, tidak di-upscale
+                double scale = Math.min(1.0, Math.max(
+                        (double) size[0] / rgb.getWidth(),
+                        (double) size[1] / rgb.getHeight()));
+                int w = Math.max(1, (int) Math.ceil(rgb.getWidth() * scale));
+                int h = Math.max(1, (int) Math.ceil(rgb.getHeight() * scale));
+
+                File target = new File(dir, thumbnailName(original, size[0], size[1]));
+                writeJpeg(resize(rgb, w, h), target);
+                thumbIndex.update(target);
+            }
+            Log.info("✅ Thumbnails generated for: " + original.getName());
+        } catch (IOException | RuntimeException e) {
+            Log.error("❌ Error generating thumbnails for " + original.getName() + ": " + e.getMessage());
+        }
+    }
+
+    static String thumbnailName(File original, int width, int height) {
+        return original.getName() + "." + width + "x" + height + ".jpg";
+    }
+
+    /**
+     * JPEG tidak punya alpha: gambar digambar di atas background putih.
+     */
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    /**
+     * Downscale bertahap (maksimal setengah per langkah) dengan interpolasi bilinear,
+     * hasilnya mendekati kualitas SCALE_SMOOTH tapi jauh lebih cepat.
+     */
+    private static BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        if (w == targetWidth && h == targetHeight) {
+            return source;
+        }
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    /**
+     * Tulis ke file sementara lalu rename, supaya pembaca tidak pernah melihat file setengah jadi.
+     */
+    private static void writeJpeg(BufferedImage image, File target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+        Files.deleteIfExists(temp.toPath());
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}